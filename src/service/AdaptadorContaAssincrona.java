@@ -0,0 +1,195 @@
+package service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Adaptador base que executa as operações de uma Conta de forma assíncrona.
+ * As operações são enfileiradas por conta e processadas em lotes por uma única tarefa do
+ * executor de cada vez, o que preserva a ordem das operações e evita disputa pelo monitor
+ * da conta entre threads do executor.
+ *
+ * Os resultados são calculados sob o monitor da conta, mas os futuros só são completados depois
+ * de liberá-lo: estágios dependentes (thenApply, thenCompose...) que operem outras contas nunca
+ * rodam segurando o monitor desta (operações encadeadas A->B e B->A não entram em impasse).
+ * Qualquer falha da operação, inclusive Error, falha apenas o seu futuro; o agendamento é sempre
+ * liberado ao fim do lote.
+ *
+ * Atributos:
+ * - conta: T - Conta adaptada (final)
+ * - executor: Executor - Executor que processa os lotes (final)
+ * - pendentes: ConcurrentLinkedQueue<OperacaoPendente<T, ?>> - Fila de operações ainda não executadas (final)
+ * - agendado: AtomicBoolean - Indica se já existe uma tarefa de processamento no executor (final)
+ *
+ * Métodos Públicos:
+ * - Implementação dos métodos da interface ContaAssincrona
+ *
+ * Métodos Protegidos:
+ * - enfileirar(Function<T, R> operacao): CompletableFuture<R> - Agenda uma operação qualquer sobre a conta
+ *
+ * @param <T> Tipo da conta adaptada
+ */
+public class AdaptadorContaAssincrona<T extends Conta> implements ContaAssincrona {
+    // Quantidade máxima de operações processadas por tarefa antes de devolver a thread ao executor
+    private static final int TAMANHO_LOTE = 256;
+
+    // Conta adaptada
+    protected final T conta;
+
+    // Executor que processa os lotes
+    private final Executor executor;
+
+    // Operações ainda não executadas
+    private final ConcurrentLinkedQueue<OperacaoPendente<T, ?>> pendentes;
+
+    // Indica se existe tarefa de processamento agendada
+    private final AtomicBoolean agendado;
+
+    /**
+     * Construtor do adaptador
+     * @param conta Conta a ser adaptada
+     * @param executor Executor que processará as operações
+     */
+    public AdaptadorContaAssincrona(T conta, Executor executor) {
+        this.conta = conta;
+        this.executor = executor;
+        this.pendentes = new ConcurrentLinkedQueue<>();
+        this.agendado = new AtomicBoolean(false);
+    }
+
+    @Override
+    public T getConta() {
+        return conta;
+    }
+
+    @Override
+    public CompletableFuture<Long> consultarSaldoAsync() {
+        return enfileirar(Conta::getSaldo);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> realizarDepositoAsync(long valor) {
+        return enfileirar(c -> c.realizarDeposito(valor));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> realizarSaqueAsync(long valor) {
+        return enfileirar(c -> c.realizarSaque(valor));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> realizarPagamentoAsync(long valor) {
+        return enfileirar(c -> c.realizarPagamento(valor));
+    }
+
+    /**
+     * Agenda uma operação sobre a conta, respeitando a ordem de chegada
+     * @param operacao Operação a ser executada com a conta
+     * @return Futuro com o resultado da operação
+     */
+    protected <R> CompletableFuture<R> enfileirar(Function<T, R> operacao) {
+        CompletableFuture<R> futuro = new CompletableFuture<>();
+        pendentes.add(new OperacaoPendente<>(operacao, futuro));
+        agendar();
+        return futuro;
+    }
+
+    /**
+     * Submete uma tarefa de processamento se nenhuma estiver ativa
+     */
+    private void agendar() {
+        if (agendado.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::processarLote);
+            } catch (RuntimeException e) {
+                // Executor recusou a tarefa: falha as operações pendentes para não deixá-las presas
+                agendado.set(false);
+                OperacaoPendente<T, ?> pendente;
+                while ((pendente = pendentes.poll()) != null) {
+                    pendente.futuro.completeExceptionally(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Executa um lote de operações com o monitor da conta adquirido uma única vez e completa
+     * os futuros após liberá-lo
+     */
+    private void processarLote() {
+        List<OperacaoPendente<T, ?>> executadas = new ArrayList<>();
+        try {
+            PerfiladorContencao.executar(conta, conta.getNumeroContaCompleto(), OperacaoPerfilada.LOTE, () -> {
+                for (int i = 0; i < TAMANHO_LOTE; i++) {
+                    OperacaoPendente<T, ?> pendente = pendentes.poll();
+                    if (pendente == null) {
+                        break;
+                    }
+                    executadas.add(pendente);
+                    pendente.executar(conta);
+                }
+            });
+        } finally {
+            agendado.set(false);
+            Error erro = null;
+            for (OperacaoPendente<T, ?> executada : executadas) {
+                Error falha = executada.concluir();
+                if (erro == null) {
+                    erro = falha;
+                }
+            }
+            // Operações que chegaram durante o lote (ou que excederam o lote) precisam de nova tarefa
+            if (!pendentes.isEmpty()) {
+                agendar();
+            }
+            if (erro != null) {
+                // Os futuros já foram falhados; o Error segue para o executor
+                throw erro;
+            }
+        }
+    }
+
+    /**
+     * Operação enfileirada junto ao futuro que receberá seu resultado
+     */
+    private static final class OperacaoPendente<T, R> {
+        private final Function<T, R> operacao;
+        private final CompletableFuture<R> futuro;
+        private R resultado;
+        private Throwable falha;
+
+        OperacaoPendente(Function<T, R> operacao, CompletableFuture<R> futuro) {
+            this.operacao = operacao;
+            this.futuro = futuro;
+        }
+
+        /**
+         * Calcula o resultado (chamado sob o monitor da conta)
+         */
+        void executar(T conta) {
+            try {
+                resultado = operacao.apply(conta);
+            } catch (Throwable e) {
+                falha = e;
+            }
+        }
+
+        /**
+         * Completa o futuro com o resultado ou a falha (chamado fora do monitor da conta)
+         * @return Error lançado pela operação, se houver
+         */
+        Error concluir() {
+            if (falha != null) {
+                futuro.completeExceptionally(falha);
+                return falha instanceof Error ? (Error) falha : null;
+            }
+            futuro.complete(resultado);
+            return null;
+        }
+    }
+}
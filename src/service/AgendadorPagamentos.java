@@ -0,0 +1,619 @@
+package service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Agendador de pagamentos únicos e recorrentes das contas de um banco, baseado em uma roda de
+ * tempo hierárquica com granularidade de um dia.
+ *
+ * A roda tem 3 níveis de 64 posições: o nível 0 guarda os pagamentos dos próximos dias do bloco
+ * atual de 64 dias, o nível 1 os blocos de 64 dias seguintes e o nível 2 os blocos de 4096 dias;
+ * datas mais distantes ficam em uma lista de excedentes. Ao entrar em um novo bloco, a posição
+ * correspondente do nível superior é redistribuída para os níveis inferiores. Agendar e cancelar
+ * custam O(1) e cada pagamento é redistribuído no máximo uma vez por nível.
+ *
+ * Os pagamentos pendentes são guardados em arrays primitivos paralelos (dia, valor em centavos,
+ * conta, periodicidade, ocorrências restantes e encadeamento da posição), com reaproveitamento
+ * das posições liberadas, sem um objeto por pagamento. Os números das contas são armazenados
+ * uma única vez.
+ *
+ * Atributos:
+ * - banco: Banco - Banco das contas debitadas (final)
+ * - diaAtual: long - Próximo dia a executar (dia da época)
+ * - cabecas: int[] - Início da lista de cada posição da roda, por nível (final)
+ * - excedentes: int - Lista dos pagamentos além do último nível
+ * - dias / centavos / contas / proximos / geracoes / periodicidades / diasDoMes / restantes: Arrays paralelos dos pagamentos
+ * - livre: int - Lista de posições liberadas para reaproveitamento
+ * - numeros: List<String> / idsConta: Map<String, Integer> - Números das contas armazenados uma vez (final)
+ * - relogio: ScheduledExecutorService - Verifica periodicamente a virada do dia (null até iniciar)
+ *
+ * Métodos Públicos:
+ * - agendar(String numeroConta, long valor, LocalDate data): long - Agenda um pagamento único
+ * - agendarRecorrente(String numeroConta, long valor, LocalDate primeira, Periodicidade periodicidade, int ocorrencias): long
+ *   Agenda um pagamento recorrente (ocorrencias = 0 para repetir até o cancelamento)
+ * - cancelar(long id): boolean - Cancela o pagamento (ou as ocorrências futuras da recorrência)
+ * - avancarAte(LocalDate hoje): Execucao - Executa os pagamentos de todos os dias até hoje
+ * - iniciar(Duration verificacao): void - Passa a executar os pagamentos na virada de cada dia
+ * - getPendentes(): int - Pagamentos agendados
+ * - getProximoDia(): LocalDate - Próximo dia a executar
+ * - close(): void - Interrompe a verificação periódica
+ *
+ * Execução:
+ * - Os pagamentos do dia são ordenados pela conta e executados em lotes por conta (uma busca
+ *   e uma aquisição do monitor da conta por lote), com lotes de contas diferentes em paralelo
+ * - Cada pagamento usa realizarPagamento da conta, com as regras de saldo, cheque especial e
+ *   velocidade; recusas e erros são registrados em Execucao.getFalhas() e não interrompem a roda
+ * - Recorrências são reagendadas após a execução do dia, mesmo que a ocorrência tenha falhado
+ */
+public class AgendadorPagamentos implements AutoCloseable {
+    // Bits do índice de posição em cada nível
+    private static final int BITS_NIVEL = 6;
+
+    // Posições por nível
+    private static final int POSICOES = 1 << BITS_NIVEL;
+
+    // Máscara do índice de posição
+    private static final int MASCARA = POSICOES - 1;
+
+    // Níveis da roda
+    private static final int NIVEIS = 3;
+
+    // Marca de fim de lista
+    private static final int VAZIO = -1;
+
+    // Capacidade inicial dos arrays de pagamentos
+    private static final int CAPACIDADE_INICIAL = 1024;
+
+    // Banco das contas debitadas
+    private final Banco banco;
+
+    // Serializa as execuções (avancarAte)
+    private final Object execucao;
+
+    // Próximo dia a executar (dia da época)
+    private long diaAtual;
+
+    // Início da lista de cada posição da roda, por nível
+    private final int[] cabecas;
+
+    // Lista dos pagamentos além do último nível
+    private int excedentes;
+
+    // Dia agendado de cada pagamento (dia da época)
+    private int[] dias;
+
+    // Valor em centavos de cada pagamento (0 = cancelado)
+    private long[] centavos;
+
+    // Identificador da conta de cada pagamento (índice em numeros)
+    private int[] contas;
+
+    // Próximo pagamento na mesma posição da roda (ou na lista livre)
+    private int[] proximos;
+
+    // Geração de cada posição, invalida identificadores de pagamentos já liberados
+    private int[] geracoes;
+
+    // Periodicidade de cada pagamento (ordinal)
+    private byte[] periodicidades;
+
+    // Dia do mês da primeira ocorrência
+    private byte[] diasDoMes;
+
+    // Ocorrências restantes (0 = sem limite)
+    private int[] restantes;
+
+    // Lista de posições liberadas
+    private int livre;
+
+    // Posições já usadas dos arrays
+    private int alocados;
+
+    // Pagamentos agendados e não cancelados
+    private int pendentes;
+
+    // Números das contas armazenados uma vez
+    private final List<String> numeros;
+    private final Map<String, Integer> idsConta;
+
+    // Verifica periodicamente a virada do dia
+    private ScheduledExecutorService relogio;
+
+    /**
+     * Construtor do agendador a partir do dia de hoje
+     * @param banco Banco das contas debitadas
+     */
+    public AgendadorPagamentos(Banco banco) {
+        this(banco, LocalDate.now());
+    }
+
+    /**
+     * Construtor do agendador
+     * @param banco Banco das contas debitadas
+     * @param inicio Primeiro dia a executar
+     */
+    public AgendadorPagamentos(Banco banco, LocalDate inicio) {
+        this.banco = banco;
+        this.execucao = new Object();
+        this.diaAtual = inicio.toEpochDay();
+        this.cabecas = new int[NIVEIS * POSICOES];
+        Arrays.fill(this.cabecas, VAZIO);
+        this.excedentes = VAZIO;
+        this.dias = new int[CAPACIDADE_INICIAL];
+        this.centavos = new long[CAPACIDADE_INICIAL];
+        this.contas = new int[CAPACIDADE_INICIAL];
+        this.proximos = new int[CAPACIDADE_INICIAL];
+        this.geracoes = new int[CAPACIDADE_INICIAL];
+        this.periodicidades = new byte[CAPACIDADE_INICIAL];
+        this.diasDoMes = new byte[CAPACIDADE_INICIAL];
+        this.restantes = new int[CAPACIDADE_INICIAL];
+        this.livre = VAZIO;
+        this.numeros = new ArrayList<>();
+        this.idsConta = new HashMap<>();
+    }
+
+    /**
+     * Agenda um pagamento único
+     * @param numeroConta Número completo da conta debitada
+     * @param valor Valor do pagamento, em centavos (positivo)
+     * @param data Dia do débito (datas passadas são executadas na próxima execução)
+     * @return Identificador do agendamento ou -1 se os dados forem inválidos
+     */
+    public long agendar(String numeroConta, long valor, LocalDate data) {
+        return agendarRecorrente(numeroConta, valor, data, Periodicidade.UNICA, 1);
+    }
+
+    /**
+     * Agenda um pagamento recorrente
+     * @param numeroConta Número completo da conta debitada
+     * @param valor Valor de cada ocorrência, em centavos (positivo)
+     * @param primeira Dia da primeira ocorrência
+     * @param periodicidade Intervalo entre as ocorrências
+     * @param ocorrencias Quantidade de ocorrências (0 = até o cancelamento)
+     * @return Identificador do agendamento ou -1 se os dados forem inválidos
+     */
+    public long agendarRecorrente(String numeroConta, long valor, LocalDate primeira,
+                                  Periodicidade periodicidade, int ocorrencias) {
+        if (valor <= 0) {
+            System.out.println("Valor de pagamento inválido!");
+            return -1;
+        }
+        if (ocorrencias < 0) {
+            System.out.println("Quantidade de ocorrências inválida!");
+            return -1;
+        }
+        if (banco.buscarConta(numeroConta) == null) {
+            System.out.println("Conta não encontrada: " + numeroConta);
+            return -1;
+        }
+        synchronized (this) {
+            int i = alocar();
+            dias[i] = (int) Math.max(primeira.toEpochDay(), diaAtual);
+            centavos[i] = valor;
+            contas[i] = idsConta.computeIfAbsent(numeroConta, n -> {
+                numeros.add(n);
+                return numeros.size() - 1;
+            });
+            periodicidades[i] = (byte) periodicidade.ordinal();
+            diasDoMes[i] = (byte) primeira.getDayOfMonth();
+            restantes[i] = periodicidade == Periodicidade.UNICA ? 1 : ocorrencias;
+            inserir(i);
+            pendentes++;
+            return ((long) geracoes[i] << 32) | i;
+        }
+    }
+
+    /**
+     * Cancela um agendamento. Em uma recorrência, cancela todas as ocorrências futuras
+     * @param id Identificador devolvido por agendar/agendarRecorrente
+     * @return true se o agendamento estava pendente
+     */
+    public synchronized boolean cancelar(long id) {
+        int i = (int) id;
+        if (id < 0 || i >= alocados || geracoes[i] != (int) (id >>> 32) || centavos[i] == 0) {
+            return false;
+        }
+        // Removido da roda quando sua posição for percorrida
+        centavos[i] = 0;
+        pendentes--;
+        return true;
+    }
+
+    /**
+     * Executa, dia a dia, os pagamentos agendados até a data informada (inclusive)
+     * @param hoje Último dia a executar
+     * @return Resumo da execução
+     */
+    public Execucao avancarAte(LocalDate hoje) {
+        long limite = hoje.toEpochDay();
+        synchronized (execucao) {
+            Acumulador acumulador = new Acumulador();
+            for (;;) {
+                long dia;
+                synchronized (this) {
+                    dia = diaAtual;
+                }
+                if (dia > limite) {
+                    break;
+                }
+                executarDia(acumulador);
+            }
+            return new Execucao(acumulador);
+        }
+    }
+
+    /**
+     * Passa a executar os pagamentos periodicamente, até o dia corrente
+     * @param verificacao Intervalo entre verificações da virada do dia
+     */
+    public synchronized void iniciar(Duration verificacao) {
+        if (verificacao.isNegative() || verificacao.isZero()) {
+            throw new IllegalArgumentException("Intervalo de verificação deve ser positivo");
+        }
+        if (relogio != null) {
+            throw new IllegalStateException("Agendador já iniciado");
+        }
+        relogio = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "agendador-pagamentos");
+            thread.setDaemon(true);
+            return thread;
+        });
+        relogio.scheduleWithFixedDelay(() -> {
+            try {
+                Execucao resultado = avancarAte(LocalDate.now());
+                if (resultado.getPagamentosEfetuados() > 0 || !resultado.getFalhas().isEmpty()) {
+                    System.out.println(resultado);
+                }
+            } catch (RuntimeException e) {
+                System.out.println("Erro na execução dos pagamentos agendados: " + e.getMessage());
+            }
+        }, 0, verificacao.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized int getPendentes() {
+        return pendentes;
+    }
+
+    public synchronized LocalDate getProximoDia() {
+        return LocalDate.ofEpochDay(diaAtual);
+    }
+
+    /**
+     * Interrompe a verificação periódica (os agendamentos são mantidos)
+     */
+    @Override
+    public synchronized void close() {
+        if (relogio != null) {
+            relogio.shutdownNow();
+            relogio = null;
+        }
+    }
+
+    /**
+     * Retira da roda e executa os pagamentos do dia atual, reagendando as recorrências
+     */
+    private void executarDia(Acumulador acumulador) {
+        long dia;
+        long[] chaves;
+        long[] valores;
+        String[] numerosLote;
+        synchronized (this) {
+            dia = diaAtual;
+            redistribuir();
+            int posicao = (int) (dia & MASCARA);
+            int lista = cabecas[posicao];
+            cabecas[posicao] = VAZIO;
+            diaAtual = dia + 1;
+
+            int quantidade = 0;
+            for (int i = lista; i != VAZIO; i = proximos[i]) {
+                quantidade++;
+            }
+            long[] coletadas = new long[quantidade];
+            int n = 0;
+            for (int i = lista; i != VAZIO; ) {
+                int seguinte = proximos[i];
+                if (centavos[i] == 0) {
+                    liberar(i);
+                } else {
+                    // Chave ordena pela conta e guarda a posição do pagamento
+                    coletadas[n++] = ((long) contas[i] << 32) | i;
+                }
+                i = seguinte;
+            }
+            chaves = Arrays.copyOf(coletadas, n);
+            Arrays.parallelSort(chaves);
+            valores = new long[n];
+            numerosLote = new String[n];
+            for (int k = 0; k < n; k++) {
+                int i = (int) chaves[k];
+                valores[k] = centavos[i];
+                numerosLote[k] = numeros.get(contas[i]);
+            }
+        }
+        if (chaves.length == 0) {
+            return;
+        }
+
+        LocalDate data = LocalDate.ofEpochDay(dia);
+        int[] inicios = IntStream.range(0, chaves.length)
+                .filter(k -> k == 0 || (chaves[k] >>> 32) != (chaves[k - 1] >>> 32))
+                .toArray();
+        IntStream.range(0, inicios.length).parallel().forEach(g -> {
+            int fim = g + 1 < inicios.length ? inicios[g + 1] : chaves.length;
+            executarLoteConta(numerosLote[inicios[g]], chaves, valores, inicios[g], fim, data, acumulador);
+        });
+        acumulador.contas.add(inicios.length);
+
+        synchronized (this) {
+            for (long chave : chaves) {
+                reagendar((int) chave, data);
+            }
+        }
+        acumulador.dias.increment();
+    }
+
+    /**
+     * Executa os pagamentos de uma conta no dia, sob o monitor da conta
+     */
+    private void executarLoteConta(String numeroConta, long[] chaves, long[] valores, int inicio, int fim,
+                                   LocalDate data, Acumulador acumulador) {
+        Conta conta;
+        try {
+            conta = banco.buscarConta(numeroConta);
+        } catch (RuntimeException e) {
+            conta = null;
+        }
+        if (conta == null) {
+            for (int k = inicio; k < fim; k++) {
+                acumulador.falhas.add(new Falha(identificador(chaves[k]), numeroConta, valores[k],
+                        data, "conta não encontrada"));
+            }
+            return;
+        }
+        Conta pagadora = conta;
+        PerfiladorContencao.executar(pagadora, numeroConta, OperacaoPerfilada.LOTE, () -> {
+            for (int k = inicio; k < fim; k++) {
+                long valor = valores[k];
+                try {
+                    if (pagadora.realizarPagamento(valor)) {
+                        acumulador.efetuados.increment();
+                    } else {
+                        acumulador.falhas.add(new Falha(identificador(chaves[k]), numeroConta, valor, data,
+                                "recusado pela conta (saldo, limite ou regra de velocidade)"));
+                    }
+                } catch (RuntimeException e) {
+                    acumulador.falhas.add(new Falha(identificador(chaves[k]), numeroConta, valor, data,
+                            "erro: " + e.getMessage()));
+                }
+            }
+        });
+    }
+
+    private long identificador(long chave) {
+        int i = (int) chave;
+        synchronized (this) {
+            return ((long) geracoes[i] << 32) | i;
+        }
+    }
+
+    /**
+     * Devolve à roda a próxima ocorrência de um pagamento executado ou libera sua posição
+     */
+    private void reagendar(int i, LocalDate data) {
+        if (centavos[i] == 0) {
+            // Cancelado durante a execução
+            liberar(i);
+            return;
+        }
+        LocalDate proxima = restantes[i] == 1 ? null
+                : Periodicidade.values()[periodicidades[i]].proxima(data, diasDoMes[i]);
+        if (proxima == null) {
+            liberar(i);
+            pendentes--;
+            return;
+        }
+        if (restantes[i] > 0) {
+            restantes[i]--;
+        }
+        dias[i] = (int) proxima.toEpochDay();
+        inserir(i);
+    }
+
+    /**
+     * Ao entrar em um novo bloco, redistribui a posição correspondente de cada nível superior
+     * (do mais alto para o mais baixo) entre os níveis inferiores
+     */
+    private void redistribuir() {
+        for (int nivel = NIVEIS; nivel >= 1; nivel--) {
+            if ((diaAtual & ((1L << (BITS_NIVEL * nivel)) - 1)) != 0) {
+                continue;
+            }
+            int lista;
+            if (nivel == NIVEIS) {
+                lista = excedentes;
+                excedentes = VAZIO;
+            } else {
+                int posicao = nivel * POSICOES + (int) ((diaAtual >>> (BITS_NIVEL * nivel)) & MASCARA);
+                lista = cabecas[posicao];
+                cabecas[posicao] = VAZIO;
+            }
+            while (lista != VAZIO) {
+                int seguinte = proximos[lista];
+                if (centavos[lista] == 0) {
+                    liberar(lista);
+                } else {
+                    inserir(lista);
+                }
+                lista = seguinte;
+            }
+        }
+    }
+
+    /**
+     * Insere um pagamento no nível mais baixo cujo bloco contém o dia agendado
+     */
+    private void inserir(int i) {
+        long dia = dias[i];
+        for (int nivel = 0; nivel < NIVEIS; nivel++) {
+            int deslocamento = BITS_NIVEL * (nivel + 1);
+            if ((dia >>> deslocamento) == (diaAtual >>> deslocamento)) {
+                int posicao = nivel * POSICOES + (int) ((dia >>> (BITS_NIVEL * nivel)) & MASCARA);
+                proximos[i] = cabecas[posicao];
+                cabecas[posicao] = i;
+                return;
+            }
+        }
+        proximos[i] = excedentes;
+        excedentes = i;
+    }
+
+    private int alocar() {
+        if (livre != VAZIO) {
+            int i = livre;
+            livre = proximos[i];
+            return i;
+        }
+        if (alocados == dias.length) {
+            int capacidade = dias.length * 2;
+            dias = Arrays.copyOf(dias, capacidade);
+            centavos = Arrays.copyOf(centavos, capacidade);
+            contas = Arrays.copyOf(contas, capacidade);
+            proximos = Arrays.copyOf(proximos, capacidade);
+            geracoes = Arrays.copyOf(geracoes, capacidade);
+            periodicidades = Arrays.copyOf(periodicidades, capacidade);
+            diasDoMes = Arrays.copyOf(diasDoMes, capacidade);
+            restantes = Arrays.copyOf(restantes, capacidade);
+        }
+        return alocados++;
+    }
+
+    private void liberar(int i) {
+        centavos[i] = 0;
+        geracoes[i]++;
+        proximos[i] = livre;
+        livre = i;
+    }
+
+    /**
+     * Totais acumulados durante uma chamada de avancarAte
+     */
+    private static final class Acumulador {
+        final LongAdder dias = new LongAdder();
+        final LongAdder contas = new LongAdder();
+        final LongAdder efetuados = new LongAdder();
+        final ConcurrentLinkedQueue<Falha> falhas = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * Pagamento agendado que não foi efetuado
+     */
+    public static class Falha {
+        // Identificador do agendamento
+        private final long id;
+
+        // Conta debitada
+        private final String numeroConta;
+
+        // Valor do pagamento, em centavos
+        private final long valor;
+
+        // Dia da execução
+        private final LocalDate data;
+
+        // Motivo da falha
+        private final String motivo;
+
+        Falha(long id, String numeroConta, long valor, LocalDate data, String motivo) {
+            this.id = id;
+            this.numeroConta = numeroConta;
+            this.valor = valor;
+            this.data = data;
+            this.motivo = motivo;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public String getNumeroConta() {
+            return numeroConta;
+        }
+
+        public long getValor() {
+            return valor;
+        }
+
+        public LocalDate getData() {
+            return data;
+        }
+
+        public String getMotivo() {
+            return motivo;
+        }
+
+        @Override
+        public String toString() {
+            return data + " | " + numeroConta + " | R$ " + Dinheiro.formatar(valor) + " | " + motivo;
+        }
+    }
+
+    /**
+     * Resumo de uma chamada de avancarAte
+     */
+    public static class Execucao {
+        // Dias com pagamentos executados
+        private final long dias;
+
+        // Lotes por conta executados
+        private final long contas;
+
+        // Pagamentos efetuados
+        private final long pagamentosEfetuados;
+
+        // Pagamentos não efetuados
+        private final List<Falha> falhas;
+
+        Execucao(Acumulador acumulador) {
+            this.dias = acumulador.dias.sum();
+            this.contas = acumulador.contas.sum();
+            this.pagamentosEfetuados = acumulador.efetuados.sum();
+            this.falhas = Collections.unmodifiableList(new ArrayList<>(acumulador.falhas));
+        }
+
+        public long getDias() {
+            return dias;
+        }
+
+        public long getContas() {
+            return contas;
+        }
+
+        public long getPagamentosEfetuados() {
+            return pagamentosEfetuados;
+        }
+
+        public List<Falha> getFalhas() {
+            return falhas;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Pagamentos agendados: %d efetuado(s) e %d falha(s) em %d lote(s) por conta (%d dia(s))",
+                    pagamentosEfetuados, falhas.size(), contas, dias);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Anel de hash consistente que mapeia números de conta para nós do banco.
+ * Cada nó físico ocupa várias posições (nós virtuais) no anel, o que distribui as contas
+ * de forma equilibrada e faz com que a entrada de um novo nó mova apenas a fração de
+ * contas que passa a pertencer a ele.
+ *
+ * Atributos:
+ * - nosVirtuais: int - Quantidade de posições que cada nó ocupa no anel (final)
+ * - anel: TreeMap<Long, String> - Posição no anel -> identificador do nó (final)
+ * - nos: Set<String> - Identificadores dos nós físicos presentes no anel (final)
+ *
+ * Métodos Públicos:
+ * - adicionarNo(String idNo): void - Insere um nó e suas posições virtuais no anel
+ * - removerNo(String idNo): void - Retira um nó e suas posições virtuais do anel
+ * - localizarNo(String chave): String - Retorna o nó responsável pela chave (ou null se o anel estiver vazio)
+ * - contemNo(String idNo): boolean - Indica se o nó faz parte do anel
+ * - getNos(): Set<String> - Retorna os nós presentes no anel
+ * - getNosVirtuais(): int - Retorna a quantidade de nós virtuais por nó
+ *
+ * Observação:
+ * - A função de hash é determinística (FNV-1a de 64 bits seguida de mistura de bits), de modo
+ *   que processos diferentes que conhecem os mesmos nós constroem exatamente o mesmo anel
+ */
+public class AnelHashConsistente {
+    // Quantidade padrão de nós virtuais por nó físico
+    public static final int NOS_VIRTUAIS_PADRAO = 128;
+
+    // Quantidade de posições que cada nó ocupa no anel
+    private final int nosVirtuais;
+
+    // Posição no anel -> identificador do nó
+    private final TreeMap<Long, String> anel;
+
+    // Identificadores dos nós físicos
+    private final Set<String> nos;
+
+    /**
+     * Construtor do anel
+     * @param nosVirtuais Quantidade de posições por nó (deve ser positiva)
+     */
+    public AnelHashConsistente(int nosVirtuais) {
+        if (nosVirtuais <= 0) {
+            throw new IllegalArgumentException("Quantidade de nós virtuais deve ser positiva");
+        }
+        this.nosVirtuais = nosVirtuais;
+        this.anel = new TreeMap<>();
+        this.nos = new TreeSet<>();
+    }
+
+    /**
+     * Insere um nó no anel, ocupando suas posições virtuais
+     * @param idNo Identificador do nó
+     */
+    public synchronized void adicionarNo(String idNo) {
+        if (!nos.add(idNo)) {
+            return;
+        }
+        for (int i = 0; i < nosVirtuais; i++) {
+            long posicao = hash(idNo + "#" + i);
+            String atual = anel.get(posicao);
+            // Colisões são resolvidas de forma determinística pelo menor identificador
+            if (atual == null || idNo.compareTo(atual) < 0) {
+                anel.put(posicao, idNo);
+            }
+        }
+    }
+
+    /**
+     * Retira um nó do anel, liberando suas posições virtuais
+     * @param idNo Identificador do nó
+     */
+    public synchronized void removerNo(String idNo) {
+        if (!nos.remove(idNo)) {
+            return;
+        }
+        anel.values().removeIf(idNo::equals);
+        // Reconstrói posições que eventualmente colidiram com o nó removido
+        for (String restante : nos) {
+            for (int i = 0; i < nosVirtuais; i++) {
+                long posicao = hash(restante + "#" + i);
+                String atual = anel.get(posicao);
+                if (atual == null || restante.compareTo(atual) < 0) {
+                    anel.put(posicao, restante);
+                }
+            }
+        }
+    }
+
+    /**
+     * Localiza o nó responsável por uma chave (primeira posição do anel a partir do hash da chave)
+     * @param chave Número completo da conta
+     * @return Identificador do nó ou null se o anel estiver vazio
+     */
+    public synchronized String localizarNo(String chave) {
+        if (anel.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Long, String> entrada = anel.ceilingEntry(hash(chave));
+        return entrada != null ? entrada.getValue() : anel.firstEntry().getValue();
+    }
+
+    /**
+     * Indica se o nó faz parte do anel
+     * @param idNo Identificador do nó
+     * @return true se o nó estiver no anel
+     */
+    public synchronized boolean contemNo(String idNo) {
+        return nos.contains(idNo);
+    }
+
+    /**
+     * Retorna os nós presentes no anel
+     * @return Conjunto imutável com os identificadores dos nós
+     */
+    public synchronized Set<String> getNos() {
+        return Collections.unmodifiableSet(new TreeSet<>(nos));
+    }
+
+    public int getNosVirtuais() {
+        return nosVirtuais;
+    }
+
+    /**
+     * Calcula a posição de uma chave no anel (FNV-1a 64 bits + mistura final do MurmurHash3)
+     * @param chave Texto a ser posicionado
+     * @return Posição no anel
+     */
+    static long hash(String chave) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : chave.getBytes(StandardCharsets.UTF_8)) {
+            h ^= (b & 0xff);
+            h *= 0x100000001b3L;
+        }
+        h ^= (h >>> 33);
+        h *= 0xff51afd7ed558ccdL;
+        h ^= (h >>> 33);
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= (h >>> 33);
+        return h;
+    }
+}
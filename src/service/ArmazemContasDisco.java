@@ -0,0 +1,138 @@
+package service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Armazém em disco das contas inativas, usado pelo armazenamento em camadas.
+ * Cada conta é serializada em um arquivo próprio, distribuído em 256 subdiretórios pelo hash
+ * do número da conta. Os números presentes no disco ficam em um conjunto em memória, o que
+ * permite responder "existe?" sem acessar o disco.
+ *
+ * Atributos:
+ * - diretorio: Path - Diretório raiz do armazém (final)
+ * - numeros: Set<String> - Números das contas gravadas (final)
+ *
+ * Métodos Públicos:
+ * - gravar(Conta conta): void - Grava (ou substitui) a conta no disco
+ * - ler(String numeroContaCompleto): Conta - Lê a conta do disco (null se não existir)
+ * - remover(String numeroContaCompleto): boolean - Apaga a conta do disco
+ * - contem(String numeroContaCompleto): boolean - Indica se a conta está no disco
+ * - getNumeros(): Set<String> - Números das contas gravadas
+ * - getQuantidade(): int - Quantidade de contas gravadas
+ *
+ * Observação:
+ * - A gravação usa arquivo temporário e renomeação atômica: uma queda nunca deixa uma conta
+ *   parcialmente gravada
+ */
+public class ArmazemContasDisco {
+    private static final String EXTENSAO = ".conta";
+
+    // Diretório raiz do armazém
+    private final Path diretorio;
+
+    // Números das contas gravadas
+    private final Set<String> numeros;
+
+    /**
+     * Abre (ou cria) o armazém, carregando os números das contas já gravadas
+     * @param diretorio Diretório raiz do armazém
+     * @throws IOException se o diretório não puder ser criado ou lido
+     */
+    public ArmazemContasDisco(Path diretorio) throws IOException {
+        this.diretorio = Files.createDirectories(diretorio);
+        this.numeros = ConcurrentHashMap.newKeySet();
+        try (Stream<Path> arquivos = Files.walk(diretorio, 2)) {
+            arquivos.map(arquivo -> arquivo.getFileName().toString())
+                    .filter(nome -> nome.endsWith(EXTENSAO))
+                    .map(nome -> URLDecoder.decode(nome.substring(0, nome.length() - EXTENSAO.length()),
+                            StandardCharsets.UTF_8))
+                    .forEach(numeros::add);
+        }
+    }
+
+    /**
+     * Grava a conta no disco, substituindo a versão anterior
+     * @param conta Conta serializável (ContaCorrente ou ContaPoupanca)
+     * @throws IOException se a conta não puder ser gravada
+     */
+    public void gravar(Conta conta) throws IOException {
+        String numero = conta.getNumeroContaCompleto();
+        Path arquivo = arquivo(numero);
+        Files.createDirectories(arquivo.getParent());
+        Path temporario = arquivo.resolveSibling(arquivo.getFileName() + ".tmp");
+        try (ObjectOutputStream saida = new ObjectOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temporario)))) {
+            saida.writeObject(conta);
+        }
+        Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        numeros.add(numero);
+    }
+
+    /**
+     * Lê uma conta do disco
+     * @param numeroContaCompleto Número completo da conta
+     * @return Conta lida ou null se não estiver no disco
+     * @throws IOException se o arquivo existir mas não puder ser lido
+     */
+    public Conta ler(String numeroContaCompleto) throws IOException {
+        if (!numeros.contains(numeroContaCompleto)) {
+            return null;
+        }
+        try (ObjectInputStream entrada = new ObjectInputStream(
+                new BufferedInputStream(Files.newInputStream(arquivo(numeroContaCompleto))))) {
+            return (Conta) entrada.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Conteúdo inválido para a conta " + numeroContaCompleto, e);
+        }
+    }
+
+    /**
+     * Apaga uma conta do disco
+     * @param numeroContaCompleto Número completo da conta
+     * @return true se a conta estava no disco
+     */
+    public boolean remover(String numeroContaCompleto) {
+        if (!numeros.remove(numeroContaCompleto)) {
+            return false;
+        }
+        try {
+            Files.deleteIfExists(arquivo(numeroContaCompleto));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return true;
+    }
+
+    public boolean contem(String numeroContaCompleto) {
+        return numeros.contains(numeroContaCompleto);
+    }
+
+    public Set<String> getNumeros() {
+        return Collections.unmodifiableSet(numeros);
+    }
+
+    public int getQuantidade() {
+        return numeros.size();
+    }
+
+    private Path arquivo(String numeroContaCompleto) {
+        String subdiretorio = String.format("%02x", numeroContaCompleto.hashCode() & 0xff);
+        return diretorio.resolve(subdiretorio)
+                .resolve(URLEncoder.encode(numeroContaCompleto, StandardCharsets.UTF_8) + EXTENSAO);
+    }
+}
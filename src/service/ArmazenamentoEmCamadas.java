@@ -0,0 +1,450 @@
+package service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Armazenamento em camadas das contas do banco: contas ativas ficam em memória e contas sem uso
+ * dentro da janela de inatividade são gravadas em disco (ArmazemContasDisco) e retiradas da memória.
+ * Banco.buscarConta recarrega de forma transparente as contas que estão em disco.
+ *
+ * A escolha das contas despejadas segue o algoritmo do relógio (CLOCK): cada conta tem um bit
+ * de referência (ResidenciaConta) marcado a cada operação. A varredura periódica percorre as
+ * contas residentes limpando os bits marcados e despejando as contas cujo bit continuou limpo
+ * durante toda a janela. Se a quantidade de contas residentes ultrapassar o orçamento de memória,
+ * o ponteiro do relógio avança despejando contas não referenciadas até voltar ao orçamento.
+ *
+ * Atributos:
+ * - banco: Banco - Banco cujas contas são gerenciadas (final)
+ * - disco: ArmazemContasDisco - Armazém das contas despejadas (final)
+ * - janelaInatividade: Duration - Intervalo sem uso após o qual a conta é despejada (final)
+ * - orcamentoContas: int - Quantidade máxima de contas residentes em memória (final)
+ * - despejadas: Map<String, WeakReference<Conta>> - Objetos despejados que ainda podem estar em uso (final)
+ * - travas: Object[] - Travas por faixa de número de conta para carregar/despejar/reativar (final)
+ * - ponteiro: int - Posição do ponteiro do relógio entre ajustes de orçamento
+ * - varredor: ScheduledExecutorService - Thread das varreduras e ajustes de orçamento (final)
+ *
+ * Métodos Públicos:
+ * - varrer(): int - Executa uma volta completa do relógio e retorna as contas despejadas
+ * - aplicarOrcamento(): int - Despeja contas até respeitar o orçamento e retorna as contas despejadas
+ * - contem(String numeroContaCompleto): boolean - Indica se a conta está em disco
+ * - getQuantidadeEmDisco(): int - Contas atualmente em disco
+ * - getCarregamentos() / getDespejos() / getReativacoes(): long - Estatísticas acumuladas
+ * - close(): void - Encerra a varredura periódica (as contas em disco permanecem no armazém)
+ *
+ * Métodos de Pacote:
+ * - iniciar(): void - Agenda a varredura periódica (chamado por Banco.ativarArmazenamentoEmCamadas)
+ * - carregar(String numeroContaCompleto): Conta - Traz a conta do disco para a memória
+ * - visitar(String numeroContaCompleto, Function<Conta, R> acao, boolean gravar): R - Aplica uma ação
+ *   de manutenção sem trazer a conta para a memória nem marcar acesso
+ * - reativar(Conta conta): void - Devolve à memória um objeto despejado que voltou a ser usado
+ * - descartar(Conta conta): boolean - Remove a conta do disco (remoção de conta)
+ * - solicitarAjuste(): void - Agenda um ajuste de orçamento se houver contas residentes em excesso
+ *
+ * Latência das contas ativas:
+ * - O caminho de uma conta residente continua sendo a busca no índice do banco; o armazenamento
+ *   acrescenta apenas a leitura (e, uma vez por janela, a escrita) do bit de referência
+ * - Gravação em disco e ajustes de orçamento acontecem na thread do varredor
+ * - Processamento em lote, reavaliação de limites e reconciliação usam visitar: contas em disco
+ *   são lidas (e, se alteradas, regravadas) sem passar pela memória, e contas residentes não
+ *   têm o bit de referência marcado; assim uma varredura de manutenção não despeja as contas ativas
+ *
+ * Consistência:
+ * - O despejo grava a conta sob o monitor da própria conta. Um chamador que ainda guarde o
+ *   objeto despejado e volte a operá-lo faz a conta voltar à memória antes da alteração, e uma
+ *   busca posterior devolve esse mesmo objeto; nenhuma alteração é perdida
+ * - Uma conta está sempre no índice do banco, em disco, ou em ambos durante as transições
+ * - Ordem de bloqueio: monitor da conta, trava da faixa do número e, por fim, o banco
+ */
+public class ArmazenamentoEmCamadas implements AutoCloseable {
+    // Quantidade de travas por faixa de número de conta
+    private static final int TRAVAS = 64;
+
+    // Banco cujas contas são gerenciadas
+    private final Banco banco;
+
+    // Armazém das contas despejadas
+    private final ArmazemContasDisco disco;
+
+    // Intervalo sem uso após o qual a conta é despejada
+    private final Duration janelaInatividade;
+
+    // Quantidade máxima de contas residentes em memória
+    private final int orcamentoContas;
+
+    // Objetos despejados que ainda podem estar referenciados por algum chamador
+    private final Map<String, WeakReference<Conta>> despejadas;
+
+    // Travas por faixa de número de conta
+    private final Object[] travas;
+
+    // Posição do ponteiro do relógio entre ajustes de orçamento
+    private int ponteiro;
+
+    // Thread das varreduras e ajustes de orçamento
+    private final ScheduledExecutorService varredor;
+
+    // Evita enfileirar vários ajustes de orçamento ao mesmo tempo
+    private final AtomicBoolean ajustePendente;
+
+    // Estatísticas acumuladas
+    private final LongAdder carregamentos;
+    private final LongAdder despejos;
+    private final LongAdder reativacoes;
+
+    /**
+     * Construtor do armazenamento em camadas (use Banco.ativarArmazenamentoEmCamadas)
+     * @param banco Banco cujas contas serão gerenciadas
+     * @param disco Armazém das contas despejadas
+     * @param janelaInatividade Intervalo sem uso após o qual a conta é despejada
+     * @param orcamentoContas Quantidade máxima de contas residentes em memória
+     */
+    ArmazenamentoEmCamadas(Banco banco, ArmazemContasDisco disco, Duration janelaInatividade,
+                           int orcamentoContas) {
+        if (janelaInatividade.isNegative() || janelaInatividade.isZero() || orcamentoContas <= 0) {
+            throw new IllegalArgumentException("Janela de inatividade e orçamento devem ser positivos");
+        }
+        this.banco = banco;
+        this.disco = disco;
+        this.janelaInatividade = janelaInatividade;
+        this.orcamentoContas = orcamentoContas;
+        this.despejadas = new ConcurrentHashMap<>();
+        this.travas = new Object[TRAVAS];
+        for (int i = 0; i < TRAVAS; i++) {
+            this.travas[i] = new Object();
+        }
+        this.varredor = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "camadas-varredor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.ajustePendente = new AtomicBoolean();
+        this.carregamentos = new LongAdder();
+        this.despejos = new LongAdder();
+        this.reativacoes = new LongAdder();
+    }
+
+    /**
+     * Agenda a varredura periódica: a cada janela de inatividade o relógio dá uma volta completa,
+     * de modo que uma conta sem uso é despejada entre uma e duas janelas após o último acesso
+     */
+    void iniciar() {
+        long periodo = janelaInatividade.toMillis();
+        varredor.scheduleWithFixedDelay(() -> {
+            try {
+                varrer();
+            } catch (RuntimeException e) {
+                System.out.println("Falha na varredura do armazenamento em camadas: " + e.getMessage());
+            }
+        }, periodo, periodo, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Executa uma volta completa do relógio: contas referenciadas têm o bit limpo e as demais
+     * são despejadas para o disco
+     * @return Quantidade de contas despejadas
+     */
+    public synchronized int varrer() {
+        List<Conta> residentes = banco.getContas();
+        List<Conta> despejadasAgora = new ArrayList<>();
+        for (Conta conta : residentes) {
+            if (despejar(conta)) {
+                despejadasAgora.add(conta);
+            }
+        }
+        banco.removerDespejadas(despejadasAgora);
+        return despejadasAgora.size() + aplicarOrcamento();
+    }
+
+    /**
+     * Avança o ponteiro do relógio despejando contas não referenciadas até que a quantidade de
+     * contas residentes fique 10% abaixo do orçamento (no máximo duas voltas). A folga evita
+     * um novo ajuste a cada conta recarregada
+     * @return Quantidade de contas despejadas
+     */
+    public synchronized int aplicarOrcamento() {
+        ajustePendente.set(false);
+        if (banco.getQuantidadeResidentes() <= orcamentoContas) {
+            return 0;
+        }
+        List<Conta> residentes = banco.getContas();
+        int excesso = residentes.size() - (orcamentoContas - orcamentoContas / 10);
+        if (excesso <= 0) {
+            return 0;
+        }
+
+        List<Conta> despejadasAgora = new ArrayList<>();
+        int total = residentes.size();
+        for (int passo = 0; passo < 2 * total && despejadasAgora.size() < excesso; passo++) {
+            if (ponteiro >= total) {
+                ponteiro = 0;
+            }
+            Conta conta = residentes.get(ponteiro++);
+            if (despejar(conta)) {
+                despejadasAgora.add(conta);
+            }
+        }
+        banco.removerDespejadas(despejadasAgora);
+        return despejadasAgora.size();
+    }
+
+    /**
+     * Grava a conta em disco e a marca como despejada, caso não tenha sido referenciada desde a
+     * última passagem do relógio (nesse caso apenas limpa o bit de referência)
+     * @return true se a conta foi despejada
+     */
+    private boolean despejar(Conta conta) {
+        ResidenciaConta residencia = ResidenciaConta.de(conta);
+        if (residencia == null) {
+            return false;
+        }
+        String numero = conta.getNumeroContaCompleto();
+        synchronized (conta) {
+            if (residencia.consumirAcesso() || residencia.isDespejada()) {
+                return false;
+            }
+            // Contas em modo conta quente recebem depósitos sem o monitor e nunca são despejadas
+            if (conta instanceof ContaCorrente && ((ContaCorrente) conta).isModoQuente()) {
+                return false;
+            }
+            synchronized (trava(numero)) {
+                try {
+                    disco.gravar(conta);
+                } catch (IOException e) {
+                    System.out.println("Falha ao gravar a conta " + numero + " em disco: " + e.getMessage());
+                    return false;
+                }
+                residencia.marcarDespejada(this);
+                despejadas.put(numero, new WeakReference<>(conta));
+            }
+        }
+        despejos.increment();
+        return true;
+    }
+
+    /**
+     * Traz uma conta do disco para a memória. Se o objeto despejado ainda estiver em uso por algum
+     * chamador, ele próprio volta a ser a conta residente
+     * @param numeroContaCompleto Número completo da conta
+     * @return Conta residente ou null se a conta não existir
+     */
+    Conta carregar(String numeroContaCompleto) {
+        Conta conta;
+        synchronized (trava(numeroContaCompleto)) {
+            conta = banco.buscarResidente(numeroContaCompleto);
+            if (conta != null) {
+                return conta;
+            }
+
+            WeakReference<Conta> referencia = despejadas.remove(numeroContaCompleto);
+            conta = referencia == null ? null : referencia.get();
+            if (conta == null || !ResidenciaConta.de(conta).limparDespejo(this)) {
+                if (!disco.contem(numeroContaCompleto)) {
+                    return null;
+                }
+                try {
+                    conta = disco.ler(numeroContaCompleto);
+                } catch (IOException e) {
+                    System.out.println("Falha ao ler a conta " + numeroContaCompleto + " do disco: " + e.getMessage());
+                    return null;
+                }
+            }
+
+            // Reinsere antes de apagar do disco: a conta nunca fica fora das duas camadas
+            banco.reinserir(conta);
+            disco.remover(numeroContaCompleto);
+        }
+        // A conta recém-carregada conta como acessada e não é despejada na próxima passagem
+        ResidenciaConta.de(conta).registrarAcesso(conta);
+        carregamentos.increment();
+        solicitarAjuste();
+        return conta;
+    }
+
+    /**
+     * Aplica uma ação de manutenção à conta sem trazê-la para a memória e sem marcar acesso.
+     * Uma conta em disco é lida, processada e (se gravar) regravada sob a trava da faixa do
+     * número, de modo que nenhum carregamento concorrente observa uma cópia intermediária.
+     * Um objeto despejado que ainda esteja na memória é processado no próprio objeto e continua
+     * despejado; contas residentes são processadas fora da trava (a ação adquire o monitor da
+     * conta, que precede a trava na ordem de bloqueio)
+     * @param numeroContaCompleto Número completo da conta
+     * @param acao Ação aplicada à conta (responsável por adquirir o monitor da conta)
+     * @param gravar true se a ação pode alterar a conta e a cópia em disco deve ser regravada
+     * @return Resultado da ação ou null se a conta não existir
+     * @throws UncheckedIOException se a conta em disco não puder ser lida ou regravada
+     */
+    <R> R visitar(String numeroContaCompleto, Function<Conta, R> acao, boolean gravar) {
+        Object trava = trava(numeroContaCompleto);
+        Conta conta;
+        Conta despejada = null;
+        synchronized (trava) {
+            conta = banco.buscarResidente(numeroContaCompleto);
+            if (conta == null) {
+                WeakReference<Conta> referencia = despejadas.get(numeroContaCompleto);
+                despejada = referencia == null ? null : referencia.get();
+                if (despejada == null) {
+                    Conta copia = lerDoDisco(numeroContaCompleto);
+                    if (copia == null) {
+                        return null;
+                    }
+                    R resultado = acao.apply(copia);
+                    if (gravar) {
+                        gravarNoDisco(copia);
+                    }
+                    return resultado;
+                }
+            }
+        }
+
+        if (despejada != null) {
+            // Monitor da conta antes da trava: chamadores que ainda guardem o objeto aguardam
+            synchronized (despejada) {
+                synchronized (trava) {
+                    ResidenciaConta residencia = ResidenciaConta.de(despejada);
+                    if (residencia.limparDespejo(this)) {
+                        // Sem a marca de despejo a ação não reativa a conta; a marca é restaurada em seguida
+                        try {
+                            R resultado = acao.apply(despejada);
+                            if (gravar) {
+                                gravarNoDisco(despejada);
+                            }
+                            return resultado;
+                        } finally {
+                            residencia.marcarDespejada(this);
+                        }
+                    }
+                }
+            }
+            // Reativada por outro chamador entre as duas etapas: segue como conta residente
+            conta = despejada;
+        }
+        return acao.apply(conta);
+    }
+
+    /**
+     * Lê a cópia em disco de uma conta, vinculada ao banco (os movimentos aplicados à cópia
+     * chegam ao reconciliador do banco)
+     */
+    private Conta lerDoDisco(String numeroContaCompleto) {
+        try {
+            Conta copia = disco.ler(numeroContaCompleto);
+            banco.vincular(copia);
+            return copia;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler a conta " + numeroContaCompleto + " do disco", e);
+        }
+    }
+
+    private void gravarNoDisco(Conta conta) {
+        try {
+            disco.gravar(conta);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar a conta " + conta.getNumeroContaCompleto() + " em disco", e);
+        }
+    }
+
+    /**
+     * Devolve à memória um objeto despejado que voltou a ser operado por um chamador que
+     * ainda o referenciava (chamado sob o monitor da conta)
+     * @param conta Conta despejada
+     */
+    void reativar(Conta conta) {
+        String numero = conta.getNumeroContaCompleto();
+        synchronized (trava(numero)) {
+            if (!ResidenciaConta.de(conta).limparDespejo(this)) {
+                return;
+            }
+            despejadas.remove(numero);
+            banco.reinserir(conta);
+            disco.remover(numero);
+        }
+        reativacoes.increment();
+        solicitarAjuste();
+    }
+
+    /**
+     * Remove a conta do disco, usado quando a conta é excluída do banco
+     * @param conta Conta excluída
+     * @return true se a conta estava em disco
+     */
+    boolean descartar(Conta conta) {
+        String numero = conta.getNumeroContaCompleto();
+        synchronized (trava(numero)) {
+            despejadas.remove(numero);
+            ResidenciaConta residencia = ResidenciaConta.de(conta);
+            if (residencia != null) {
+                residencia.limparDespejo(this);
+            }
+            return disco.remover(numero);
+        }
+    }
+
+    /**
+     * Indica se a conta está gravada em disco
+     * @param numeroContaCompleto Número completo da conta
+     * @return true se a conta está em disco
+     */
+    public boolean contem(String numeroContaCompleto) {
+        return disco.contem(numeroContaCompleto);
+    }
+
+    public int getQuantidadeEmDisco() {
+        return disco.getQuantidade();
+    }
+
+    public ArmazemContasDisco getDisco() {
+        return disco;
+    }
+
+    public long getCarregamentos() {
+        return carregamentos.sum();
+    }
+
+    public long getDespejos() {
+        return despejos.sum();
+    }
+
+    public long getReativacoes() {
+        return reativacoes.sum();
+    }
+
+    /**
+     * Encerra a varredura periódica. As contas já gravadas permanecem no armazém em disco
+     */
+    @Override
+    public void close() {
+        varredor.shutdownNow();
+    }
+
+    /**
+     * Agenda um ajuste de orçamento na thread do varredor, fora do caminho da operação,
+     * quando a quantidade de contas residentes ultrapassa o orçamento
+     */
+    void solicitarAjuste() {
+        if (banco.getQuantidadeResidentes() > orcamentoContas && !varredor.isShutdown()
+                && ajustePendente.compareAndSet(false, true)) {
+            try {
+                varredor.execute(this::aplicarOrcamento);
+            } catch (RuntimeException e) {
+                ajustePendente.set(false);
+            }
+        }
+    }
+
+    private Object trava(String numeroContaCompleto) {
+        return travas[Math.floorMod(numeroContaCompleto.hashCode(), TRAVAS)];
+    }
+}
@@ -0,0 +1,23 @@
+package service;
+
+import java.util.Map;
+
+/**
+ * Visão de uma árvore de Merkle de estados de conta, usada na comparação entre réplicas ou
+ * instantâneos (ver ReconciliadorMerkle)
+ *
+ * Métodos:
+ * - getRaiz(): long - Hash da raiz
+ * - getQuantidadeFolhas(): int - Quantidade de folhas (potência de 2)
+ * - getNo(int indice): long - Hash do nó (raiz no índice 1, folhas a partir de getQuantidadeFolhas())
+ * - getContasDaFolha(int folha): Map<String, Long> - Hash de cada conta da folha
+ */
+public interface ArvoreMerkle {
+    long getRaiz();
+
+    int getQuantidadeFolhas();
+
+    long getNo(int indice);
+
+    Map<String, Long> getContasDaFolha(int folha);
+}
@@ -0,0 +1,88 @@
+package service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Balde de tokens sem bloqueio usado no controle de admissão de operações.
+ * O estado inteiro cabe em um único long (instante teórico da próxima chegada, algoritmo GCRA),
+ * atualizado por CAS. A reposição dos tokens é calculada de forma preguiçosa a partir do relógio
+ * no momento da consulta, de modo que um balde ocioso não consome processamento algum.
+ *
+ * Atributos:
+ * - intervaloNanos: long - Tempo para repor um token (final)
+ * - toleranciaNanos: long - Rajada tolerada além do ritmo constante, (capacidade - 1) * intervalo (final)
+ * - proximaChegada: AtomicLong - Instante teórico (System.nanoTime) da próxima chegada dentro do ritmo (final)
+ *
+ * Métodos Públicos:
+ * - tentarConsumir(): boolean - Consome um token se disponível, sem bloquear
+ * - tentarConsumir(long agora): boolean - Idem, com o instante atual informado pelo chamador
+ * - devolver(): void - Devolve um token consumido (usado quando outra verificação rejeita a operação)
+ * - estaCheio(long agora): boolean - Indica se o balde está com a capacidade total
+ */
+public class BaldeTokens {
+    // Tempo para repor um token
+    private final long intervaloNanos;
+
+    // Rajada tolerada além do ritmo constante
+    private final long toleranciaNanos;
+
+    // Instante teórico da próxima chegada
+    private final AtomicLong proximaChegada;
+
+    /**
+     * Construtor do balde
+     * @param capacidade Quantidade máxima de tokens (rajada)
+     * @param tokensPorSegundo Ritmo de reposição
+     */
+    public BaldeTokens(int capacidade, double tokensPorSegundo) {
+        if (capacidade <= 0 || tokensPorSegundo <= 0) {
+            throw new IllegalArgumentException("Capacidade e ritmo do balde devem ser positivos");
+        }
+        this.intervaloNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / tokensPorSegundo));
+        this.toleranciaNanos = (capacidade - 1) * intervaloNanos;
+        this.proximaChegada = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Consome um token se disponível
+     * @return true se o token foi consumido, false se o balde estiver vazio
+     */
+    public boolean tentarConsumir() {
+        return tentarConsumir(System.nanoTime());
+    }
+
+    /**
+     * Consome um token se disponível, usando o instante informado
+     * @param agora Instante atual (System.nanoTime)
+     * @return true se o token foi consumido, false se o balde estiver vazio
+     */
+    public boolean tentarConsumir(long agora) {
+        while (true) {
+            long atual = proximaChegada.get();
+            long base = Math.max(atual, agora);
+            if (base - agora > toleranciaNanos) {
+                return false;
+            }
+            if (proximaChegada.compareAndSet(atual, base + intervaloNanos)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Devolve um token consumido
+     */
+    public void devolver() {
+        proximaChegada.addAndGet(-intervaloNanos);
+    }
+
+    /**
+     * Indica se o balde está cheio, ou seja, equivalente a um balde recém-criado
+     * @param agora Instante atual (System.nanoTime)
+     * @return true se não houver consumo pendente de reposição
+     */
+    public boolean estaCheio(long agora) {
+        return proximaChegada.get() - agora <= 0;
+    }
+}
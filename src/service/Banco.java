@@ -1,40 +1,139 @@
 package service;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
 
 /**
  * Classe que representa um banco com nome e lista de contas associadas.
- * Implementa o padrão Singleton para garantir uma única instância.
+ * Implementa o padrão Singleton para a instância padrão ("Banco Digital"); outras marcas do
+ * grupo são obtidas pelo nome no registro de bancos (obter) e liquidam pagamentos entre si
+ * pela CamaraCompensacao.
  *
  * Atributos:
- * - instance: Banco - Instância única do banco (privado e estático, parte do padrão Singleton)
+ * - instance: Banco - Instância padrão do banco (privado e estático, parte do padrão Singleton)
+ * - registro: Map<String, Banco> - Bancos registrados pelo nome (privado e estático)
  * - nome: String - Nome do banco (privado)
- * - contas: List<Conta> - Lista de contas bancárias (privado)
+ * - contas: Conta[] - Posições das contas bancárias; null marca uma conta encerrada (lápide) (privado)
+ * - topo: int - Posições já usadas do array de contas (privado)
+ * - vivas: int - Quantidade de contas em memória (privado)
+ * - livres: int[] - Pilha das posições liberadas, reaproveitadas por novas contas (privado)
+ * - indice: Map<String, Integer> - Posição de cada conta pelo número completo (privado)
+ * - compactacaoAgendada: boolean - Compactação em segundo plano já solicitada (privado)
+ * - camadas: ArmazenamentoEmCamadas - Armazenamento das contas inativas em disco (null se desativado)
+ * - reconciliador: ReconciliadorMerkle - Reconciliador ativo deste banco (null se desativado)
  *
  * Métodos Públicos:
- * - getInstance(): Banco - Retorna a instância única do banco (Singleton)
- * - adicionarConta(Conta conta): void - Adiciona uma nova conta ao banco
+ * - getInstance(): Banco - Retorna a instância padrão do banco (Singleton)
+ * - obter(String nome): Banco - Retorna o banco registrado com o nome, criando-o se necessário
+ * - getBancos(): List<Banco> - Bancos registrados
+ * - adicionarConta(Conta conta): boolean - Adiciona uma nova conta ao banco, recusando números já cadastrados
+ * - adicionarContas(Collection<? extends Conta> novas): int - Adiciona um lote de contas, ignorando números já cadastrados
  * - removerConta(Conta conta): boolean - Remove uma conta existente
- * - buscarConta(String numeroContaCompleto): Conta - Localiza conta pelo número completo
+ * - buscarConta(String numeroContaCompleto): Conta - Localiza conta pelo número completo (carregando-a do disco se necessário)
+ * - processarSemCarregar(String numero, Function<Conta, R> acao): R - Aplica uma alteração de manutenção
+ *   sem trazer a conta do disco para a memória
+ * - consultarSemCarregar(String numero, Function<Conta, R> acao): R - Lê o estado da conta sem trazê-la do disco
  * - listarContas(): void - Exibe todas as contas cadastradas
+ * - ativarArmazenamentoEmCamadas(ArmazemContasDisco disco, Duration janela, int orcamento): ArmazenamentoEmCamadas - Passa a despejar contas inativas para o disco
  * - getNome(): String - Getter para o nome do banco
- * - setNome(String nome): void - Setter para o nome do banco
- * - getContas(): List<Conta> - Getter para a lista de contas
+ * - setNome(String nome): void - Setter para o nome do banco (atualiza o registro)
+ * - getContas(): List<Conta> - Getter para a lista de contas residentes em memória
+ * - getNumerosContas(): List<String> - Números de todas as contas, em memória ou em disco
+ * - getQuantidadeResidentes(): int - Quantidade de contas em memória
+ * - getQuantidadeLapides(): int - Posições de contas encerradas ainda não reaproveitadas ou compactadas
+ * - compactar(): void - Compacta imediatamente as posições das contas
+ *
+ * Métodos de Pacote (usados pelo armazenamento em camadas):
+ * - buscarResidente(String numeroContaCompleto): Conta - Busca apenas entre as contas em memória
+ * - reinserir(Conta conta): void - Devolve à memória uma conta carregada do disco
+ * - removerDespejadas(Collection<Conta> candidatas): void - Retira da memória as contas gravadas em disco
+ *
+ * Reconciliação:
+ * - Contas adicionadas e removidas são refletidas no ReconciliadorMerkle ativo deste banco
+ * - Cada conta cadastrada, reinserida ou lida do disco é vinculada a este banco (ResidenciaConta),
+ *   para que informe seus movimentos ao reconciliador deste banco e não ao de outro
+ * - getReconciliador / setReconciliador / removerReconciliador: Reconciliador ativo (métodos de pacote)
  *
  * Padrões de projeto utilizados:
- * - Singleton: Garante uma única instância do banco
+ * - Singleton: Garante uma única instância do banco padrão
+ * - Registry: Instâncias nomeadas, uma por marca do grupo
  * - Repository: Atua como repositório para as contas bancárias
+ *
+ * Encerramento de contas:
+ * - removerConta marca a posição da conta como lápide e a empilha na lista de posições livres,
+ *   em tempo constante; novas contas ocupam primeiro as posições livres
+ * - Quando as lápides passam de um quarto das posições usadas, uma tarefa em segundo plano
+ *   move as últimas contas para as lápides em lotes curtos sob o bloqueio do banco (o índice é
+ *   atualizado no mesmo lote, de modo que as buscas nunca veem um estado intermediário)
+ * - A ordem de getContas() e listarContas() é a das posições, não a de inclusão
+ *
+ * Concorrência:
+ * - Os métodos de acesso à lista de contas são sincronizados, pois um nó do banco (NoBanco)
+ *   atende várias conexões ao mesmo tempo
+ * - getContas() devolve uma cópia da lista, segura para iteração fora do bloqueio
  */
 public class Banco {
-    // Instância única do Banco (parte do padrão Singleton)
+    // Nome da instância padrão
+    public static final String NOME_PADRAO = "Banco Digital";
+
+    // Instância padrão do Banco (parte do padrão Singleton)
     private static Banco instance;
 
+    // Bancos registrados pelo nome
+    private static final Map<String, Banco> registro = new ConcurrentHashMap<>();
+
+    // Capacidade inicial do array de contas
+    private static final int CAPACIDADE_INICIAL = 16;
+
+    // Lápides a partir das quais a compactação pode ser agendada
+    private static final int LAPIDES_MINIMAS = 1024;
+
+    // Contas movidas por lote de compactação (limita o tempo sob o bloqueio do banco)
+    private static final int LOTE_COMPACTACAO = 4096;
+
+    // Thread das compactações em segundo plano, compartilhada pelos bancos
+    private static final ExecutorService compactador = Executors.newSingleThreadExecutor(tarefa -> {
+        Thread thread = new Thread(tarefa, "banco-compactacao");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     // Nome do banco
     private String nome;
 
-    // Lista de contas bancárias
-    private List<Conta> contas;
+    // Posições das contas bancárias (null = lápide ou posição livre)
+    private Conta[] contas;
+
+    // Posições já usadas do array de contas
+    private int topo;
+
+    // Quantidade de contas em memória
+    private int vivas;
+
+    // Pilha das posições liberadas (entradas já ocupadas ou acima do topo são ignoradas)
+    private int[] livres;
+    private int quantidadeLivres;
+
+    // Posição de cada conta pelo número completo (busca e remoção em tempo constante)
+    private Map<String, Integer> indice;
+
+    // Compactação em segundo plano já solicitada
+    private boolean compactacaoAgendada;
+
+    // Armazenamento das contas inativas em disco (null enquanto desativado)
+    private volatile ArmazenamentoEmCamadas camadas;
+
+    // Reconciliador ativo deste banco (null enquanto desativado)
+    private volatile ReconciliadorMerkle reconciliador;
 
     /**
      * Construtor privado (parte do padrão Singleton)
@@ -42,62 +141,407 @@ public class Banco {
      */
     public Banco(String nome) {
         this.nome = nome;
-        this.contas = new ArrayList<>();
+        this.contas = new Conta[CAPACIDADE_INICIAL];
+        this.livres = new int[CAPACIDADE_INICIAL];
+        this.indice = new HashMap<>();
     }
 
     /**
-     * Método estático para obter a instância única (Singleton)
+     * Método estático para obter a instância padrão (Singleton)
      * @return Instância do Banco
      */
-    public static Banco getInstance() {
+    public static synchronized Banco getInstance() {
         if (instance == null) {
-            instance = new Banco("Banco Digital");
+            instance = obter(NOME_PADRAO);
         }
         return instance;
     }
 
     /**
-     * Adiciona uma conta à lista de contas do banco
+     * Retorna o banco registrado com o nome informado, criando-o na primeira chamada
+     * @param nome Nome do banco
+     * @return Banco registrado
+     */
+    public static Banco obter(String nome) {
+        if (nome == null || nome.isBlank()) {
+            throw new IllegalArgumentException("Nome do banco não pode ser vazio");
+        }
+        return registro.computeIfAbsent(nome, Banco::new);
+    }
+
+    /**
+     * Retorna os bancos registrados, ordenados pelo nome
+     * @return Cópia da lista de bancos
+     */
+    public static List<Banco> getBancos() {
+        List<Banco> bancos = new ArrayList<>(registro.values());
+        bancos.sort((a, b) -> a.getNome().compareTo(b.getNome()));
+        return bancos;
+    }
+
+    /**
+     * Adiciona uma conta à lista de contas do banco.
+     * A conta é recusada se seu número já estiver cadastrado (em memória ou em disco)
      * @param conta Objeto Conta a ser adicionado
+     * @return true se a conta foi adicionada, false se o número já existia
      */
-    public void adicionarConta(Conta conta) {
-        this.contas.add(conta);
+    public boolean adicionarConta(Conta conta) {
+        return adicionarContas(List.of(conta)) == 1;
     }
 
     /**
-     * Remove uma conta da lista de contas do banco
+     * Adiciona um lote de contas com uma única aquisição do bloqueio do banco.
+     * Contas cujo número já esteja cadastrado (em memória ou em disco) são ignoradas
+     * @param novas Contas a serem adicionadas
+     * @return Quantidade de contas efetivamente adicionadas
+     */
+    public int adicionarContas(Collection<? extends Conta> novas) {
+        List<Conta> adicionadas = new ArrayList<>(novas.size());
+        synchronized (this) {
+            ArmazenamentoEmCamadas camadas = this.camadas;
+            for (Conta conta : novas) {
+                String numero = conta.getNumeroContaCompleto();
+                if (camadas != null && camadas.contem(numero)) {
+                    continue;
+                }
+                if (!this.indice.containsKey(numero)) {
+                    this.indice.put(numero, ocuparPosicao(conta));
+                    vincular(conta);
+                    adicionadas.add(conta);
+                }
+            }
+            if (camadas != null) {
+                camadas.solicitarAjuste();
+            }
+        }
+        incluirNoReconciliador(adicionadas);
+        return adicionadas.size();
+    }
+
+    /**
+     * Remove uma conta do banco em tempo constante, deixando uma lápide na sua posição
      * @param conta Objeto Conta a ser removido
      * @return true se a conta foi removida, false caso contrário
      */
     public boolean removerConta(Conta conta) {
-        return this.contas.remove(conta);
+        boolean removida;
+        synchronized (this) {
+            removida = liberarConta(conta);
+        }
+        // Fora do bloqueio do banco, respeitando a ordem de bloqueio do armazenamento em camadas
+        ArmazenamentoEmCamadas camadas = this.camadas;
+        if (camadas != null && camadas.descartar(conta)) {
+            removida = true;
+        }
+        if (removida) {
+            // A conta encerrada deixa de informar movimentos ao reconciliador deste banco
+            ResidenciaConta residencia = ResidenciaConta.de(conta);
+            if (residencia != null) {
+                residencia.vincular(null);
+            }
+            ReconciliadorMerkle reconciliador = this.reconciliador;
+            if (reconciliador != null) {
+                reconciliador.remover(conta.getNumeroContaCompleto());
+            }
+        }
+        return removida;
     }
 
     /**
-     * Busca uma conta pelo número completo da conta (incluindo prefixo)
+     * Inclui as contas adicionadas no reconciliador ativo deste banco, fora do bloqueio do banco
+     * (o hash de cada conta é lido sob o monitor da própria conta)
+     */
+    private void incluirNoReconciliador(List<Conta> adicionadas) {
+        ReconciliadorMerkle reconciliador = this.reconciliador;
+        if (reconciliador == null) {
+            return;
+        }
+        for (Conta conta : adicionadas) {
+            reconciliador.incluir(conta);
+        }
+    }
+
+    /**
+     * Busca uma conta pelo número completo da conta (incluindo prefixo).
+     * Com o armazenamento em camadas ativo, contas em disco são carregadas de volta para a memória
      * @param numeroContaCompleto Número completo da conta (ex: "cc123")
      * @return Objeto Conta encontrado ou null se não existir
      */
     public Conta buscarConta(String numeroContaCompleto) {
-        for (Conta conta : contas) {
-            if (conta.getNumeroContaCompleto().equals(numeroContaCompleto)) {
-                return conta;
-            }
+        Conta conta;
+        synchronized (this) {
+            conta = residente(numeroContaCompleto);
+        }
+        ArmazenamentoEmCamadas camadas = this.camadas;
+        if (camadas == null) {
+            return conta;
+        }
+        if (conta == null) {
+            return camadas.carregar(numeroContaCompleto);
+        }
+        ResidenciaConta residencia = ResidenciaConta.de(conta);
+        if (residencia != null) {
+            residencia.registrarAcesso(conta);
         }
-        return null;
+        return conta;
+    }
+
+    /**
+     * Aplica uma alteração de manutenção (processamento em lote, reavaliação de limites) a uma
+     * conta sem marcar acesso. Com o armazenamento em camadas ativo, uma conta em disco é lida,
+     * alterada e regravada sem voltar à memória, de modo que percorrer todas as contas não
+     * despeja as contas ativas
+     * @param numeroContaCompleto Número completo da conta
+     * @param acao Ação aplicada à conta (responsável por adquirir o monitor da conta)
+     * @return Resultado da ação ou null se a conta não existir
+     */
+    public <R> R processarSemCarregar(String numeroContaCompleto, Function<Conta, R> acao) {
+        return visitar(numeroContaCompleto, acao, true);
+    }
+
+    /**
+     * Lê o estado de uma conta (ex: reconciliação) sem marcar acesso e sem trazê-la do disco
+     * @param numeroContaCompleto Número completo da conta
+     * @param acao Leitura aplicada à conta (responsável por adquirir o monitor da conta)
+     * @return Resultado da leitura ou null se a conta não existir
+     */
+    public <R> R consultarSemCarregar(String numeroContaCompleto, Function<Conta, R> acao) {
+        return visitar(numeroContaCompleto, acao, false);
+    }
+
+    private <R> R visitar(String numeroContaCompleto, Function<Conta, R> acao, boolean gravar) {
+        ArmazenamentoEmCamadas camadas = this.camadas;
+        if (camadas != null) {
+            return camadas.visitar(numeroContaCompleto, acao, gravar);
+        }
+        Conta conta = buscarResidente(numeroContaCompleto);
+        return conta == null ? null : acao.apply(conta);
     }
 
     /**
      * Lista todas as contas do banco com seus principais dados
+     * (as contas em disco são apenas contabilizadas, sem serem carregadas).
+     * Os saldos são lidos sobre uma cópia da lista, fora do bloqueio do banco, respeitando a
+     * ordem de bloqueio do armazenamento em camadas (monitor da conta antes do banco)
      */
     public void listarContas() {
+        List<Conta> copia = getContas();
         System.out.println("\n=== Contas do Banco " + nome + " ===");
-        for (Conta conta : contas) {
+        for (Conta conta : copia) {
             System.out.println("Número: " + conta.getNumeroContaCompleto() +
                     " | Tipo: " + conta.getTipoConta() +
                     " | Cliente: " + conta.getNomeCliente() +
-                    " | Saldo: R$ " + String.format("%.2f", conta.getSaldo()));
+                    " | Saldo: R$ " + Dinheiro.formatar(conta.getSaldo()));
+        }
+        ArmazenamentoEmCamadas camadas = this.camadas;
+        if (camadas != null && camadas.getQuantidadeEmDisco() > 0) {
+            System.out.println("(" + camadas.getQuantidadeEmDisco() + " conta(s) inativa(s) em disco)");
+        }
+    }
+
+    /**
+     * Ativa o armazenamento em camadas: contas sem uso dentro da janela de inatividade são
+     * gravadas em disco e retiradas da memória, respeitando o orçamento de contas residentes
+     * @param disco Armazém em disco das contas inativas
+     * @param janelaInatividade Intervalo sem uso após o qual a conta é despejada
+     * @param orcamentoContas Quantidade máxima de contas residentes em memória
+     * @return Armazenamento ativado (para estatísticas, varreduras manuais e encerramento)
+     */
+    public synchronized ArmazenamentoEmCamadas ativarArmazenamentoEmCamadas(
+            ArmazemContasDisco disco, Duration janelaInatividade, int orcamentoContas) {
+        if (camadas != null) {
+            throw new IllegalStateException("Armazenamento em camadas já está ativo");
         }
+        ArmazenamentoEmCamadas novo = new ArmazenamentoEmCamadas(this, disco, janelaInatividade, orcamentoContas);
+        camadas = novo;
+        novo.iniciar();
+        novo.solicitarAjuste();
+        return novo;
+    }
+
+    /**
+     * Busca uma conta apenas entre as contas em memória
+     */
+    synchronized Conta buscarResidente(String numeroContaCompleto) {
+        return residente(numeroContaCompleto);
+    }
+
+    /**
+     * Devolve à memória uma conta carregada do disco ou reativada
+     * (sem efeito se o mesmo objeto ainda estiver no índice)
+     */
+    synchronized void reinserir(Conta conta) {
+        vincular(conta);
+        Integer posicao = indice.get(conta.getNumeroContaCompleto());
+        if (posicao != null) {
+            contas[posicao] = conta;
+        } else {
+            indice.put(conta.getNumeroContaCompleto(), ocuparPosicao(conta));
+        }
+    }
+
+    /**
+     * Vincula a conta a este banco, para que informe seus movimentos ao reconciliador deste banco
+     * (contas sem estado de residência não informam movimentos)
+     */
+    void vincular(Conta conta) {
+        ResidenciaConta residencia = ResidenciaConta.de(conta);
+        if (residencia != null) {
+            residencia.vincular(this);
+        }
+    }
+
+    ReconciliadorMerkle getReconciliador() {
+        return reconciliador;
+    }
+
+    void setReconciliador(ReconciliadorMerkle reconciliador) {
+        this.reconciliador = reconciliador;
+    }
+
+    /**
+     * Desliga o reconciliador informado, se ainda for o ativo deste banco
+     */
+    synchronized void removerReconciliador(ReconciliadorMerkle atual) {
+        if (this.reconciliador == atual) {
+            this.reconciliador = null;
+        }
+    }
+
+    /**
+     * Retira da memória as contas que continuam despejadas, cada uma em tempo constante
+     * (contas reativadas entre o despejo e esta chamada permanecem)
+     */
+    synchronized void removerDespejadas(Collection<Conta> candidatas) {
+        for (Conta conta : candidatas) {
+            if (ResidenciaConta.de(conta).isDespejada()) {
+                liberarConta(conta);
+            }
+        }
+    }
+
+    /**
+     * Compacta imediatamente as posições das contas, sem esperar a tarefa em segundo plano
+     */
+    public void compactar() {
+        while (compactarLote(LOTE_COMPACTACAO)) {
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Conta em memória com o número informado (chamado sob o bloqueio do banco)
+     */
+    private Conta residente(String numeroContaCompleto) {
+        Integer posicao = indice.get(numeroContaCompleto);
+        return posicao == null ? null : contas[posicao];
+    }
+
+    /**
+     * Ocupa uma posição livre (ou a próxima ao topo) com a conta
+     * @return Posição ocupada
+     */
+    private int ocuparPosicao(Conta conta) {
+        int posicao = retirarLivre();
+        if (posicao < 0) {
+            if (topo == contas.length) {
+                contas = Arrays.copyOf(contas, contas.length * 2);
+            }
+            posicao = topo++;
+        }
+        contas[posicao] = conta;
+        vivas++;
+        return posicao;
+    }
+
+    /**
+     * Remove a conta do índice e marca sua posição como lápide, se o objeto ainda for o
+     * cadastrado com o seu número
+     * @return true se a conta estava em memória
+     */
+    private boolean liberarConta(Conta conta) {
+        String numero = conta.getNumeroContaCompleto();
+        Integer posicao = indice.get(numero);
+        if (posicao == null || contas[posicao] != conta) {
+            return false;
+        }
+        indice.remove(numero);
+        contas[posicao] = null;
+        vivas--;
+        if (quantidadeLivres == livres.length) {
+            livres = Arrays.copyOf(livres, livres.length * 2);
+        }
+        livres[quantidadeLivres++] = posicao;
+
+        int lapides = topo - vivas;
+        if (!compactacaoAgendada && lapides > LAPIDES_MINIMAS && lapides > topo / 4) {
+            compactacaoAgendada = true;
+            compactador.execute(this::compactar);
+        }
+        return true;
+    }
+
+    /**
+     * Retira da pilha uma posição livre válida (abaixo do topo e desocupada)
+     * @return Posição livre ou -1 se não houver
+     */
+    private int retirarLivre() {
+        while (quantidadeLivres > 0) {
+            int posicao = livres[--quantidadeLivres];
+            if (posicao < topo && contas[posicao] == null) {
+                return posicao;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Move até o limite informado de contas do fim do array para as lápides, atualizando o
+     * índice no mesmo bloqueio, e reduz o array quando a compactação termina
+     * @return true se ainda restam lápides a compactar
+     */
+    private synchronized boolean compactarLote(int limite) {
+        for (int movidas = 0; movidas < limite; movidas++) {
+            while (topo > 0 && contas[topo - 1] == null) {
+                topo--;
+            }
+            if (vivas == topo) {
+                break;
+            }
+            int lapide = retirarLivre();
+            if (lapide < 0) {
+                // Pilha sem as lápides restantes (não deveria ocorrer): reconstrói a partir do array
+                if (livres.length < topo) {
+                    livres = new int[topo];
+                }
+                for (int i = 0; i < topo; i++) {
+                    if (contas[i] == null) {
+                        livres[quantidadeLivres++] = i;
+                    }
+                }
+                continue;
+            }
+            Conta conta = contas[topo - 1];
+            contas[lapide] = conta;
+            contas[topo - 1] = null;
+            indice.put(conta.getNumeroContaCompleto(), lapide);
+            topo--;
+        }
+        while (topo > 0 && contas[topo - 1] == null) {
+            topo--;
+        }
+        if (vivas < topo) {
+            return true;
+        }
+        quantidadeLivres = 0;
+        if (contas.length > CAPACIDADE_INICIAL && contas.length > 2 * topo) {
+            contas = Arrays.copyOf(contas, Math.max(CAPACIDADE_INICIAL, topo + topo / 2));
+        }
+        if (livres.length > CAPACIDADE_INICIAL && livres.length > 2 * topo) {
+            livres = new int[Math.max(CAPACIDADE_INICIAL, topo / 2)];
+        }
+        compactacaoAgendada = false;
+        return false;
     }
 
     // Getters e Setters
@@ -115,14 +559,62 @@ public class Banco {
      * @param nome Novo nome do banco
      */
     public void setNome(String nome) {
-        this.nome = nome;
+        synchronized (registro) {
+            if (!nome.equals(this.nome) && registro.get(this.nome) == this) {
+                if (registro.putIfAbsent(nome, this) != null) {
+                    throw new IllegalArgumentException("Já existe um banco registrado com o nome " + nome);
+                }
+                registro.remove(this.nome);
+            }
+            this.nome = nome;
+        }
     }
 
     /**
-     * Retorna a lista de contas do banco
+     * Retorna uma cópia da lista de contas do banco que estão em memória
+     * (com o armazenamento em camadas ativo, as contas em disco não fazem parte da lista)
      * @return Lista de contas
      */
-    public List<Conta> getContas() {
-        return contas;
+    public synchronized List<Conta> getContas() {
+        List<Conta> copia = new ArrayList<>(vivas);
+        for (int i = 0; i < topo; i++) {
+            if (contas[i] != null) {
+                copia.add(contas[i]);
+            }
+        }
+        return copia;
+    }
+
+    /**
+     * Retorna os números de todas as contas do banco, em memória ou em disco
+     * @return Lista de números completos
+     */
+    public synchronized List<String> getNumerosContas() {
+        List<String> numeros = new ArrayList<>(indice.keySet());
+        ArmazenamentoEmCamadas camadas = this.camadas;
+        if (camadas != null) {
+            for (String numero : camadas.getDisco().getNumeros()) {
+                if (!indice.containsKey(numero)) {
+                    numeros.add(numero);
+                }
+            }
+        }
+        return numeros;
+    }
+
+    /**
+     * Retorna a quantidade de contas em memória
+     * @return Quantidade de contas residentes
+     */
+    public synchronized int getQuantidadeResidentes() {
+        return vivas;
+    }
+
+    /**
+     * Retorna a quantidade de posições de contas encerradas ainda não reaproveitadas ou compactadas
+     * @return Quantidade de lápides
+     */
+    public synchronized int getQuantidadeLapides() {
+        return topo - vivas;
     }
 }
\ No newline at end of file
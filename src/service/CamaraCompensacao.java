@@ -0,0 +1,453 @@
+package service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Câmara de compensação multilateral para pagamentos entre os bancos do grupo (instâncias de
+ * Banco obtidas por Banco.obter).
+ *
+ * No envio, o valor do pagamento é apenas reservado na conta pagadora (com as verificações de
+ * saldo, limite e velocidade da própria conta) e acumulado no lote aberto, em centavos
+ * (LongAdder), por conta recebedora e conta pagadora. Ao fechar o lote, os pagamentos são
+ * compensados por conta: cada conta participante fica com um valor líquido (recebido menos pago)
+ * e recebe uma única operação, que libera suas reservas e aplica esse valor como crédito ou
+ * débito. Milhares de pagamentos entre as mesmas contas, nos dois sentidos, viram uma operação por
+ * conta e uma posição por banco.
+ *
+ * Atributos:
+ * - loteAberto: AtomicReference<Lote> - Lote que recebe os pagamentos (final)
+ * - ciclos: ScheduledExecutorService - Fecha os lotes periodicamente (null no modo manual)
+ * - ultimoResultado: Resultado - Resultado do último lote fechado
+ *
+ * Métodos Públicos:
+ * - enviarPagamento(Banco bancoOrigem, String contaOrigem, Banco bancoDestino, String contaDestino, long valor): boolean
+ *   Reserva o valor na conta pagadora e inclui o pagamento no lote aberto
+ * - fecharLote(): Resultado - Compensa e liquida o lote aberto
+ * - iniciarCiclos(Duration intervalo): void - Passa a fechar os lotes periodicamente
+ * - getPagamentosPendentes(): long - Pagamentos do lote aberto
+ * - getUltimoResultado(): Resultado - Resultado do último lote fechado
+ * - close(): void - Interrompe os ciclos e liquida o lote aberto
+ *
+ * Concorrência:
+ * - enviarPagamento não adquire bloqueios da câmara: cada envio registra-se no contador de envios
+ *   em andamento do lote aberto (AtomicLong). fecharLote troca o lote aberto e aguarda esse
+ *   contador zerar no lote antigo antes de compensá-lo, de modo que nenhum pagamento fica fora de
+ *   um lote. O contador é um único AtomicLong, e não um LongAdder, porque LongAdder.sum() não é uma
+ *   leitura atômica: incremento e decremento em células diferentes podem ser vistos fora de ordem
+ *   e somar zero com um envio ainda em andamento
+ *
+ * Observação:
+ * - Valores em centavos, como em Conta; as posições e os totais são somas exatas
+ * - A reserva usa ContaCorrente.reservar / ContaPoupanca.reservar; outras implementações de Conta
+ *   são debitadas já no envio (realizarPagamento) e, no fechamento, recebem o valor líquido mais o
+ *   que foi debitado
+ * - Cada lote guarda, por conta recebedora, quanto veio de cada conta pagadora. Se a conta
+ *   recebedora for removida antes do fechamento, a reserva de cada pagamento é liberada sem
+ *   débito (Resultado.getEstornos()) e o pagamento fica fora das posições
+ * - Se a conta pagadora for removida antes do fechamento, o pagamento é cancelado
+ *   (Resultado.getPagamentosCancelados()): a conta recebedora não recebe o valor e ele fica fora
+ *   das posições
+ */
+public class CamaraCompensacao implements AutoCloseable {
+    // Lote que recebe os pagamentos
+    private final AtomicReference<Lote> loteAberto;
+
+    // Fecha os lotes periodicamente (null no modo manual)
+    private ScheduledExecutorService ciclos;
+
+    // Resultado do último lote fechado
+    private volatile Resultado ultimoResultado;
+
+    /**
+     * Construtor da câmara (lotes fechados manualmente por fecharLote)
+     */
+    public CamaraCompensacao() {
+        this.loteAberto = new AtomicReference<>(new Lote());
+    }
+
+    /**
+     * Reserva o valor na conta pagadora e inclui o pagamento no lote aberto. O débito e o crédito
+     * nas contas ocorrem no fechamento do lote, pelo valor líquido de cada conta
+     * @param bancoOrigem Banco da conta pagadora
+     * @param contaOrigem Número completo da conta pagadora
+     * @param bancoDestino Banco da conta recebedora
+     * @param contaDestino Número completo da conta recebedora
+     * @param valor Valor do pagamento, em centavos (positivo)
+     * @return true se o valor foi reservado e o pagamento aceito no lote
+     */
+    public boolean enviarPagamento(Banco bancoOrigem, String contaOrigem, Banco bancoDestino,
+                                   String contaDestino, long valor) {
+        if (valor <= 0) {
+            System.out.println("Valor de pagamento inválido!");
+            return false;
+        }
+        Conta pagadora = bancoOrigem.buscarConta(contaOrigem);
+        if (pagadora == null) {
+            System.out.println("Conta de origem não encontrada: " + contaOrigem);
+            return false;
+        }
+        if (bancoDestino.buscarConta(contaDestino) == null) {
+            System.out.println("Conta de destino não encontrada: " + contaDestino);
+            return false;
+        }
+        if (bancoOrigem == bancoDestino && contaOrigem.equals(contaDestino)) {
+            System.out.println("Conta de origem e destino devem ser diferentes!");
+            return false;
+        }
+
+        Lote lote = entrar();
+        try {
+            if (!reservar(pagadora, valor)) {
+                System.out.println("Pagamento recusado pela conta de origem (saldo, limite ou regra de velocidade)");
+                return false;
+            }
+            lote.registrar(bancoOrigem, contaOrigem, bancoDestino, contaDestino, valor);
+            return true;
+        } finally {
+            lote.emAndamento.decrementAndGet();
+        }
+    }
+
+    /**
+     * Fecha o lote aberto: compensa os pagamentos por conta, calcula as posições líquidas dos
+     * bancos e liquida cada conta participante com uma única operação
+     * @return Resultado da compensação
+     */
+    public synchronized Resultado fecharLote() {
+        long inicio = System.nanoTime();
+        Lote lote = loteAberto.getAndSet(new Lote());
+        while (lote.emAndamento.get() != 0) {
+            Thread.onSpinWait();
+        }
+
+        // Cada conta do lote é procurada uma única vez (em paralelo: pode estar em disco)
+        Map<Banco, Map<String, Participante>> participantes = new HashMap<>();
+        lote.creditos.forEach((banco, porConta) -> porConta.forEach((numero, recebimento) -> {
+            participante(participantes, banco, numero);
+            recebimento.porOrigem.forEach((bancoOrigem, porOrigem) ->
+                    porOrigem.keySet().forEach(numeroOrigem -> participante(participantes, bancoOrigem, numeroOrigem)));
+        }));
+        List<Participante> contas = new ArrayList<>();
+        participantes.values().forEach(porConta -> contas.addAll(porConta.values()));
+        contas.parallelStream().forEach(participante ->
+                participante.conta = participante.banco.buscarConta(participante.numero));
+
+        // Compensação: valor líquido de cada conta e posição líquida de cada banco
+        Map<Banco, Long> posicoes = new HashMap<>();
+        Map<String, Long> estornos = new HashMap<>();
+        Map<String, Long> cancelados = new HashMap<>();
+        lote.creditos.forEach((banco, porConta) -> porConta.forEach((numero, recebimento) -> {
+            Participante destino = participantes.get(banco).get(numero);
+            recebimento.porOrigem.forEach((bancoOrigem, porOrigem) -> porOrigem.forEach((numeroOrigem, valor) -> {
+                long centavos = valor.sum();
+                Participante origem = participantes.get(bancoOrigem).get(numeroOrigem);
+                String chaveOrigem = bancoOrigem.getNome() + " / " + numeroOrigem;
+                if (origem.conta == null) {
+                    // Conta pagadora removida: a reserva saiu com ela, o pagamento não é liquidado
+                    cancelados.merge(chaveOrigem, centavos, Long::sum);
+                    return;
+                }
+                origem.reserva += centavos;
+                if (destino.conta == null) {
+                    // Conta recebedora removida: a reserva é liberada sem débito
+                    estornos.merge(chaveOrigem, centavos, Long::sum);
+                    return;
+                }
+                origem.liquido -= centavos;
+                destino.liquido += centavos;
+                posicoes.merge(bancoOrigem, -centavos, Long::sum);
+                posicoes.merge(banco, centavos, Long::sum);
+            }));
+        }));
+
+        // Liquidação: uma operação por conta
+        LongAdder liquidadas = new LongAdder();
+        contas.parallelStream()
+                .filter(participante -> participante.conta != null
+                        && (participante.reserva != 0 || participante.liquido != 0))
+                .forEach(participante -> {
+                    liquidar(participante.conta, participante.reserva, participante.liquido);
+                    liquidadas.increment();
+                });
+
+        Map<String, Long> posicoesPorNome = new TreeMap<>();
+        posicoes.forEach((banco, centavos) -> posicoesPorNome.put(banco.getNome(), centavos));
+        Resultado resultado = new Resultado(lote.pagamentos.sum(), lote.valorBruto.sum(),
+                liquidadas.sum(), posicoesPorNome, estornos, cancelados,
+                Duration.ofNanos(System.nanoTime() - inicio));
+        this.ultimoResultado = resultado;
+        return resultado;
+    }
+
+    /**
+     * Passa a fechar os lotes periodicamente, exibindo o resumo de cada compensação
+     * @param intervalo Intervalo entre fechamentos
+     */
+    public synchronized void iniciarCiclos(Duration intervalo) {
+        if (intervalo.isNegative() || intervalo.isZero()) {
+            throw new IllegalArgumentException("Intervalo entre ciclos deve ser positivo");
+        }
+        if (ciclos != null) {
+            throw new IllegalStateException("Ciclos de compensação já iniciados");
+        }
+        ciclos = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "camara-compensacao");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long periodo = intervalo.toMillis();
+        ciclos.scheduleWithFixedDelay(() -> {
+            try {
+                if (getPagamentosPendentes() > 0) {
+                    System.out.println(fecharLote());
+                }
+            } catch (RuntimeException e) {
+                System.out.println("Erro na compensação: " + e.getMessage());
+            }
+        }, periodo, periodo, TimeUnit.MILLISECONDS);
+    }
+
+    public long getPagamentosPendentes() {
+        return loteAberto.get().pagamentos.sum();
+    }
+
+    public Resultado getUltimoResultado() {
+        return ultimoResultado;
+    }
+
+    /**
+     * Interrompe os ciclos periódicos e liquida o lote aberto
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (ciclos != null) {
+                ciclos.shutdownNow();
+                ciclos = null;
+            }
+        }
+        if (getPagamentosPendentes() > 0) {
+            fecharLote();
+        }
+    }
+
+    /**
+     * Registra um envio em andamento no lote aberto. A segunda leitura garante que o envio não
+     * entrou num lote que já está sendo fechado (nesse caso tenta no lote novo)
+     */
+    private Lote entrar() {
+        for (;;) {
+            Lote lote = loteAberto.get();
+            lote.emAndamento.incrementAndGet();
+            if (loteAberto.get() == lote) {
+                return lote;
+            }
+            lote.emAndamento.decrementAndGet();
+        }
+    }
+
+    /**
+     * Reserva o valor de um pagamento na conta pagadora (contas sem reserva são debitadas já no envio)
+     */
+    private static boolean reservar(Conta conta, long valor) {
+        if (conta instanceof ContaCorrente) {
+            return ((ContaCorrente) conta).reservar(valor);
+        } else if (conta instanceof ContaPoupanca) {
+            return ((ContaPoupanca) conta).reservar(valor);
+        } else {
+            return conta.realizarPagamento(valor);
+        }
+    }
+
+    /**
+     * Libera as reservas da conta e aplica seu valor líquido no lote. Contas sem reserva já foram
+     * debitadas no envio e recebem o líquido mais o valor debitado (nunca negativo)
+     */
+    private static void liquidar(Conta conta, long reserva, long liquido) {
+        if (conta instanceof ContaCorrente) {
+            ((ContaCorrente) conta).liquidarCompensacao(reserva, liquido);
+        } else if (conta instanceof ContaPoupanca) {
+            ((ContaPoupanca) conta).liquidarCompensacao(reserva, liquido);
+        } else if (reserva + liquido > 0) {
+            conta.realizarDeposito(reserva + liquido);
+        }
+    }
+
+    private static Participante participante(Map<Banco, Map<String, Participante>> participantes,
+                                              Banco banco, String numero) {
+        return participantes.computeIfAbsent(banco, b -> new HashMap<>())
+                .computeIfAbsent(numero, n -> new Participante(banco, n));
+    }
+
+    /**
+     * Pagamentos acumulados entre dois fechamentos
+     */
+    private static final class Lote {
+        // Envios em andamento neste lote
+        final AtomicLong emAndamento = new AtomicLong();
+
+        // Centavos a creditar por banco e conta recebedora
+        final Map<Banco, Map<String, Recebimento>> creditos = new ConcurrentHashMap<>();
+
+        // Quantidade e valor bruto dos pagamentos
+        final LongAdder pagamentos = new LongAdder();
+        final LongAdder valorBruto = new LongAdder();
+
+        void registrar(Banco bancoOrigem, String contaOrigem, Banco bancoDestino, String contaDestino,
+                       long centavos) {
+            creditos.computeIfAbsent(bancoDestino, b -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(contaDestino, n -> new Recebimento())
+                    .adicionar(bancoOrigem, contaOrigem, centavos);
+            pagamentos.increment();
+            valorBruto.add(centavos);
+        }
+    }
+
+    /**
+     * Centavos recebidos por uma conta no lote, separados por banco e conta pagadora
+     * (permite compensar por conta e estornar os pagamentos se a conta recebedora deixar de existir)
+     */
+    private static final class Recebimento {
+        final Map<Banco, Map<String, LongAdder>> porOrigem = new ConcurrentHashMap<>();
+
+        void adicionar(Banco bancoOrigem, String contaOrigem, long centavos) {
+            porOrigem.computeIfAbsent(bancoOrigem, b -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(contaOrigem, n -> new LongAdder())
+                    .add(centavos);
+        }
+    }
+
+    /**
+     * Conta que participa de um lote (pagadora, recebedora ou ambas), com sua compensação.
+     * Preenchida pela thread que fecha o lote antes da liquidação
+     */
+    private static final class Participante {
+        final Banco banco;
+        final String numero;
+
+        // Conta no fechamento do lote (null se removida)
+        Conta conta;
+
+        // Centavos reservados pela conta nos pagamentos do lote
+        long reserva;
+
+        // Centavos recebidos menos pagos no lote
+        long liquido;
+
+        Participante(Banco banco, String numero) {
+            this.banco = banco;
+            this.numero = numero;
+        }
+    }
+
+    /**
+     * Resultado da compensação de um lote
+     */
+    public static class Resultado {
+        // Pagamentos compensados
+        private final long pagamentos;
+
+        // Soma dos valores dos pagamentos, em centavos
+        private final long valorBruto;
+
+        // Contas liquidadas (uma operação por conta)
+        private final long contasLiquidadas;
+
+        // Posição líquida de cada banco em centavos (positiva = recebe, negativa = paga)
+        private final Map<String, Long> posicoes;
+
+        // Reservas liberadas sem débito (conta recebedora removida), em centavos, por "banco / conta pagadora"
+        private final Map<String, Long> estornos;
+
+        // Pagamentos não liquidados (conta pagadora removida), em centavos, por "banco / conta pagadora"
+        private final Map<String, Long> pagamentosCancelados;
+
+        // Tempo de compensação e liquidação
+        private final Duration duracao;
+
+        Resultado(long pagamentos, long valorBruto, long contasLiquidadas,
+                  Map<String, Long> posicoes, Map<String, Long> estornos,
+                  Map<String, Long> pagamentosCancelados, Duration duracao) {
+            this.pagamentos = pagamentos;
+            this.valorBruto = valorBruto;
+            this.contasLiquidadas = contasLiquidadas;
+            this.posicoes = Collections.unmodifiableMap(posicoes);
+            this.estornos = Collections.unmodifiableMap(new TreeMap<>(estornos));
+            this.pagamentosCancelados = Collections.unmodifiableMap(new TreeMap<>(pagamentosCancelados));
+            this.duracao = duracao;
+        }
+
+        public long getPagamentos() {
+            return pagamentos;
+        }
+
+        public long getValorBruto() {
+            return valorBruto;
+        }
+
+        public long getContasLiquidadas() {
+            return contasLiquidadas;
+        }
+
+        public Map<String, Long> getPosicoes() {
+            return posicoes;
+        }
+
+        public Map<String, Long> getEstornos() {
+            return estornos;
+        }
+
+        public Map<String, Long> getPagamentosCancelados() {
+            return pagamentosCancelados;
+        }
+
+        public Duration getDuracao() {
+            return duracao;
+        }
+
+        /**
+         * Valor que efetivamente transita entre os bancos: soma das posições a pagar
+         * @return Total das posições líquidas negativas, em centavos
+         */
+        public long getValorLiquidado() {
+            long total = 0;
+            for (long posicao : posicoes.values()) {
+                if (posicao < 0) {
+                    total -= posicao;
+                }
+            }
+            return total;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder texto = new StringBuilder(String.format(
+                    "Compensação: %d pagamento(s), R$ %s bruto -> %d conta(s) liquidada(s), R$ %s líquido entre bancos (%d ms)",
+                    pagamentos, Dinheiro.formatar(valorBruto), contasLiquidadas, Dinheiro.formatar(getValorLiquidado()),
+                    duracao.toMillis()));
+            posicoes.forEach((banco, posicao) ->
+                    texto.append(String.format("%n  %s: %s R$ %s", banco, posicao < 0 ? "paga" : "recebe",
+                            Dinheiro.formatar(Math.abs(posicao)))));
+            if (!estornos.isEmpty()) {
+                texto.append(String.format("%n  %d estorno(s) a contas pagadoras", estornos.size()));
+            }
+            if (!pagamentosCancelados.isEmpty()) {
+                texto.append(String.format("%n  %d conta(s) pagadora(s) com pagamentos cancelados", pagamentosCancelados.size()));
+            }
+            return texto.toString();
+        }
+    }
+}
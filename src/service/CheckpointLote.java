@@ -0,0 +1,172 @@
+package service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Registro em disco do progresso de uma execução do processamento em lote.
+ *
+ * O arquivo guarda os limites dos blocos (primeiro número de conta de cada bloco), definidos no
+ * início da execução, e uma linha por bloco concluído. Definir os blocos por faixa de números,
+ * e não por posição, mantém a divisão estável mesmo que contas sejam criadas ou removidas antes
+ * da retomada.
+ *
+ * Formato (texto UTF-8):
+ * - LOTE <tarefa> <data>
+ * - LIMITE <número da conta>   (uma linha por bloco)
+ * - CONCLUIDO <índice do bloco> (acrescentada ao final de cada bloco)
+ * - FINALIZADO                 (acrescentada quando todos os blocos terminam)
+ *
+ * Atributos:
+ * - arquivo: Path - Arquivo do checkpoint (final)
+ * - limites: List<String> - Primeiro número de conta de cada bloco (final)
+ * - concluidos: Set<Integer> - Blocos já concluídos (final)
+ * - finalizado: boolean - Indica se a execução terminou
+ * - canal: FileChannel - Canal de acréscimo ao arquivo (final)
+ *
+ * Durabilidade:
+ * - O cabeçalho é gravado em arquivo temporário e movido de forma atômica
+ * - Cada acréscimo é forçado para o disco antes de o bloco ser considerado concluído
+ * - Uma última linha incompleta (queda durante a gravação) é ignorada na leitura
+ */
+public class CheckpointLote implements AutoCloseable {
+    private final Path arquivo;
+    private final List<String> limites;
+    private final Set<Integer> concluidos;
+    private boolean finalizado;
+    private final FileChannel canal;
+
+    private CheckpointLote(Path arquivo, List<String> limites, Set<Integer> concluidos, boolean finalizado)
+            throws IOException {
+        this.arquivo = arquivo;
+        this.limites = Collections.unmodifiableList(limites);
+        this.concluidos = concluidos;
+        this.finalizado = finalizado;
+        this.canal = FileChannel.open(arquivo, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Abre o checkpoint existente ou cria um novo com os limites informados
+     * @param arquivo Arquivo do checkpoint
+     * @param cabecalho Primeira linha (identificação da tarefa e da data)
+     * @param limitesNovos Limites dos blocos, usados apenas se o checkpoint ainda não existir
+     * @return Checkpoint aberto
+     * @throws IOException se o arquivo não puder ser lido ou gravado
+     */
+    public static CheckpointLote abrir(Path arquivo, String cabecalho, List<String> limitesNovos)
+            throws IOException {
+        if (Files.exists(arquivo)) {
+            return ler(arquivo, cabecalho);
+        }
+
+        Path temporario = arquivo.resolveSibling(arquivo.getFileName() + ".tmp");
+        try (BufferedWriter escritor = Files.newBufferedWriter(temporario, StandardCharsets.UTF_8)) {
+            escritor.write(cabecalho);
+            escritor.newLine();
+            for (String limite : limitesNovos) {
+                escritor.write("LIMITE " + limite);
+                escritor.newLine();
+            }
+        }
+        try (FileChannel canalTemporario = FileChannel.open(temporario, StandardOpenOption.WRITE)) {
+            canalTemporario.force(true);
+        }
+        Files.move(temporario, arquivo, StandardCopyOption.ATOMIC_MOVE);
+        return new CheckpointLote(arquivo, new ArrayList<>(limitesNovos), new HashSet<>(), false);
+    }
+
+    private static CheckpointLote ler(Path arquivo, String cabecalho) throws IOException {
+        byte[] conteudo = Files.readAllBytes(arquivo);
+        // Somente linhas terminadas em quebra de linha foram gravadas por completo
+        int tamanhoValido = conteudo.length;
+        while (tamanhoValido > 0 && conteudo[tamanhoValido - 1] != '\n') {
+            tamanhoValido--;
+        }
+        if (tamanhoValido < conteudo.length) {
+            // Descarta a linha incompleta para que os próximos acréscimos comecem em linha nova
+            try (FileChannel canalTruncamento = FileChannel.open(arquivo, StandardOpenOption.WRITE)) {
+                canalTruncamento.truncate(tamanhoValido);
+                canalTruncamento.force(true);
+            }
+        }
+        String[] linhas = new String(conteudo, 0, tamanhoValido, StandardCharsets.UTF_8).split("\n");
+        if (linhas.length == 0 || !linhas[0].equals(cabecalho)) {
+            throw new IOException("Checkpoint " + arquivo + " pertence a outra execução");
+        }
+
+        List<String> limites = new ArrayList<>();
+        Set<Integer> concluidos = new HashSet<>();
+        boolean finalizado = false;
+        for (int i = 1; i < linhas.length; i++) {
+            String linha = linhas[i];
+            if (linha.startsWith("LIMITE ")) {
+                limites.add(linha.substring("LIMITE ".length()));
+            } else if (linha.startsWith("CONCLUIDO ")) {
+                concluidos.add(Integer.parseInt(linha.substring("CONCLUIDO ".length()).trim()));
+            } else if (linha.equals("FINALIZADO")) {
+                finalizado = true;
+            }
+        }
+        return new CheckpointLote(arquivo, limites, concluidos, finalizado);
+    }
+
+    /**
+     * Registra a conclusão de um bloco de forma durável
+     * @param bloco Índice do bloco
+     * @throws IOException se o registro não puder ser gravado
+     */
+    public synchronized void marcarConcluido(int bloco) throws IOException {
+        acrescentar("CONCLUIDO " + bloco + "\n");
+        concluidos.add(bloco);
+    }
+
+    /**
+     * Registra o término da execução
+     * @throws IOException se o registro não puder ser gravado
+     */
+    public synchronized void finalizar() throws IOException {
+        acrescentar("FINALIZADO\n");
+        finalizado = true;
+    }
+
+    public synchronized boolean estaConcluido(int bloco) {
+        return concluidos.contains(bloco);
+    }
+
+    public synchronized boolean isFinalizado() {
+        return finalizado;
+    }
+
+    public List<String> getLimites() {
+        return limites;
+    }
+
+    public Path getArquivo() {
+        return arquivo;
+    }
+
+    private void acrescentar(String linha) throws IOException {
+        ByteBuffer dados = ByteBuffer.wrap(linha.getBytes(StandardCharsets.UTF_8));
+        while (dados.hasRemaining()) {
+            canal.write(dados);
+        }
+        canal.force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+}
@@ -0,0 +1,233 @@
+package service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cliente que distribui as contas entre vários nós do banco (NoBanco) por hash consistente
+ * e encaminha cada operação de Conta ao nó dono da conta.
+ *
+ * Atributos:
+ * - nosVirtuais: int - Nós virtuais por nó no anel (final)
+ * - anel: AnelHashConsistente - Visão atual do cluster
+ * - membros: Map<String, EnderecoNo> - Endereços conhecidos dos nós (final)
+ * - conexoes: Map<String, ConexaoNo> - Conexões abertas com os nós (final)
+ *
+ * Métodos Públicos:
+ * - registrarNo(String id, String host, int porta): void - Passa a rotear para um nó que já faz parte do cluster
+ * - adicionarNo(String id, String host, int porta): boolean - Inclui um nó no cluster e rebalanceia as partições
+ * - criarConta(Conta conta): boolean - Cadastra a conta no nó dono de seu número
+ * - buscarConta(String numeroContaCompleto): Conta - Retorna um proxy (ContaRemota) ou null se não existir
+ * - enviar(RequisicaoNo requisicao): RespostaNo - Envia a requisição ao dono da conta, seguindo redirecionamentos
+ * - localizarNo(String numeroContaCompleto): String - Nó dono da conta segundo o anel atual
+ * - close(): void - Fecha as conexões com os nós
+ *
+ * Rebalanceamento com tráfego:
+ * - adicionarNo conduz o rebalanceamento em etapas enviadas a todos os nós: REBALANCEAR
+ *   (preparo), MIGRAR e, por fim, CONFIRMAR. Se alguma etapa falhar em algum nó, todos recebem
+ *   CANCELAR, as contas recebidas voltam aos donos anteriores e o cluster mantém a composição
+ *   anterior
+ * - Durante adicionarNo o cliente continua roteando pelo anel antigo; contas já migradas são
+ *   respondidas com MOVIDA pelo dono antigo e a operação é repetida no novo dono. O anel novo só
+ *   passa a ser usado quando todos os nós confirmam. Outros clientes com visão desatualizada
+ *   seguem o mesmo caminho
+ */
+public class ClienteRoteador implements AutoCloseable {
+    // Limite de redirecionamentos seguidos para uma mesma requisição
+    private static final int MAX_REDIRECIONAMENTOS = 8;
+
+    // Nós virtuais por nó no anel
+    private final int nosVirtuais;
+
+    // Visão atual do cluster
+    private volatile AnelHashConsistente anel;
+
+    // Endereços conhecidos dos nós
+    private final Map<String, EnderecoNo> membros;
+
+    // Conexões abertas com os nós
+    private final Map<String, ConexaoNo> conexoes;
+
+    /**
+     * Construtor com a quantidade padrão de nós virtuais
+     */
+    public ClienteRoteador() {
+        this(AnelHashConsistente.NOS_VIRTUAIS_PADRAO);
+    }
+
+    /**
+     * Construtor do cliente
+     * @param nosVirtuais Nós virtuais por nó no anel
+     */
+    public ClienteRoteador(int nosVirtuais) {
+        this.nosVirtuais = nosVirtuais;
+        this.anel = new AnelHashConsistente(nosVirtuais);
+        this.membros = new ConcurrentHashMap<>();
+        this.conexoes = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Registra um nó que já faz parte do cluster, sem rebalanceamento
+     * (usado por clientes adicionais que se conectam a um cluster existente)
+     * @param id Identificador do nó
+     * @param host Máquina do nó
+     * @param porta Porta TCP do nó
+     */
+    public synchronized void registrarNo(String id, String host, int porta) {
+        membros.put(id, new EnderecoNo(id, host, porta));
+        AnelHashConsistente novoAnel = new AnelHashConsistente(nosVirtuais);
+        for (String membro : anel.getNos()) {
+            novoAnel.adicionarNo(membro);
+        }
+        novoAnel.adicionarNo(id);
+        anel = novoAnel;
+    }
+
+    /**
+     * Inclui um nó no cluster: todos os nós recebem a nova composição e migram as contas
+     * que passaram a pertencer ao novo nó. Em caso de falha o rebalanceamento é cancelado
+     * e o cluster continua com a composição anterior
+     * @param id Identificador do nó
+     * @param host Máquina do nó
+     * @param porta Porta TCP do nó
+     * @return true se todos os nós concluíram o rebalanceamento
+     */
+    public synchronized boolean adicionarNo(String id, String host, int porta) {
+        membros.put(id, new EnderecoNo(id, host, porta));
+
+        List<EnderecoNo> anteriores = new ArrayList<>();
+        AnelHashConsistente novoAnel = new AnelHashConsistente(nosVirtuais);
+        for (String membro : anel.getNos()) {
+            anteriores.add(membros.get(membro));
+            novoAnel.adicionarNo(membro);
+        }
+        List<EnderecoNo> composicao = new ArrayList<>(anteriores);
+        composicao.add(membros.get(id));
+        novoAnel.adicionarNo(id);
+
+        boolean sucesso = enviarATodos(composicao,
+                RequisicaoNo.rebalanceamento(composicao, anteriores, nosVirtuais))
+                && enviarATodos(composicao, RequisicaoNo.etapaRebalanceamento(RequisicaoNo.Operacao.MIGRAR));
+        if (!sucesso) {
+            enviarATodos(composicao, RequisicaoNo.etapaRebalanceamento(RequisicaoNo.Operacao.CANCELAR));
+            membros.remove(id);
+            ConexaoNo conexao = conexoes.remove(id);
+            if (conexao != null) {
+                conexao.close();
+            }
+            return false;
+        }
+
+        // Nós que não confirmaram continuam redirecionando as contas migradas; o anel antigo
+        // segue válido até que todos confirmem
+        if (!enviarATodos(composicao, RequisicaoNo.etapaRebalanceamento(RequisicaoNo.Operacao.CONFIRMAR))) {
+            return false;
+        }
+        anel = novoAnel;
+        return true;
+    }
+
+    /**
+     * Envia uma etapa do rebalanceamento a todos os nós da composição
+     * @return true se todos os nós responderam OK
+     */
+    private boolean enviarATodos(List<EnderecoNo> composicao, RequisicaoNo requisicao) {
+        boolean sucesso = true;
+        for (EnderecoNo membro : composicao) {
+            try {
+                RespostaNo resposta = conexao(membro.getId()).enviar(requisicao);
+                if (resposta.getStatus() != RespostaNo.Status.OK) {
+                    System.out.println("Rebalanceamento falhou (" + requisicao.getOperacao() + "): " +
+                            resposta.getMensagem());
+                    sucesso = false;
+                }
+            } catch (IOException e) {
+                System.out.println("Nó " + membro + " indisponível: " + e.getMessage());
+                sucesso = false;
+            }
+        }
+        return sucesso;
+    }
+
+    /**
+     * Cadastra uma conta no nó dono de seu número
+     * @param conta Conta a ser cadastrada
+     * @return true se a conta foi criada, false se já existir ou houver falha
+     */
+    public boolean criarConta(Conta conta) {
+        RespostaNo resposta = enviar(RequisicaoNo.criacao(conta));
+        if (resposta.getStatus() != RespostaNo.Status.OK) {
+            System.out.println(resposta.getMensagem());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Busca uma conta no cluster
+     * @param numeroContaCompleto Número completo da conta
+     * @return Proxy remoto da conta ou null se não existir
+     */
+    public Conta buscarConta(String numeroContaCompleto) {
+        RespostaNo resposta = enviar(RequisicaoNo.paraConta(
+                RequisicaoNo.Operacao.BUSCAR, numeroContaCompleto, 0));
+        if (resposta.getStatus() != RespostaNo.Status.OK) {
+            return null;
+        }
+        return new ContaRemota(this, numeroContaCompleto, resposta.getTipoConta(),
+                resposta.getNomeCliente());
+    }
+
+    /**
+     * Envia uma requisição ao dono da conta, seguindo redirecionamentos de contas migradas
+     * @param requisicao Requisição com número de conta preenchido
+     * @return Resposta do nó dono (status ERRO em falha de comunicação)
+     */
+    public RespostaNo enviar(RequisicaoNo requisicao) {
+        String destino = localizarNo(requisicao.getNumeroConta());
+        if (destino == null) {
+            return RespostaNo.erro("Nenhum nó no cluster");
+        }
+
+        for (int tentativa = 0; tentativa <= MAX_REDIRECIONAMENTOS; tentativa++) {
+            RespostaNo resposta;
+            try {
+                resposta = conexao(destino).enviar(requisicao);
+            } catch (IOException e) {
+                return RespostaNo.erro("Falha de comunicação com o nó " + destino + ": " + e.getMessage());
+            }
+            if (resposta.getStatus() != RespostaNo.Status.MOVIDA) {
+                return resposta;
+            }
+            EnderecoNo novoDono = resposta.getDestino();
+            membros.putIfAbsent(novoDono.getId(), novoDono);
+            destino = novoDono.getId();
+        }
+        return RespostaNo.erro("Redirecionamentos excessivos para a conta " + requisicao.getNumeroConta());
+    }
+
+    /**
+     * Retorna o nó dono da conta segundo o anel atual
+     * @param numeroContaCompleto Número completo da conta
+     * @return Identificador do nó ou null se o cluster estiver vazio
+     */
+    public String localizarNo(String numeroContaCompleto) {
+        return anel.localizarNo(numeroContaCompleto);
+    }
+
+    /**
+     * Fecha as conexões com os nós
+     */
+    @Override
+    public void close() {
+        conexoes.values().forEach(ConexaoNo::close);
+        conexoes.clear();
+    }
+
+    private ConexaoNo conexao(String idNo) {
+        return conexoes.computeIfAbsent(idNo, chave -> new ConexaoNo(membros.get(chave)));
+    }
+}
@@ -0,0 +1,100 @@
+package service;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.Socket;
+
+/**
+ * Conexão TCP persistente com um nó do banco (NoBanco).
+ * Usada pelo cliente roteador e pelos próprios nós durante a migração de contas.
+ *
+ * Atributos:
+ * - endereco: EnderecoNo - Nó de destino (final)
+ * - socket: Socket - Conexão aberta (null enquanto desconectado)
+ * - saida: ObjectOutputStream - Fluxo de envio de requisições
+ * - entrada: ObjectInputStream - Fluxo de recebimento de respostas
+ *
+ * Métodos Públicos:
+ * - enviar(RequisicaoNo requisicao): RespostaNo - Envia a requisição e aguarda a resposta
+ * - close(): void - Fecha a conexão
+ *
+ * Observação:
+ * - Uma requisição por vez trafega na conexão (enviar é sincronizado)
+ * - Se a requisição não puder ser escrita, a conexão é reaberta uma única vez; falhas ao ler a
+ *   resposta não são repetidas, pois o nó pode já ter executado a operação
+ */
+public class ConexaoNo implements AutoCloseable {
+    // Nó de destino
+    private final EnderecoNo endereco;
+
+    // Conexão aberta
+    private Socket socket;
+
+    // Fluxos de objetos da conexão
+    private ObjectOutputStream saida;
+    private ObjectInputStream entrada;
+
+    /**
+     * Construtor da conexão (a abertura do socket ocorre no primeiro envio)
+     * @param endereco Nó de destino
+     */
+    public ConexaoNo(EnderecoNo endereco) {
+        this.endereco = endereco;
+    }
+
+    /**
+     * Envia uma requisição ao nó e aguarda a resposta
+     * @param requisicao Requisição a ser enviada
+     * @return Resposta do nó
+     * @throws IOException se o nó não puder ser alcançado
+     */
+    public synchronized RespostaNo enviar(RequisicaoNo requisicao) throws IOException {
+        try {
+            escrever(requisicao);
+        } catch (IOException e) {
+            // Conexão pode ter sido encerrada pelo nó; tenta novamente com uma conexão nova
+            close();
+            escrever(requisicao);
+        }
+        try {
+            return (RespostaNo) entrada.readObject();
+        } catch (ClassNotFoundException e) {
+            close();
+            throw new IOException("Resposta inválida do nó " + endereco, e);
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    private void escrever(RequisicaoNo requisicao) throws IOException {
+        if (socket == null) {
+            socket = new Socket(endereco.getHost(), endereco.getPorta());
+            socket.setTcpNoDelay(true);
+            saida = new ObjectOutputStream(socket.getOutputStream());
+            saida.flush();
+            entrada = new ObjectInputStream(socket.getInputStream());
+        }
+        saida.writeObject(requisicao);
+        saida.reset(); // Evita que o fluxo retenha referências a objetos já enviados
+        saida.flush();
+    }
+
+    /**
+     * Fecha a conexão com o nó
+     */
+    @Override
+    public synchronized void close() {
+        if (socket != null) {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // Conexão já encerrada
+            }
+        }
+        socket = null;
+        saida = null;
+        entrada = null;
+    }
+}
@@ -10,11 +10,15 @@ package service;
  * - getNumeroContaCompleto(): String - Obtém o número completo da conta (incluindo prefixo)
  * - getTipoConta(): String - Retorna o tipo da conta ("cc" para corrente, "cp" para poupança)
  * - getNomeCliente(): String - Retorna o nome do titular da conta
- * - getSaldo(): double - Retorna o saldo atual da conta
+ * - getSaldo(): long - Retorna o saldo atual da conta em centavos
  * - consultarSaldo(): void - Exibe o saldo atual (implementação pode variar)
- * - realizarDeposito(double valor): void - Realiza operação de depósito
- * - realizarSaque(double valor): void - Realiza operação de saque
- * - realizarPagamento(double valor): void - Realiza operação de pagamento
+ * - realizarDeposito(long valor): boolean - Realiza operação de depósito (valor em centavos)
+ * - realizarSaque(long valor): boolean - Realiza operação de saque (valor em centavos)
+ * - realizarPagamento(long valor): boolean - Realiza operação de pagamento (valor em centavos)
+ * - montarNumeroCompleto(String tipo, int numero): String - Monta o número completo no formato usado pelo banco
+ *
+ * Valores monetários:
+ * - Todos os valores são long em centavos (R$ 12,34 = 1234); a aritmética fica em Dinheiro
  *
  * Princípios SOLID aplicados:
  * - I (Interface Segregation): Define apenas métodos essenciais para contas bancárias
@@ -45,9 +49,9 @@ public interface Conta {
 
     /**
      * Retorna o saldo atual da conta
-     * @return Valor do saldo
+     * @return Valor do saldo em centavos
      */
-    double getSaldo();
+    long getSaldo();
 
     /**
      * Exibe o saldo atual da conta
@@ -57,19 +61,32 @@ public interface Conta {
 
     /**
      * Realiza operação de depósito na conta
-     * @param valor Valor a ser depositado
+     * @param valor Valor a ser depositado em centavos
+     * @return true se o depósito foi efetuado, false caso contrário
      */
-    void realizarDeposito(double valor);
+    boolean realizarDeposito(long valor);
 
     /**
      * Realiza operação de saque na conta
-     * @param valor Valor a ser sacado
+     * @param valor Valor a ser sacado em centavos
+     * @return true se o saque foi efetuado, false caso contrário
      */
-    void realizarSaque(double valor);
+    boolean realizarSaque(long valor);
 
     /**
      * Realiza operação de pagamento na conta
-     * @param valor Valor do pagamento
+     * @param valor Valor do pagamento em centavos
+     * @return true se o pagamento foi efetuado, false caso contrário
+     */
+    boolean realizarPagamento(long valor);
+
+    /**
+     * Monta o número completo da conta no formato usado pelo banco (ex: " cc 123")
+     * @param tipo Tipo da conta ("cc" ou "cp")
+     * @param numero Número da conta sem prefixo
+     * @return Número completo da conta
      */
-    void realizarPagamento(double valor);
+    static String montarNumeroCompleto(String tipo, int numero) {
+        return " " + tipo + " " + numero;
+    }
 }
\ No newline at end of file
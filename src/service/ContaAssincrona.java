@@ -0,0 +1,87 @@
+package service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Interface que define a variante assíncrona das operações de Conta.
+ * Cada operação retorna imediatamente um CompletableFuture, permitindo que o chamador
+ * encadeie milhares de operações sem bloquear uma thread por operação.
+ *
+ * Métodos:
+ * - getConta(): Conta - Retorna a conta adaptada
+ * - consultarSaldoAsync(): CompletableFuture<Long> - Saldo (centavos) após as operações já enfileiradas
+ * - realizarDepositoAsync(long valor): CompletableFuture<Boolean> - Depósito assíncrono
+ * - realizarSaqueAsync(long valor): CompletableFuture<Boolean> - Saque assíncrono
+ * - realizarPagamentoAsync(long valor): CompletableFuture<Boolean> - Pagamento assíncrono
+ * - adaptar(Conta conta): ContaAssincrona - Cria o adaptador adequado ao tipo da conta
+ * - adaptar(Conta conta, Executor executor): ContaAssincrona - Idem, com executor próprio
+ *
+ * Garantias:
+ * - Operações de uma mesma conta são executadas na ordem em que foram solicitadas
+ * - Os futuros de operações financeiras completam com true/false, assim como os métodos de Conta
+ * - Exceções lançadas pela conta completam o futuro excepcionalmente
+ *
+ * Padrões de projeto relacionados:
+ * - Adapter: ContaCorrenteAssincrona e ContaPoupancaAssincrona adaptam as contas síncronas
+ */
+public interface ContaAssincrona {
+    /**
+     * Retorna a conta adaptada
+     * @return Conta síncrona
+     */
+    Conta getConta();
+
+    /**
+     * Consulta o saldo de forma assíncrona
+     * @return Futuro com o saldo observado após as operações enfileiradas antes desta
+     */
+    CompletableFuture<Long> consultarSaldoAsync();
+
+    /**
+     * Realiza depósito de forma assíncrona
+     * @param valor Valor a ser depositado, em centavos
+     * @return Futuro com true se o depósito foi efetuado
+     */
+    CompletableFuture<Boolean> realizarDepositoAsync(long valor);
+
+    /**
+     * Realiza saque de forma assíncrona
+     * @param valor Valor a ser sacado, em centavos
+     * @return Futuro com true se o saque foi efetuado
+     */
+    CompletableFuture<Boolean> realizarSaqueAsync(long valor);
+
+    /**
+     * Realiza pagamento de forma assíncrona
+     * @param valor Valor do pagamento, em centavos
+     * @return Futuro com true se o pagamento foi efetuado
+     */
+    CompletableFuture<Boolean> realizarPagamentoAsync(long valor);
+
+    /**
+     * Cria o adaptador assíncrono adequado ao tipo da conta, usando o ForkJoinPool comum
+     * @param conta Conta a ser adaptada
+     * @return Adaptador assíncrono
+     */
+    static ContaAssincrona adaptar(Conta conta) {
+        return adaptar(conta, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Cria o adaptador assíncrono adequado ao tipo da conta
+     * @param conta Conta a ser adaptada
+     * @param executor Executor que processará as operações
+     * @return Adaptador assíncrono
+     */
+    static ContaAssincrona adaptar(Conta conta, Executor executor) {
+        if (conta instanceof ContaCorrente) {
+            return new ContaCorrenteAssincrona((ContaCorrente) conta, executor);
+        }
+        if (conta instanceof ContaPoupanca) {
+            return new ContaPoupancaAssincrona((ContaPoupanca) conta, executor);
+        }
+        return new AdaptadorContaAssincrona<>(conta, executor);
+    }
+}
@@ -1,209 +1,536 @@
 package service;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
+import java.io.Serializable;
 import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Classe que implementa uma conta corrente bancária com operações básicas e cheque especial.
  * Implementa a interface Conta com funcionalidades específicas para contas correntes.
  *
  * Atributos:
- * - numeroContaCompleto: String - Número completo da conta com prefixo (final)
- * - numeroConta: int - Número da conta sem prefixo (final)
- * - nomeCliente: String - Nome do titular da conta (final)
- * - saldo: double - Saldo atual da conta
- * - limiteChequeEspecial: double - Limite disponível do cheque especial
- * - agencia: String - Agência bancária (final)
- * - jurosChequeEspecial: Juros - Classe interna para cálculo de juros
+ * - numeroContaCompleto: String - Número completo da conta com prefixo
+ * - numeroConta: int - Número da conta sem prefixo
+ * - nomeCliente: String - Nome do titular da conta
+ * - saldo: long - Saldo atual da conta, em centavos
+ * - limiteChequeEspecial: long - Limite disponível do cheque especial, em centavos
+ * - agencia: String - Agência bancária
+ * - jurosChequeEspecial: Juros - Gerenciador de juros do cheque especial
+ * - usosChequeEspecial: int - Quantidade de vezes que a conta entrou no cheque especial
+ * - residencia: ResidenciaConta - Estado da conta no armazenamento em camadas
+ * - janelaVelocidade: JanelaVelocidade - Histórico de saques para as regras de velocidade
+ * - reservado: long - Valor reservado por pagamentos aguardando a compensação, em centavos
+ * - modoQuente: boolean - Modo conta quente ativo (depósitos sem bloqueio da conta)
+ * - creditosPendentes: LongAdder - Depósitos do modo conta quente ainda não consolidados, em centavos
+ * - politicaLimite: PoliticaLimite - Política de crédito compartilhada pelas contas correntes (estático)
  *
  * Métodos Públicos:
  * - consultarSaldo(): void - Exibe saldo e alerta sobre juros pendentes (implementação da interface)
- * - realizarDeposito(double valor): void - Realiza depósito e quita juros primeiro (implementação da interface)
- * - realizarSaque(double valor): void - Realiza saque usando saldo ou cheque especial (implementação da interface)
- * - realizarPagamento(double valor): void - Realiza pagamento (implementação da interface)
+ * - realizarDeposito(long valor): boolean - Realiza depósito e quita juros primeiro (implementação da interface)
+ * - realizarSaque(long valor): boolean - Realiza saque usando saldo ou cheque especial, após as regras de velocidade (implementação da interface)
+ * - realizarPagamento(long valor): boolean - Realiza pagamento (implementação da interface)
  * - consultarLimiteChequeEspecial(): void - Exibe informações detalhadas do cheque especial
+ * - ativarModoQuente() / desativarModoQuente(): void - Liga/desliga o modo conta quente
+ * - isModoQuente(): boolean - Indica se o modo conta quente está ativo
+ * - getPoliticaLimite() / setPoliticaLimite(PoliticaLimite): Política de crédito em uso (estáticos)
  * - getters: Implementações dos métodos da interface Conta + getters específicos
  *
+ * Métodos de Pacote:
+ * - reavaliarLimite(PoliticaLimite politica): boolean - Recalcula o limite sem exibir mensagens
+ * - capitalizarJuros(LocalDate data): long - Lança no cheque especial os juros acumulados até a data (processamento em lote)
+ * - getResidencia(): ResidenciaConta - Estado da conta no armazenamento em camadas
+ * - getValorUtilizadoChequeEspecial(): long - Cheque especial utilizado (reconciliação por árvore de Merkle)
+ * - reservar(long valor): boolean - Reserva sem mensagens o valor de um pagamento da CamaraCompensacao
+ * - liquidarCompensacao(long reserva, long liquido): void - Libera as reservas e aplica o valor líquido de um lote
+ *
  * Métodos Privados:
- * - calcularLimiteChequeEspecial(double saldoAtual): void - Calcula limite baseado no saldo
- * - aplicarValorNoSaldo(double valor): void - Lógica centralizada para aplicação de valores
+ * - calcularLimiteChequeEspecial(long saldoAtual): void - Calcula limite pela política de crédito
+ * - depositarComBloqueio / sacarComBloqueio / capitalizarJurosComBloqueio: Corpo das operações sob o monitor da conta
+ * - aplicarValorNoSaldo(long valor): void - Lógica centralizada para aplicação de valores
+ * - consolidarCreditos(): void - Incorpora ao saldo os depósitos pendentes do modo conta quente
+ * - disponivel(): long - Saldo mais o cheque especial disponível
+ * - incorporarCredito(long valor): void - Aplica um crédito sem mensagens (juros, cheque especial e saldo)
+ * - publicarEvento(TipoEventoSaldo tipo, long valor, long saldoApos): void - Publica no feed de eventos
+ * - registrarMovimento(TipoEventoSaldo tipo, long valor): void - Informa o movimento ao ReconciliadorMerkle do banco da conta
+ *
+ * Concorrência:
+ * - Operações que alteram ou leem o estado são sincronizadas na própria conta, permitindo
+ *   que um nó do banco atenda várias conexões simultâneas
+ * - A conta é serializável para poder ser migrada entre nós (ver NoBanco) e gravada em disco
+ *   quando inativa (ver ArmazenamentoEmCamadas); cada operação marca o acesso à conta
+ * - Depósito, saque e capitalização de juros podem ser medidos pelo PerfiladorContencao ativo
+ *   (espera e retenção do monitor da conta)
+ * - Saldo, limite e reservas são serializados em centavos (saldoCentavos,
+ *   limiteChequeEspecialCentavos, reservadoCentavos; ver Dinheiro, Serialização)
+ *
+ * Modo conta quente (contas de lojistas que recebem grande volume de depósitos):
+ * - Depósitos são somados a subsaldos por núcleo (LongAdder, na mesma escala do saldo) sem adquirir o
+ *   monitor da conta e sem mensagens no console
+ * - Qualquer operação que precise do saldo consolidado (saldo, limite, cheque especial) incorpora
+ *   antes os créditos pendentes, aplicando-os na mesma ordem de um depósito comum: juros,
+ *   cheque especial utilizado e, por fim, saldo. Um saque coberto pelo saldo já consolidado
+ *   não precisa consolidar, pois com saldo positivo não há cheque especial em uso
+ * - Saques e cheque especial continuam exatos: o saque sempre enxerga todos os depósitos
+ *   concluídos antes dele
  *
- * Classe Interna:
- * - Juros: Gerencia cálculo de juros do cheque especial (data de início, valor utilizado e taxa)
+ * Feed de eventos:
+ * - Depósitos, saques, entrada no cheque especial, quitação e capitalização de juros são publicados no
+ *   PublicadorEventos ativo (sem bloquear a operação); a entrada no cheque especial é detectada
+ *   no mesmo ponto em que a utilização é registrada em Juros
  */
-public class ContaCorrente implements Conta {
+public class ContaCorrente implements Conta, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    // Campos serializados
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("numeroContaCompleto", String.class),
+            new ObjectStreamField("numeroConta", int.class),
+            new ObjectStreamField("nomeCliente", String.class),
+            new ObjectStreamField("saldoCentavos", long.class),
+            new ObjectStreamField("limiteChequeEspecialCentavos", long.class),
+            new ObjectStreamField("agencia", String.class),
+            new ObjectStreamField("jurosChequeEspecial", Juros.class),
+            new ObjectStreamField("usosChequeEspecial", int.class),
+            new ObjectStreamField("residencia", ResidenciaConta.class),
+            new ObjectStreamField("janelaVelocidade", JanelaVelocidade.class),
+            new ObjectStreamField("modoQuente", boolean.class),
+            new ObjectStreamField("reservadoCentavos", long.class)
+    };
+
     // Número completo da conta (ex: "cc12345")
-    private final String numeroContaCompleto;
+    private String numeroContaCompleto;
 
     // Número da conta sem prefixo
-    private final int numeroConta;
+    private int numeroConta;
 
     // Nome do titular da conta
-    private final String nomeCliente;
+    private String nomeCliente;
 
-    // Saldo atual da conta
-    private double saldo;
+    // Saldo atual da conta, em centavos
+    private long saldo;
 
-    // Limite do cheque especial
-    private double limiteChequeEspecial;
+    // Limite do cheque especial, em centavos
+    private long limiteChequeEspecial;
 
     // Agência bancária
-    private final String agencia;
+    private String agencia;
 
     // Gerenciador de juros do cheque especial
-    private final Juros jurosChequeEspecial;
+    private Juros jurosChequeEspecial;
+
+    // Quantidade de vezes que a conta entrou no cheque especial
+    private int usosChequeEspecial;
+
+    // Estado da conta no armazenamento em camadas (memória ou disco)
+    private ResidenciaConta residencia = new ResidenciaConta();
+
+    // Histórico de saques avaliado pelas regras de velocidade (MonitorVelocidade)
+    private JanelaVelocidade janelaVelocidade = new JanelaVelocidade();
+
+    // Valor reservado por pagamentos aguardando a compensação (CamaraCompensacao), em centavos
+    private long reservado;
+
+    // Modo conta quente ativo (depósitos sem bloqueio da conta)
+    private volatile boolean modoQuente;
+
+    // Depósitos do modo conta quente ainda não consolidados, em centavos (criado na ativação e
+    // mantido depois dela, para que depósitos em andamento na desativação não se percam)
+    private transient volatile LongAdder creditosPendentes;
+
+    // Política de crédito usada no cálculo do limite (compartilhada por todas as contas correntes)
+    private static volatile PoliticaLimite politicaLimite = new PoliticaLimitePadrao();
 
     /**
      * Construtor da conta corrente
      * @param numeroCompleto Número completo com prefixo (ex: "cc123")
      * @param numeroConta Número da conta sem prefixo
      * @param nomeCliente Nome do titular
-     * @param saldoInicial Valor inicial da conta
+     * @param saldoInicial Valor inicial da conta, em centavos
      * @param agencia Agência bancária
      */
     public ContaCorrente(String numeroCompleto, int numeroConta, String nomeCliente,
-                         double saldoInicial, String agencia) {
+                         long saldoInicial, String agencia) {
+        this(numeroCompleto, numeroConta, nomeCliente, saldoInicial, agencia, true);
+    }
+
+    /**
+     * Construtor usado na importação em lote, que pode omitir a mensagem de limite definido
+     * @param exibirLimite true para exibir o limite calculado no console
+     */
+    ContaCorrente(String numeroCompleto, int numeroConta, String nomeCliente,
+                  long saldoInicial, String agencia, boolean exibirLimite) {
         this.numeroContaCompleto = numeroCompleto;
         this.numeroConta = numeroConta;
         this.nomeCliente = nomeCliente;
         this.saldo = saldoInicial;
         this.agencia = agencia;
         this.jurosChequeEspecial = new Juros();
-        calcularLimiteChequeEspecial(saldoInicial);
+        if (exibirLimite) {
+            calcularLimiteChequeEspecial(saldoInicial);
+        } else {
+            this.limiteChequeEspecial = politicaLimite.calcularLimite(saldoInicial, agencia, 0);
+        }
     }
 
     /**
-     * Calcula o limite do cheque especial baseado no saldo atual
-     * @param saldoAtual Saldo atual da conta
+     * Calcula o limite do cheque especial pela política de crédito em uso
+     * @param saldoAtual Saldo atual da conta, em centavos
      */
-    private void calcularLimiteChequeEspecial(double saldoAtual) {
-        this.limiteChequeEspecial = saldoAtual <= 500 ?
-                saldoAtual * 0.2 : // 20% para saldos baixos
-                saldoAtual * 0.5;   // 50% para saldos maiores
-        System.out.printf("Limite de cheque especial definido: R$ %.2f%n",
-                this.limiteChequeEspecial);
+    private void calcularLimiteChequeEspecial(long saldoAtual) {
+        this.limiteChequeEspecial = politicaLimite.calcularLimite(saldoAtual, agencia, usosChequeEspecial);
+        System.out.printf("Limite de cheque especial definido: R$ %s%n",
+                Dinheiro.formatar(this.limiteChequeEspecial));
     }
 
     /**
      * Exibe o saldo atual e alerta sobre juros pendentes
      */
     @Override
-    public void consultarSaldo() {
-        double juros = jurosChequeEspecial.calcularJuros();
+    public synchronized void consultarSaldo() {
+        residencia.registrarAcesso(this);
+        consolidarCreditos();
+        long juros = jurosChequeEspecial.calcularJuros();
         if (juros > 0) {
-            System.out.printf("Atenção: Juros pendentes de R$ %.2f%n", juros);
+            System.out.printf("Atenção: Juros pendentes de R$ %s%n", Dinheiro.formatar(juros));
         }
-        System.out.printf("Saldo atual: R$ %.2f%n", this.saldo);
+        System.out.printf("Saldo atual: R$ %s%n", Dinheiro.formatar(this.saldo));
     }
 
     /**
-     * Realiza depósito, priorizando quitação de juros
-     * @param valor Valor a ser depositado
+     * Realiza depósito, priorizando quitação de juros. No modo conta quente o valor é apenas
+     * somado aos créditos pendentes, sem bloquear a conta
+     * @param valor Valor a ser depositado, em centavos
+     * @return true se o depósito foi efetuado, false se o valor for inválido
      */
     @Override
-    public void realizarDeposito(double valor) {
+    public boolean realizarDeposito(long valor) {
+        if (modoQuente && valor > 0) {
+            creditosPendentes.add(valor);
+            residencia.registrarAcesso(this);
+            publicarEvento(TipoEventoSaldo.DEPOSITO, valor, EventoSaldo.SALDO_DESCONHECIDO);
+            return true;
+        }
+        PerfiladorContencao perfilador = PerfiladorContencao.amostrar();
+        if (perfilador == null) {
+            return depositarComBloqueio(valor);
+        }
+        return perfilador.medir(this, numeroContaCompleto, OperacaoPerfilada.DEPOSITO, () -> depositarComBloqueio(valor));
+    }
+
+    /**
+     * Depósito comum, sob o monitor da conta
+     */
+    private synchronized boolean depositarComBloqueio(long valor) {
+        residencia.registrarAcesso(this);
         if (valor <= 0) {
             System.out.println("Valor de depósito inválido!");
-            return;
+            return false;
         }
+        consolidarCreditos();
 
-        double juros = jurosChequeEspecial.calcularJuros();
+        long juros = jurosChequeEspecial.calcularJuros();
 
         if (juros > 0) {
-            System.out.printf("Juros pendentes: R$ %.2f%n", juros);
-            double valorRestante = valor - juros;
+            System.out.printf("Juros pendentes: R$ %s%n", Dinheiro.formatar(juros));
+            long valorRestante = valor - juros;
 
             if (valorRestante >= 0) {
                 jurosChequeEspecial.reduzirUtilizacao(juros);
+                registrarMovimento(TipoEventoSaldo.QUITACAO_JUROS, juros);
                 System.out.println("Juros quitados com sucesso!");
+                publicarEvento(TipoEventoSaldo.QUITACAO_JUROS, juros, this.saldo);
 
                 if (valorRestante > 0) {
                     aplicarValorNoSaldo(valorRestante);
                 }
             } else {
                 jurosChequeEspecial.reduzirUtilizacao(valor);
-                System.out.printf("Valor aplicado nos juros. Restante: R$ %.2f%n",
-                        juros - valor);
+                registrarMovimento(TipoEventoSaldo.QUITACAO_JUROS, valor);
+                System.out.printf("Valor aplicado nos juros. Restante: R$ %s%n",
+                        Dinheiro.formatar(juros - valor));
+                publicarEvento(TipoEventoSaldo.QUITACAO_JUROS, valor, this.saldo);
             }
         } else {
             aplicarValorNoSaldo(valor);
         }
 
         calcularLimiteChequeEspecial(this.saldo);
+        publicarEvento(TipoEventoSaldo.DEPOSITO, valor, this.saldo);
+        return true;
+    }
+
+    /**
+     * Incorpora ao saldo os créditos pendentes do modo conta quente, sem mensagens, na mesma ordem
+     * de um depósito comum (juros, cheque especial utilizado e saldo), e recalcula o limite.
+     * Chamado sob o monitor da conta
+     */
+    private void consolidarCreditos() {
+        LongAdder creditos = creditosPendentes;
+        if (creditos == null) {
+            return;
+        }
+        long centavos = creditos.sumThenReset();
+        if (centavos == 0) {
+            return;
+        }
+        incorporarCredito(centavos);
+    }
+
+    /**
+     * Reserva, sem exibir mensagens, o valor de um pagamento enviado a uma CamaraCompensacao.
+     * Aplica as mesmas regras do saque (velocidade, saldo e limite), considerando as reservas já
+     * feitas; o valor só sai da conta na liquidação do lote
+     * @param valor Valor do pagamento, em centavos
+     * @return true se o valor foi reservado
+     */
+    synchronized boolean reservar(long valor) {
+        residencia.registrarAcesso(this);
+        if (valor <= 0) {
+            return false;
+        }
+        MonitorVelocidade velocidade = MonitorVelocidade.getAtivo();
+        long agora = 0;
+        if (velocidade != null) {
+            agora = System.currentTimeMillis();
+            if (velocidade.verificar(janelaVelocidade, valor, agora) >= 0) {
+                return false;
+            }
+        }
+        long comprometido = Dinheiro.somar(valor, this.reservado);
+        if (comprometido > this.saldo) {
+            consolidarCreditos();
+        }
+        if (comprometido > disponivel()) {
+            return false;
+        }
+        this.reservado = comprometido;
+        if (velocidade != null) {
+            velocidade.registrar(janelaVelocidade, valor, agora);
+        }
+        return true;
+    }
+
+    /**
+     * Liquida, sem exibir mensagens, a posição da conta num lote da câmara de compensação: libera
+     * as reservas do lote e aplica o valor líquido numa única operação. Um crédito segue a ordem
+     * do depósito (juros, cheque especial utilizado e saldo); um débito usa o saldo e depois o
+     * cheque especial, já garantido pelas reservas
+     * @param reserva Total reservado pela conta nos pagamentos do lote, em centavos
+     * @param liquido Recebido menos pago no lote, em centavos (negativo = débito)
+     */
+    synchronized void liquidarCompensacao(long reserva, long liquido) {
+        residencia.garantirResidencia(this);
+        consolidarCreditos();
+        this.reservado = Math.max(0, this.reservado - reserva);
+        if (liquido > 0) {
+            incorporarCredito(liquido);
+            publicarEvento(TipoEventoSaldo.DEPOSITO, liquido, this.saldo);
+        } else if (liquido < 0) {
+            long valor = -liquido;
+            if (valor <= this.saldo) {
+                this.saldo -= valor;
+            } else {
+                long diferenca = valor - this.saldo;
+                this.saldo = 0;
+                boolean entrouNoChequeEspecial = jurosChequeEspecial.getValorUtilizado() == 0;
+                if (entrouNoChequeEspecial) {
+                    this.usosChequeEspecial++;
+                }
+                jurosChequeEspecial.registrarUtilizacao(diferenca);
+                if (entrouNoChequeEspecial) {
+                    publicarEvento(TipoEventoSaldo.ENTRADA_CHEQUE_ESPECIAL, diferenca, this.saldo);
+                }
+            }
+            registrarMovimento(TipoEventoSaldo.SAQUE, valor);
+            publicarEvento(TipoEventoSaldo.SAQUE, valor, this.saldo);
+        }
+    }
+
+    /**
+     * Saldo mais o cheque especial ainda disponível, em centavos (chamado sob o monitor da conta)
+     */
+    private long disponivel() {
+        return Dinheiro.somar(this.saldo, this.limiteChequeEspecial - jurosChequeEspecial.getValorUtilizado());
+    }
+
+    /**
+     * Aplica um crédito sem mensagens: quita juros, depois o cheque especial utilizado, e o
+     * restante vai para o saldo (chamado sob o monitor da conta)
+     */
+    private void incorporarCredito(long valor) {
+        long paraJuros = Math.min(valor, jurosChequeEspecial.calcularJuros());
+        if (paraJuros > 0) {
+            jurosChequeEspecial.reduzirUtilizacao(paraJuros);
+            registrarMovimento(TipoEventoSaldo.QUITACAO_JUROS, paraJuros);
+            publicarEvento(TipoEventoSaldo.QUITACAO_JUROS, paraJuros, this.saldo);
+        }
+        long restante = valor - paraJuros;
+        long paraCheque = Math.min(restante, jurosChequeEspecial.getValorUtilizado());
+        if (paraCheque > 0) {
+            jurosChequeEspecial.reduzirUtilizacao(paraCheque);
+        }
+        this.saldo = Dinheiro.somar(this.saldo, restante - paraCheque);
+        this.limiteChequeEspecial = politicaLimite.calcularLimite(this.saldo, this.agencia, this.usosChequeEspecial);
+        registrarMovimento(TipoEventoSaldo.DEPOSITO, restante);
+    }
+
+    /**
+     * Publica um evento de alteração de saldo no feed, se houver um publicador ativo
+     */
+    private void publicarEvento(TipoEventoSaldo tipo, long valor, long saldoApos) {
+        PublicadorEventos publicador = PublicadorEventos.getAtivo();
+        if (publicador != null) {
+            publicador.publicar(tipo, numeroContaCompleto, valor, saldoApos);
+        }
+    }
+
+    /**
+     * Informa um movimento já aplicado à conta ao reconciliador ativo do banco da conta, se houver,
+     * que o aplica ao estado esperado (chamado sob o monitor da conta)
+     */
+    private void registrarMovimento(TipoEventoSaldo tipo, long valor) {
+        ReconciliadorMerkle reconciliador = residencia.getReconciliador();
+        if (reconciliador != null) {
+            reconciliador.registrar(numeroContaCompleto, tipo, valor);
+        }
     }
 
     /**
      * Aplica valor no saldo, priorizando redução do cheque especial utilizado
-     * @param valor Valor a ser aplicado
+     * @param valor Valor a ser aplicado, em centavos
      */
-    private void aplicarValorNoSaldo(double valor) {
-        double utilizacaoCheque = jurosChequeEspecial.getValorUtilizado();
+    private void aplicarValorNoSaldo(long valor) {
+        long utilizacaoCheque = jurosChequeEspecial.getValorUtilizado();
 
         if (utilizacaoCheque > 0) {
-            double valorParaCheque = Math.min(valor, utilizacaoCheque);
+            long valorParaCheque = Math.min(valor, utilizacaoCheque);
             jurosChequeEspecial.reduzirUtilizacao(valorParaCheque);
-            this.saldo += (valor - valorParaCheque);
-            System.out.printf("R$ %.2f aplicado no cheque especial e R$ %.2f no saldo%n",
-                    valorParaCheque, (valor - valorParaCheque));
+            this.saldo = Dinheiro.somar(this.saldo, valor - valorParaCheque);
+            System.out.printf("R$ %s aplicado no cheque especial e R$ %s no saldo%n",
+                    Dinheiro.formatar(valorParaCheque), Dinheiro.formatar(valor - valorParaCheque));
         } else {
-            this.saldo += valor;
-            System.out.printf("Depósito de R$ %.2f realizado com sucesso!%n", valor);
+            this.saldo = Dinheiro.somar(this.saldo, valor);
+            System.out.printf("Depósito de R$ %s realizado com sucesso!%n", Dinheiro.formatar(valor));
         }
+        registrarMovimento(TipoEventoSaldo.DEPOSITO, valor);
     }
 
     /**
-     * Realiza saque usando saldo ou cheque especial
-     * @param valor Valor a ser sacado
+     * Realiza saque usando saldo ou cheque especial. Se houver um MonitorVelocidade ativo,
+     * o saque é antes verificado pelas regras de velocidade
+     * @param valor Valor a ser sacado, em centavos
+     * @return true se o saque foi efetuado, false se o valor for inválido, violar uma regra de
+     *         velocidade ou não houver saldo e limite
      */
     @Override
-    public void realizarSaque(double valor) {
+    public boolean realizarSaque(long valor) {
+        PerfiladorContencao perfilador = PerfiladorContencao.amostrar();
+        if (perfilador == null) {
+            return sacarComBloqueio(valor);
+        }
+        return perfilador.medir(this, numeroContaCompleto, OperacaoPerfilada.SAQUE, () -> sacarComBloqueio(valor));
+    }
+
+    /**
+     * Saque sob o monitor da conta
+     */
+    private synchronized boolean sacarComBloqueio(long valor) {
+        residencia.registrarAcesso(this);
         if (valor <= 0) {
             System.out.println("Valor de saque inválido!");
-            return;
+            return false;
+        }
+
+        MonitorVelocidade velocidade = MonitorVelocidade.getAtivo();
+        long agora = 0;
+        if (velocidade != null) {
+            agora = System.currentTimeMillis();
+            int regra = velocidade.verificar(janelaVelocidade, valor, agora);
+            if (regra >= 0) {
+                System.out.println("Saque bloqueado pela regra de velocidade: " + velocidade.getRegra(regra));
+                return false;
+            }
+        }
+
+        // Só consolida quando o saldo já incorporado não cobre o saque e as reservas (empresta dos subsaldos)
+        long comprometido = Dinheiro.somar(valor, this.reservado);
+        if (comprometido > this.saldo) {
+            consolidarCreditos();
+        }
+        if (this.reservado > 0 && comprometido > disponivel()) {
+            System.out.println("Saldo e limite insuficientes para o saque (valores reservados para compensação)!");
+            return false;
         }
 
         if (valor <= this.saldo) {
             this.saldo -= valor;
-            System.out.printf("Saque de R$ %.2f realizado! Novo saldo: R$ %.2f%n",
-                    valor, this.saldo);
+            if (velocidade != null) {
+                velocidade.registrar(janelaVelocidade, valor, agora);
+            }
+            System.out.printf("Saque de R$ %s realizado! Novo saldo: R$ %s%n",
+                    Dinheiro.formatar(valor), Dinheiro.formatar(this.saldo));
+            registrarMovimento(TipoEventoSaldo.SAQUE, valor);
+            publicarEvento(TipoEventoSaldo.SAQUE, valor, this.saldo);
+            return true;
         } else {
-            double diferenca = valor - this.saldo;
-            double limiteDisponivel = this.limiteChequeEspecial -
+            long diferenca = valor - this.saldo;
+            long limiteDisponivel = this.limiteChequeEspecial -
                     jurosChequeEspecial.getValorUtilizado();
 
             if (diferenca <= limiteDisponivel) {
                 this.saldo = 0;
+                boolean entrouNoChequeEspecial = jurosChequeEspecial.getValorUtilizado() == 0;
+                if (entrouNoChequeEspecial) {
+                    this.usosChequeEspecial++;
+                }
                 jurosChequeEspecial.registrarUtilizacao(diferenca);
+                if (entrouNoChequeEspecial) {
+                    publicarEvento(TipoEventoSaldo.ENTRADA_CHEQUE_ESPECIAL, diferenca, this.saldo);
+                }
+                if (velocidade != null) {
+                    velocidade.registrar(janelaVelocidade, valor, agora);
+                }
                 System.out.printf("Saque realizado usando cheque especial!%n" +
-                        "Limite utilizado: R$ %.2f%n", diferenca);
+                        "Limite utilizado: R$ %s%n", Dinheiro.formatar(diferenca));
+                registrarMovimento(TipoEventoSaldo.SAQUE, valor);
+                publicarEvento(TipoEventoSaldo.SAQUE, valor, this.saldo);
+                return true;
             } else {
                 System.out.println("Saldo e limite insuficientes para o saque!");
+                return false;
             }
         }
     }
 
     /**
      * Realiza pagamento (delega para método de saque)
-     * @param valor Valor do pagamento
+     * @param valor Valor do pagamento, em centavos
+     * @return true se o pagamento foi efetuado, false caso contrário
      */
     @Override
-    public void realizarPagamento(double valor) {
-        realizarSaque(valor);
+    public boolean realizarPagamento(long valor) {
+        return realizarSaque(valor);
     }
 
     /**
      * Exibe informações detalhadas do cheque especial
      */
-    public void consultarLimiteChequeEspecial() {
-        double valorUtilizado = jurosChequeEspecial.getValorUtilizado();
-        double juros = jurosChequeEspecial.calcularJuros();
+    public synchronized void consultarLimiteChequeEspecial() {
+        residencia.registrarAcesso(this);
+        consolidarCreditos();
+        long valorUtilizado = jurosChequeEspecial.getValorUtilizado();
+        long juros = jurosChequeEspecial.calcularJuros();
 
         System.out.println("\n=== CHEQUE ESPECIAL ===");
-        System.out.printf("Limite total: R$ %.2f%n", this.limiteChequeEspecial);
-        System.out.printf("Utilizado: R$ %.2f%n", valorUtilizado);
-        System.out.printf("Juros acumulados: R$ %.2f%n", juros);
-        System.out.printf("Disponível: R$ %.2f%n",
-                (this.limiteChequeEspecial - valorUtilizado));
+        System.out.printf("Limite total: R$ %s%n", Dinheiro.formatar(this.limiteChequeEspecial));
+        System.out.printf("Utilizado: R$ %s%n", Dinheiro.formatar(valorUtilizado));
+        System.out.printf("Juros acumulados: R$ %s%n", Dinheiro.formatar(juros));
+        System.out.printf("Disponível: R$ %s%n",
+                Dinheiro.formatar(this.limiteChequeEspecial - valorUtilizado));
 
         if (jurosChequeEspecial.getDataInicioUtilizacao() != null) {
             System.out.println("Data de início da utilização: " +
@@ -211,6 +538,158 @@ public class ContaCorrente implements Conta {
         }
     }
 
+    /**
+     * Recalcula o limite pela política informada, sem exibir mensagens (usado na reavaliação em lote).
+     * O cálculo e a troca do limite ocorrem sob o monitor da conta, de forma atômica
+     * @param politica Política de crédito a aplicar
+     * @return true se o limite mudou
+     */
+    synchronized boolean reavaliarLimite(PoliticaLimite politica) {
+        residencia.garantirResidencia(this);
+        consolidarCreditos();
+        long novoLimite = politica.calcularLimite(this.saldo, this.agencia, this.usosChequeEspecial);
+        if (novoLimite == this.limiteChequeEspecial) {
+            return false;
+        }
+        this.limiteChequeEspecial = novoLimite;
+        return true;
+    }
+
+    /**
+     * Lança no cheque especial utilizado os juros acumulados até a data, sem exibir mensagens,
+     * e publica o lançamento (usado pelo processamento noturno em lote)
+     * @param data Data de referência da capitalização
+     * @return Valor dos juros capitalizados, em centavos
+     */
+    long capitalizarJuros(LocalDate data) {
+        PerfiladorContencao perfilador = PerfiladorContencao.amostrar();
+        if (perfilador == null) {
+            return capitalizarJurosComBloqueio(data);
+        }
+        return perfilador.medirValor(this, numeroContaCompleto, OperacaoPerfilada.JUROS,
+                () -> capitalizarJurosComBloqueio(data));
+    }
+
+    /**
+     * Capitalização dos juros sob o monitor da conta
+     */
+    private synchronized long capitalizarJurosComBloqueio(LocalDate data) {
+        residencia.garantirResidencia(this);
+        consolidarCreditos();
+        long juros = jurosChequeEspecial.capitalizarJuros(data);
+        if (juros > 0) {
+            registrarMovimento(TipoEventoSaldo.CAPITALIZACAO_JUROS, juros);
+            publicarEvento(TipoEventoSaldo.CAPITALIZACAO_JUROS, juros, this.saldo);
+        }
+        return juros;
+    }
+
+    /**
+     * Cheque especial utilizado, com os créditos pendentes do modo conta quente já consolidados
+     * (comparado pela reconciliação por árvore de Merkle com o estado esperado)
+     * @return Valor utilizado, em centavos
+     */
+    synchronized long getValorUtilizadoChequeEspecial() {
+        consolidarCreditos();
+        return jurosChequeEspecial.getValorUtilizado();
+    }
+
+    /**
+     * Liga o modo conta quente: depósitos passam a ser acumulados em subsaldos por núcleo,
+     * sem bloquear a conta (indicado para contas que recebem muitos depósitos simultâneos)
+     */
+    public synchronized void ativarModoQuente() {
+        if (creditosPendentes == null) {
+            creditosPendentes = new LongAdder();
+        }
+        modoQuente = true;
+    }
+
+    /**
+     * Desliga o modo conta quente, consolidando os créditos pendentes no saldo
+     */
+    public synchronized void desativarModoQuente() {
+        modoQuente = false;
+        consolidarCreditos();
+    }
+
+    public boolean isModoQuente() {
+        return modoQuente;
+    }
+
+    /**
+     * Consolida os créditos pendentes antes de serializar (migração entre nós ou gravação em disco)
+     */
+    private synchronized void writeObject(ObjectOutputStream saida) throws IOException {
+        consolidarCreditos();
+        ObjectOutputStream.PutField campos = saida.putFields();
+        campos.put("numeroContaCompleto", numeroContaCompleto);
+        campos.put("numeroConta", numeroConta);
+        campos.put("nomeCliente", nomeCliente);
+        campos.put("saldoCentavos", saldo);
+        campos.put("limiteChequeEspecialCentavos", limiteChequeEspecial);
+        campos.put("agencia", agencia);
+        campos.put("jurosChequeEspecial", jurosChequeEspecial);
+        campos.put("usosChequeEspecial", usosChequeEspecial);
+        campos.put("residencia", residencia);
+        campos.put("janelaVelocidade", janelaVelocidade);
+        campos.put("modoQuente", modoQuente);
+        campos.put("reservadoCentavos", reservado);
+        saida.writeFields();
+    }
+
+    /**
+     * Lê a conta (valores em reais de formas anteriores são convertidos por Dinheiro.lerCentavos)
+     * e recria os subsaldos do modo conta quente
+     */
+    private void readObject(ObjectInputStream entrada) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField campos = entrada.readFields();
+        numeroContaCompleto = (String) campos.get("numeroContaCompleto", null);
+        numeroConta = campos.get("numeroConta", 0);
+        nomeCliente = (String) campos.get("nomeCliente", null);
+        saldo = Dinheiro.lerCentavos(campos, "saldoCentavos", "saldo");
+        limiteChequeEspecial = Dinheiro.lerCentavos(campos, "limiteChequeEspecialCentavos", "limiteChequeEspecial");
+        agencia = (String) campos.get("agencia", null);
+        jurosChequeEspecial = (Juros) campos.get("jurosChequeEspecial", null);
+        if (jurosChequeEspecial == null) {
+            jurosChequeEspecial = new Juros();
+        }
+        usosChequeEspecial = campos.get("usosChequeEspecial", 0);
+        residencia = (ResidenciaConta) campos.get("residencia", null);
+        if (residencia == null) {
+            residencia = new ResidenciaConta();
+        }
+        janelaVelocidade = (JanelaVelocidade) campos.get("janelaVelocidade", null);
+        if (janelaVelocidade == null) {
+            janelaVelocidade = new JanelaVelocidade();
+        }
+        modoQuente = campos.get("modoQuente", false);
+        reservado = campos.get("reservadoCentavos", 0L);
+        if (modoQuente) {
+            creditosPendentes = new LongAdder();
+        }
+    }
+
+    /**
+     * Retorna a política de crédito em uso pelas contas correntes
+     * @return Política de limite
+     */
+    public static PoliticaLimite getPoliticaLimite() {
+        return politicaLimite;
+    }
+
+    /**
+     * Define a política de crédito usada a partir dos próximos cálculos de limite
+     * (para recalcular imediatamente todas as contas, use ReavaliadorLimites)
+     * @param politica Nova política de limite
+     */
+    public static void setPoliticaLimite(PoliticaLimite politica) {
+        if (politica == null) {
+            throw new IllegalArgumentException("Política de limite não pode ser nula");
+        }
+        politicaLimite = politica;
+    }
+
     // Implementação dos métodos da interface Conta
     @Override
     public String getNumeroContaCompleto() {
@@ -228,12 +707,18 @@ public class ContaCorrente implements Conta {
     }
 
     @Override
-    public double getSaldo() {
+    public synchronized long getSaldo() {
+        consolidarCreditos();
         return this.saldo;
     }
 
     // Getters específicos
-    public double getLimiteChequeEspecial() {
+    public int getNumeroConta() {
+        return this.numeroConta;
+    }
+
+    public synchronized long getLimiteChequeEspecial() {
+        consolidarCreditos();
         return this.limiteChequeEspecial;
     }
 
@@ -241,47 +726,11 @@ public class ContaCorrente implements Conta {
         return this.agencia;
     }
 
-    /**
-     * Classe interna para cálculo de juros do cheque especial
-     */
-    private static class Juros {
-        private LocalDate dataInicioUtilizacao;
-        private double valorUtilizado;
-        private static final double TAXA_JUROS_DIARIA = 0.20; // 20% ao dia
-
-        public void registrarUtilizacao(double valor) {
-            if (this.valorUtilizado == 0) {
-                this.dataInicioUtilizacao = LocalDate.now();
-            }
-            this.valorUtilizado += valor;
-        }
-
-        public void reduzirUtilizacao(double valor) {
-            this.valorUtilizado = Math.max(0, this.valorUtilizado - valor);
-            if (this.valorUtilizado == 0) {
-                this.dataInicioUtilizacao = null;
-            }
-        }
-
-        public double calcularJuros() {
-            if (valorUtilizado == 0 || dataInicioUtilizacao == null) {
-                return 0;
-            }
-
-            long dias = ChronoUnit.DAYS.between(dataInicioUtilizacao, LocalDate.now());
-            return valorUtilizado * Math.pow(1 + TAXA_JUROS_DIARIA, dias) - valorUtilizado;
-        }
-
-        public double getValorUtilizado() {
-            return valorUtilizado;
-        }
-
-        public LocalDate getDataInicioUtilizacao() {
-            return dataInicioUtilizacao;
-        }
+    public synchronized int getUsosChequeEspecial() {
+        return this.usosChequeEspecial;
+    }
 
-        public double getTotalDevido() {
-            return valorUtilizado + calcularJuros();
-        }
+    ResidenciaConta getResidencia() {
+        return this.residencia;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,31 @@
+package service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Adaptador assíncrono para ContaCorrente.
+ * Além das operações da interface ContaAssincrona, expõe a consulta do limite de cheque especial.
+ *
+ * Métodos Públicos:
+ * - consultarLimiteChequeEspecialAsync(): CompletableFuture<Long> - Limite (centavos) após as operações enfileiradas
+ */
+public class ContaCorrenteAssincrona extends AdaptadorContaAssincrona<ContaCorrente> {
+
+    /**
+     * Construtor do adaptador
+     * @param conta Conta corrente a ser adaptada
+     * @param executor Executor que processará as operações
+     */
+    public ContaCorrenteAssincrona(ContaCorrente conta, Executor executor) {
+        super(conta, executor);
+    }
+
+    /**
+     * Consulta o limite de cheque especial de forma assíncrona
+     * @return Futuro com o limite, recalculado pelos depósitos enfileirados antes desta consulta
+     */
+    public CompletableFuture<Long> consultarLimiteChequeEspecialAsync() {
+        return enfileirar(ContaCorrente::getLimiteChequeEspecial);
+    }
+}
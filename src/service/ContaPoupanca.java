@@ -1,58 +1,113 @@
 package service;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
+import java.io.Serializable;
+import java.time.YearMonth;
+
 /**
  * Classe que implementa uma conta poupança bancária com operações básicas e rendimento mensal.
  * Implementa a interface Conta, fornecendo comportamento específico para contas poupança.
  *
  * Atributos:
- * - numeroContaCompleto: String - Número completo da conta com prefixo (final)
- * - numeroConta: int - Número da conta sem prefixo (final)
- * - nomeCliente: String - Nome do titular da conta (final)
- * - saldo: double - Saldo atual da conta
- * - agencia: String - Agência bancária (final)
- * - taxaRendimento: double - Taxa de rendimento mensal (0.5%, constante final)
+ * - numeroContaCompleto: String - Número completo da conta com prefixo
+ * - numeroConta: int - Número da conta sem prefixo
+ * - nomeCliente: String - Nome do titular da conta
+ * - saldo: long - Saldo atual da conta, em centavos
+ * - agencia: String - Agência bancária
+ * - TAXA_RENDIMENTO_NUMERADOR / TAXA_RENDIMENTO_DENOMINADOR: long - Taxa de rendimento mensal (5/1000 = 0.5%, estáticas)
+ * - mesUltimoRendimentoLote: YearMonth - Mês do último rendimento aplicado pelo processamento em lote
+ * - residencia: ResidenciaConta - Estado da conta no armazenamento em camadas
+ * - janelaVelocidade: JanelaVelocidade - Histórico de saques para as regras de velocidade
+ * - reservado: long - Valor reservado por pagamentos aguardando a compensação, em centavos
  *
  * Métodos Públicos:
  * - aplicarRendimento(): void - Aplica o rendimento mensal na conta
  * - consultarSaldo(): void - Exibe o saldo atual (implementação da interface)
- * - realizarDeposito(double valor): void - Realiza depósito (implementação da interface)
- * - realizarSaque(double valor): void - Realiza saque (implementação da interface)
- * - realizarPagamento(double valor): void - Realiza pagamento (implementação da interface)
+ * - realizarDeposito(long valor): boolean - Realiza depósito (implementação da interface)
+ * - realizarSaque(long valor): boolean - Realiza saque, após as regras de velocidade (implementação da interface)
+ * - realizarPagamento(long valor): boolean - Realiza pagamento (implementação da interface)
  * - getters: Implementações dos métodos da interface Conta + getters específicos
  *
+ * Métodos de Pacote:
+ * - aplicarRendimentoDoMes(YearMonth mes): boolean - Aplica o rendimento uma única vez por mês, sem mensagens
+ * - getResidencia(): ResidenciaConta - Estado da conta no armazenamento em camadas
+ * - reservar(long valor): boolean - Reserva sem mensagens o valor de um pagamento da CamaraCompensacao
+ * - liquidarCompensacao(long reserva, long liquido): void - Libera as reservas e aplica o valor líquido de um lote
+ *
  * Princípios SOLID aplicados:
  * - L (Liskov Substitution): Pode substituir qualquer instância de Conta
  * - S (Single Responsibility): Gerencia apenas operações de conta poupança
+ *
+ * Concorrência:
+ * - Operações sobre o saldo são sincronizadas na própria conta
+ * - A conta é serializável para poder ser migrada entre nós (ver NoBanco) e gravada em disco
+ *   quando inativa (ver ArmazenamentoEmCamadas); cada operação marca o acesso à conta
+ * - Depósitos, saques e rendimentos são publicados no PublicadorEventos ativo, sem bloquear a operação
+ * - Depósitos, saques e rendimentos podem ser medidos pelo PerfiladorContencao ativo
+ *   (espera e retenção do monitor da conta)
+ * - Saldo e reservas são serializados em centavos (saldoCentavos, reservadoCentavos; ver Dinheiro,
+ *   Serialização)
  */
-public class ContaPoupanca implements Conta {
+public class ContaPoupanca implements Conta, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    // Campos serializados
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("numeroContaCompleto", String.class),
+            new ObjectStreamField("numeroConta", int.class),
+            new ObjectStreamField("nomeCliente", String.class),
+            new ObjectStreamField("saldoCentavos", long.class),
+            new ObjectStreamField("agencia", String.class),
+            new ObjectStreamField("mesUltimoRendimentoLote", YearMonth.class),
+            new ObjectStreamField("residencia", ResidenciaConta.class),
+            new ObjectStreamField("janelaVelocidade", JanelaVelocidade.class),
+            new ObjectStreamField("reservadoCentavos", long.class)
+    };
+
     // Número completo da conta (ex: "cp12345")
-    private final String numeroContaCompleto;
+    private String numeroContaCompleto;
 
     // Número da conta sem prefixo
-    private final int numeroConta;
+    private int numeroConta;
 
     // Nome do titular da conta
-    private final String nomeCliente;
+    private String nomeCliente;
 
-    // Saldo atual da conta
-    private double saldo;
+    // Saldo atual da conta, em centavos
+    private long saldo;
 
     // Agência bancária
-    private final String agencia;
+    private String agencia;
+
+    // Taxa de rendimento mensal fixa (0.5%), aplicada com arredondamento bancário
+    private static final long TAXA_RENDIMENTO_NUMERADOR = 5;
+    private static final long TAXA_RENDIMENTO_DENOMINADOR = 1000;
 
-    // Taxa de rendimento mensal fixa (0.5%)
-    private final double taxaRendimento = 0.005;
+    // Mês do último rendimento aplicado pelo processamento em lote
+    private YearMonth mesUltimoRendimentoLote;
+
+    // Estado da conta no armazenamento em camadas (memória ou disco)
+    private ResidenciaConta residencia = new ResidenciaConta();
+
+    // Histórico de saques avaliado pelas regras de velocidade (MonitorVelocidade)
+    private JanelaVelocidade janelaVelocidade = new JanelaVelocidade();
+
+    // Valor reservado por pagamentos aguardando a compensação (CamaraCompensacao), em centavos
+    private long reservado;
 
     /**
      * Construtor da conta poupança
      * @param numeroCompleto Número completo com prefixo (ex: "cp123")
      * @param numeroConta Número da conta sem prefixo
      * @param nomeCliente Nome do titular
-     * @param saldoInicial Valor inicial da conta
+     * @param saldoInicial Valor inicial da conta, em centavos
      * @param agencia Agência bancária
      */
     public ContaPoupanca(String numeroCompleto, int numeroConta, String nomeCliente,
-                         double saldoInicial, String agencia) {
+                         long saldoInicial, String agencia) {
         this.numeroContaCompleto = numeroCompleto;
         this.numeroConta = numeroConta;
         this.nomeCliente = nomeCliente;
@@ -62,65 +117,239 @@ public class ContaPoupanca implements Conta {
 
     /**
      * Aplica o rendimento mensal na conta poupança
-     * Calcula 0.5% sobre o saldo atual e credita na conta
+     * Calcula 0.5% sobre o saldo atual, arredondado para o centavo (empates para o par), e credita na conta
      */
     public void aplicarRendimento() {
-        double rendimento = this.saldo * taxaRendimento;
-        this.saldo += rendimento;
-        System.out.printf("Rendimento aplicado: R$ %.2f | Novo saldo: R$ %.2f%n",
-                rendimento, this.saldo);
+        PerfiladorContencao perfilador = PerfiladorContencao.amostrar();
+        if (perfilador == null) {
+            aplicarRendimentoComBloqueio();
+            return;
+        }
+        perfilador.medirAcao(this, numeroContaCompleto, OperacaoPerfilada.RENDIMENTO, this::aplicarRendimentoComBloqueio);
+    }
+
+    /**
+     * Rendimento sob o monitor da conta
+     */
+    private synchronized void aplicarRendimentoComBloqueio() {
+        residencia.registrarAcesso(this);
+        long rendimento = calcularRendimento();
+        this.saldo = Dinheiro.somar(this.saldo, rendimento);
+        System.out.printf("Rendimento aplicado: R$ %s | Novo saldo: R$ %s%n",
+                Dinheiro.formatar(rendimento), Dinheiro.formatar(this.saldo));
+        registrarMovimento(TipoEventoSaldo.RENDIMENTO, rendimento);
+        publicarEvento(TipoEventoSaldo.RENDIMENTO, rendimento, this.saldo);
+    }
+
+    /**
+     * Aplica o rendimento do mês informado, caso ainda não tenha sido aplicado pelo processamento
+     * em lote, sem exibir mensagens. Garante que reprocessar um bloco não credite o rendimento duas vezes
+     * @param mes Mês de referência do rendimento
+     * @return true se o rendimento foi aplicado
+     */
+    boolean aplicarRendimentoDoMes(YearMonth mes) {
+        PerfiladorContencao perfilador = PerfiladorContencao.amostrar();
+        if (perfilador == null) {
+            return aplicarRendimentoDoMesComBloqueio(mes);
+        }
+        return perfilador.medir(this, numeroContaCompleto, OperacaoPerfilada.RENDIMENTO, () -> aplicarRendimentoDoMesComBloqueio(mes));
+    }
+
+    /**
+     * Rendimento do mês sob o monitor da conta
+     */
+    private synchronized boolean aplicarRendimentoDoMesComBloqueio(YearMonth mes) {
+        residencia.garantirResidencia(this);
+        if (mes.equals(this.mesUltimoRendimentoLote)) {
+            return false;
+        }
+        long rendimento = calcularRendimento();
+        this.saldo = Dinheiro.somar(this.saldo, rendimento);
+        this.mesUltimoRendimentoLote = mes;
+        registrarMovimento(TipoEventoSaldo.RENDIMENTO, rendimento);
+        publicarEvento(TipoEventoSaldo.RENDIMENTO, rendimento, this.saldo);
+        return true;
+    }
+
+    /**
+     * Reserva, sem exibir mensagens, o valor de um pagamento enviado a uma CamaraCompensacao.
+     * Aplica as mesmas regras do saque (velocidade e saldo), considerando as reservas já feitas;
+     * o valor só sai da conta na liquidação do lote
+     * @param valor Valor do pagamento, em centavos
+     * @return true se o valor foi reservado
+     */
+    synchronized boolean reservar(long valor) {
+        residencia.registrarAcesso(this);
+        if (valor <= 0) {
+            return false;
+        }
+        MonitorVelocidade velocidade = MonitorVelocidade.getAtivo();
+        long agora = 0;
+        if (velocidade != null) {
+            agora = System.currentTimeMillis();
+            if (velocidade.verificar(janelaVelocidade, valor, agora) >= 0) {
+                return false;
+            }
+        }
+        if (valor > this.saldo - this.reservado) {
+            return false;
+        }
+        this.reservado += valor;
+        if (velocidade != null) {
+            velocidade.registrar(janelaVelocidade, valor, agora);
+        }
+        return true;
+    }
+
+    /**
+     * Liquida, sem exibir mensagens, a posição da conta num lote da câmara de compensação: libera
+     * as reservas do lote e aplica o valor líquido numa única operação (o débito é coberto pelas
+     * reservas)
+     * @param reserva Total reservado pela conta nos pagamentos do lote, em centavos
+     * @param liquido Recebido menos pago no lote, em centavos (negativo = débito)
+     */
+    synchronized void liquidarCompensacao(long reserva, long liquido) {
+        residencia.garantirResidencia(this);
+        this.reservado = Math.max(0, this.reservado - reserva);
+        if (liquido == 0) {
+            return;
+        }
+        this.saldo = Dinheiro.somar(this.saldo, liquido);
+        TipoEventoSaldo tipo = liquido > 0 ? TipoEventoSaldo.DEPOSITO : TipoEventoSaldo.SAQUE;
+        registrarMovimento(tipo, Math.abs(liquido));
+        publicarEvento(tipo, Math.abs(liquido), this.saldo);
+    }
+
+    /**
+     * Rendimento mensal sobre o saldo atual (chamado sob o monitor da conta)
+     * @return 0.5% do saldo, em centavos, com arredondamento bancário
+     */
+    private long calcularRendimento() {
+        return Dinheiro.aplicarTaxa(this.saldo, TAXA_RENDIMENTO_NUMERADOR, TAXA_RENDIMENTO_DENOMINADOR);
+    }
+
+    /**
+     * Publica um evento de alteração de saldo no feed, se houver um publicador ativo
+     */
+    private void publicarEvento(TipoEventoSaldo tipo, long valor, long saldoApos) {
+        PublicadorEventos publicador = PublicadorEventos.getAtivo();
+        if (publicador != null) {
+            publicador.publicar(tipo, numeroContaCompleto, valor, saldoApos);
+        }
+    }
+
+    /**
+     * Informa um movimento já aplicado à conta ao reconciliador ativo do banco da conta, se houver,
+     * que o aplica ao estado esperado (chamado sob o monitor da conta)
+     */
+    private void registrarMovimento(TipoEventoSaldo tipo, long valor) {
+        ReconciliadorMerkle reconciliador = residencia.getReconciliador();
+        if (reconciliador != null) {
+            reconciliador.registrar(numeroContaCompleto, tipo, valor);
+        }
     }
 
     /**
      * Exibe o saldo atual formatado
      */
     @Override
-    public void consultarSaldo() {
-        System.out.printf("Saldo atual: R$ %.2f%n", this.saldo);
+    public synchronized void consultarSaldo() {
+        residencia.registrarAcesso(this);
+        System.out.printf("Saldo atual: R$ %s%n", Dinheiro.formatar(this.saldo));
     }
 
     /**
      * Realiza depósito na conta
-     * @param valor Valor a ser depositado (deve ser positivo)
+     * @param valor Valor a ser depositado, em centavos (deve ser positivo)
+     * @return true se o depósito foi efetuado, false se o valor for inválido
      */
     @Override
-    public void realizarDeposito(double valor) {
+    public boolean realizarDeposito(long valor) {
+        PerfiladorContencao perfilador = PerfiladorContencao.amostrar();
+        if (perfilador == null) {
+            return depositarComBloqueio(valor);
+        }
+        return perfilador.medir(this, numeroContaCompleto, OperacaoPerfilada.DEPOSITO, () -> depositarComBloqueio(valor));
+    }
+
+    /**
+     * Depósito sob o monitor da conta
+     */
+    private synchronized boolean depositarComBloqueio(long valor) {
+        residencia.registrarAcesso(this);
         if (valor <= 0) {
             System.out.println("Valor de depósito inválido!");
-            return;
+            return false;
         }
-        this.saldo += valor;
-        System.out.printf("Depósito de R$ %.2f realizado! Novo saldo: R$ %.2f%n",
-                valor, this.saldo);
+        this.saldo = Dinheiro.somar(this.saldo, valor);
+        System.out.printf("Depósito de R$ %s realizado! Novo saldo: R$ %s%n",
+                Dinheiro.formatar(valor), Dinheiro.formatar(this.saldo));
+        registrarMovimento(TipoEventoSaldo.DEPOSITO, valor);
+        publicarEvento(TipoEventoSaldo.DEPOSITO, valor, this.saldo);
+        return true;
     }
 
     /**
-     * Realiza saque na conta
-     * @param valor Valor a ser sacado (deve ser positivo e menor que saldo)
+     * Realiza saque na conta. Se houver um MonitorVelocidade ativo, o saque é antes verificado
+     * pelas regras de velocidade
+     * @param valor Valor a ser sacado, em centavos (deve ser positivo e menor que saldo)
+     * @return true se o saque foi efetuado, false se o valor for inválido, violar uma regra de
+     *         velocidade ou o saldo for insuficiente
      */
     @Override
-    public void realizarSaque(double valor) {
+    public boolean realizarSaque(long valor) {
+        PerfiladorContencao perfilador = PerfiladorContencao.amostrar();
+        if (perfilador == null) {
+            return sacarComBloqueio(valor);
+        }
+        return perfilador.medir(this, numeroContaCompleto, OperacaoPerfilada.SAQUE, () -> sacarComBloqueio(valor));
+    }
+
+    /**
+     * Saque sob o monitor da conta
+     */
+    private synchronized boolean sacarComBloqueio(long valor) {
+        residencia.registrarAcesso(this);
         if (valor <= 0) {
             System.out.println("Valor de saque inválido!");
-            return;
+            return false;
+        }
+
+        MonitorVelocidade velocidade = MonitorVelocidade.getAtivo();
+        long agora = 0;
+        if (velocidade != null) {
+            agora = System.currentTimeMillis();
+            int regra = velocidade.verificar(janelaVelocidade, valor, agora);
+            if (regra >= 0) {
+                System.out.println("Saque bloqueado pela regra de velocidade: " + velocidade.getRegra(regra));
+                return false;
+            }
         }
 
-        if (valor <= this.saldo) {
+        if (valor <= this.saldo - this.reservado) {
             this.saldo -= valor;
-            System.out.printf("Saque de R$ %.2f realizado! Novo saldo: R$ %.2f%n",
-                    valor, this.saldo);
+            if (velocidade != null) {
+                velocidade.registrar(janelaVelocidade, valor, agora);
+            }
+            System.out.printf("Saque de R$ %s realizado! Novo saldo: R$ %s%n",
+                    Dinheiro.formatar(valor), Dinheiro.formatar(this.saldo));
+            registrarMovimento(TipoEventoSaldo.SAQUE, valor);
+            publicarEvento(TipoEventoSaldo.SAQUE, valor, this.saldo);
+            return true;
         } else {
             System.out.println("Saldo insuficiente para saque!");
+            return false;
         }
     }
 
     /**
      * Realiza pagamento (utiliza mesma lógica de saque)
-     * @param valor Valor do pagamento
+     * @param valor Valor do pagamento, em centavos
+     * @return true se o pagamento foi efetuado, false caso contrário
      */
     @Override
-    public void realizarPagamento(double valor) {
-        realizarSaque(valor); // Delega para o método de saque
+    public boolean realizarPagamento(long valor) {
+        return realizarSaque(valor); // Delega para o método de saque
     }
 
     // Métodos de acesso implementados da interface Conta
@@ -141,7 +370,7 @@ public class ContaPoupanca implements Conta {
     }
 
     @Override
-    public double getSaldo() {
+    public synchronized long getSaldo() {
         return this.saldo;
     }
 
@@ -155,7 +384,53 @@ public class ContaPoupanca implements Conta {
         return this.agencia;
     }
 
+    /**
+     * Taxa de rendimento mensal como fração (0.005), apenas para exibição
+     */
     public double getTaxaRendimento() {
-        return this.taxaRendimento;
+        return (double) TAXA_RENDIMENTO_NUMERADOR / TAXA_RENDIMENTO_DENOMINADOR;
+    }
+
+    ResidenciaConta getResidencia() {
+        return this.residencia;
+    }
+
+    /**
+     * Grava a conta com o saldo em centavos e, para leitores da versão 1, em reais
+     */
+    private synchronized void writeObject(ObjectOutputStream saida) throws IOException {
+        ObjectOutputStream.PutField campos = saida.putFields();
+        campos.put("numeroContaCompleto", numeroContaCompleto);
+        campos.put("numeroConta", numeroConta);
+        campos.put("nomeCliente", nomeCliente);
+        campos.put("saldoCentavos", saldo);
+        campos.put("agencia", agencia);
+        campos.put("mesUltimoRendimentoLote", mesUltimoRendimentoLote);
+        campos.put("residencia", residencia);
+        campos.put("janelaVelocidade", janelaVelocidade);
+        campos.put("reservadoCentavos", reservado);
+        saida.writeFields();
+    }
+
+    /**
+     * Lê a conta (saldo em reais de formas anteriores é convertido por Dinheiro.lerCentavos)
+     */
+    private void readObject(ObjectInputStream entrada) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField campos = entrada.readFields();
+        numeroContaCompleto = (String) campos.get("numeroContaCompleto", null);
+        numeroConta = campos.get("numeroConta", 0);
+        nomeCliente = (String) campos.get("nomeCliente", null);
+        saldo = Dinheiro.lerCentavos(campos, "saldoCentavos", "saldo");
+        agencia = (String) campos.get("agencia", null);
+        mesUltimoRendimentoLote = (YearMonth) campos.get("mesUltimoRendimentoLote", null);
+        residencia = (ResidenciaConta) campos.get("residencia", null);
+        if (residencia == null) {
+            residencia = new ResidenciaConta();
+        }
+        janelaVelocidade = (JanelaVelocidade) campos.get("janelaVelocidade", null);
+        if (janelaVelocidade == null) {
+            janelaVelocidade = new JanelaVelocidade();
+        }
+        reservado = campos.get("reservadoCentavos", 0L);
     }
-}
\ No newline at end of file
+}
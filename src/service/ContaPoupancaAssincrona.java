@@ -0,0 +1,34 @@
+package service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Adaptador assíncrono para ContaPoupanca.
+ * Além das operações da interface ContaAssincrona, expõe a aplicação do rendimento mensal.
+ *
+ * Métodos Públicos:
+ * - aplicarRendimentoAsync(): CompletableFuture<Long> - Aplica o rendimento e retorna o novo saldo (centavos)
+ */
+public class ContaPoupancaAssincrona extends AdaptadorContaAssincrona<ContaPoupanca> {
+
+    /**
+     * Construtor do adaptador
+     * @param conta Conta poupança a ser adaptada
+     * @param executor Executor que processará as operações
+     */
+    public ContaPoupancaAssincrona(ContaPoupanca conta, Executor executor) {
+        super(conta, executor);
+    }
+
+    /**
+     * Aplica o rendimento mensal de forma assíncrona
+     * @return Futuro com o saldo após o rendimento
+     */
+    public CompletableFuture<Long> aplicarRendimentoAsync() {
+        return enfileirar(c -> {
+            c.aplicarRendimento();
+            return c.getSaldo();
+        });
+    }
+}
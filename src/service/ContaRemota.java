@@ -0,0 +1,105 @@
+package service;
+
+/**
+ * Proxy de uma conta hospedada em um nó do banco (modo multi-nó).
+ * Implementa a interface Conta encaminhando cada operação ao nó dono através do ClienteRoteador.
+ *
+ * Atributos:
+ * - cliente: ClienteRoteador - Cliente responsável pelo roteamento (final)
+ * - numeroContaCompleto: String - Número completo da conta (final)
+ * - tipoConta: String - Tipo da conta ("cc" ou "cp") (final)
+ * - nomeCliente: String - Nome do titular (final)
+ *
+ * Métodos Públicos:
+ * - Implementação dos métodos da interface Conta, executados remotamente
+ *
+ * Observação:
+ * - As mensagens detalhadas das operações são exibidas no console do nó; o proxy exibe apenas
+ *   o resultado devolvido pelo nó
+ */
+public class ContaRemota implements Conta {
+    // Cliente responsável pelo roteamento
+    private final ClienteRoteador cliente;
+
+    // Número completo da conta
+    private final String numeroContaCompleto;
+
+    // Tipo da conta
+    private final String tipoConta;
+
+    // Nome do titular
+    private final String nomeCliente;
+
+    /**
+     * Construtor do proxy
+     * @param cliente Cliente roteador
+     * @param numeroContaCompleto Número completo da conta
+     * @param tipoConta Tipo da conta
+     * @param nomeCliente Nome do titular
+     */
+    public ContaRemota(ClienteRoteador cliente, String numeroContaCompleto,
+                       String tipoConta, String nomeCliente) {
+        this.cliente = cliente;
+        this.numeroContaCompleto = numeroContaCompleto;
+        this.tipoConta = tipoConta;
+        this.nomeCliente = nomeCliente;
+    }
+
+    @Override
+    public String getNumeroContaCompleto() {
+        return numeroContaCompleto;
+    }
+
+    @Override
+    public String getTipoConta() {
+        return tipoConta;
+    }
+
+    @Override
+    public String getNomeCliente() {
+        return nomeCliente;
+    }
+
+    /**
+     * Consulta o saldo no nó dono
+     * @return Saldo atual (0 se o nó não responder)
+     */
+    @Override
+    public long getSaldo() {
+        return executar(RequisicaoNo.Operacao.SALDO, 0).getSaldo();
+    }
+
+    @Override
+    public void consultarSaldo() {
+        RespostaNo resposta = executar(RequisicaoNo.Operacao.SALDO, 0);
+        if (resposta.getStatus() == RespostaNo.Status.OK) {
+            System.out.printf("Saldo atual: R$ %s%n", Dinheiro.formatar(resposta.getSaldo()));
+        }
+    }
+
+    @Override
+    public boolean realizarDeposito(long valor) {
+        return executar(RequisicaoNo.Operacao.DEPOSITO, valor).getStatus() == RespostaNo.Status.OK;
+    }
+
+    @Override
+    public boolean realizarSaque(long valor) {
+        return executar(RequisicaoNo.Operacao.SAQUE, valor).getStatus() == RespostaNo.Status.OK;
+    }
+
+    @Override
+    public boolean realizarPagamento(long valor) {
+        return executar(RequisicaoNo.Operacao.PAGAMENTO, valor).getStatus() == RespostaNo.Status.OK;
+    }
+
+    /**
+     * Envia a operação ao nó dono e exibe mensagens de falha
+     */
+    private RespostaNo executar(RequisicaoNo.Operacao operacao, long valor) {
+        RespostaNo resposta = cliente.enviar(RequisicaoNo.paraConta(operacao, numeroContaCompleto, valor));
+        if (resposta.getStatus() != RespostaNo.Status.OK) {
+            System.out.println(resposta.getMensagem());
+        }
+        return resposta;
+    }
+}
@@ -0,0 +1,102 @@
+package service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Controle de admissão de operações por conta e global, baseado em baldes de tokens.
+ * Operações acima do limite são rejeitadas imediatamente com um status próprio (nunca enfileiradas),
+ * mantendo a latência limitada sob sobrecarga e impedindo que um cliente abusivo em uma única
+ * conta prejudique as demais.
+ *
+ * Atributos:
+ * - capacidadeConta: int - Rajada permitida por conta (final)
+ * - ritmoConta: double - Operações por segundo permitidas por conta (final)
+ * - baldeGlobal: BaldeTokens - Balde compartilhado por todas as contas (final)
+ * - baldesPorConta: Map<String, BaldeTokens> - Baldes das contas com uso recente (final)
+ *
+ * Métodos Públicos:
+ * - admitir(String numeroContaCompleto): StatusAdmissao - Verifica e consome os limites da conta e global
+ * - removerBaldesOciosos(): int - Descarta baldes cheios, liberando a memória de contas ociosas
+ * - getQuantidadeBaldes(): int - Quantidade de contas com balde ativo
+ *
+ * Observação:
+ * - Baldes de conta são criados apenas no primeiro uso; um balde cheio é idêntico a um novo,
+ *   por isso removerBaldesOciosos pode descartá-lo sem alterar o comportamento (no máximo um
+ *   token a mais pode ser concedido a uma conta que esteja sendo usada no instante da remoção)
+ */
+public class ControleAdmissao {
+    // Rajada permitida por conta
+    private final int capacidadeConta;
+
+    // Operações por segundo permitidas por conta
+    private final double ritmoConta;
+
+    // Balde compartilhado por todas as contas
+    private final BaldeTokens baldeGlobal;
+
+    // Baldes das contas com uso recente
+    private final Map<String, BaldeTokens> baldesPorConta;
+
+    /**
+     * Construtor do controle de admissão
+     * @param capacidadeConta Rajada permitida por conta
+     * @param ritmoConta Operações por segundo por conta
+     * @param capacidadeGlobal Rajada permitida para o banco
+     * @param ritmoGlobal Operações por segundo para o banco
+     */
+    public ControleAdmissao(int capacidadeConta, double ritmoConta,
+                            int capacidadeGlobal, double ritmoGlobal) {
+        // Valida os parâmetros da conta antecipadamente, e não no primeiro uso
+        new BaldeTokens(capacidadeConta, ritmoConta);
+        this.capacidadeConta = capacidadeConta;
+        this.ritmoConta = ritmoConta;
+        this.baldeGlobal = new BaldeTokens(capacidadeGlobal, ritmoGlobal);
+        this.baldesPorConta = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Verifica se a operação sobre a conta pode ser executada, consumindo um token da conta
+     * e um token global
+     * @param numeroContaCompleto Número completo da conta
+     * @return Status da admissão
+     */
+    public StatusAdmissao admitir(String numeroContaCompleto) {
+        long agora = System.nanoTime();
+        BaldeTokens balde = baldesPorConta.get(numeroContaCompleto);
+        if (balde == null) {
+            balde = baldesPorConta.computeIfAbsent(numeroContaCompleto,
+                    chave -> new BaldeTokens(capacidadeConta, ritmoConta));
+        }
+
+        if (!balde.tentarConsumir(agora)) {
+            return StatusAdmissao.REJEITADA_CONTA;
+        }
+        if (!baldeGlobal.tentarConsumir(agora)) {
+            // A operação não será executada: o token da conta não deve ser perdido
+            balde.devolver();
+            return StatusAdmissao.REJEITADA_GLOBAL;
+        }
+        return StatusAdmissao.ADMITIDA;
+    }
+
+    /**
+     * Descarta os baldes de contas que estão cheios (sem uso recente)
+     * @return Quantidade de baldes removidos
+     */
+    public int removerBaldesOciosos() {
+        long agora = System.nanoTime();
+        int removidos = 0;
+        for (Map.Entry<String, BaldeTokens> entrada : baldesPorConta.entrySet()) {
+            if (entrada.getValue().estaCheio(agora) &&
+                    baldesPorConta.remove(entrada.getKey(), entrada.getValue())) {
+                removidos++;
+            }
+        }
+        return removidos;
+    }
+
+    public int getQuantidadeBaldes() {
+        return baldesPorConta.size();
+    }
+}
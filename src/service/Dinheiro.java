@@ -0,0 +1,333 @@
+package service;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+
+/**
+ * Aritmética monetária em ponto fixo. Todos os valores do banco são long em centavos
+ * (R$ 12,34 = 1234), o que elimina os erros de representação de double e torna os saldos
+ * comparáveis com ==. Os métodos são estáticos, não alocam objetos e lançam ArithmeticException
+ * em caso de estouro, em vez de produzir valores silenciosamente incorretos.
+ *
+ * Atributos:
+ * - CENTAVOS_POR_REAL: long - Escala do ponto fixo (2 casas decimais)
+ *
+ * Métodos Públicos:
+ * - somar(long a, long b): long - Soma com verificação de estouro
+ * - subtrair(long a, long b): long - Subtração com verificação de estouro
+ * - multiplicar(long centavos, long fator): long - Multiplicação por inteiro com verificação de estouro
+ * - aplicarTaxa(long centavos, long numerador, long denominador): long - centavos * numerador / denominador
+ *   com arredondamento bancário (meio para o par), com produto intermediário de 128 bits
+ * - deReais(double reais): long - Converte reais em centavos (somente nas fronteiras do sistema)
+ * - deTexto(String texto): long - Converte texto ("1234.56" ou "1234,56") em centavos sem passar por double
+ * - paraReais(long centavos): double - Converte centavos em reais (somente para exibição/estatísticas)
+ * - formatar(long centavos): String - Formata centavos como "1234.56"
+ *
+ * Métodos de Pacote:
+ * - lerCentavos(GetField campos, String campo, String campoReais): long - Lê um valor de uma forma serializada
+ * - lerVetorCentavos(GetField campos, String campo, String campoReais): long[] - Idem, para vetores de valores
+ *
+ * Arredondamento:
+ * - Frações de centavo são arredondadas para o centavo mais próximo e, no empate exato (meio centavo),
+ *   para o centavo par. É o arredondamento usado no rendimento de 0,5% e nos juros de 20% ao dia,
+ *   e não acumula viés quando aplicado repetidamente
+ *
+ * Serialização:
+ * - As classes serializáveis que gravavam valores em reais (ContaCorrente, ContaPoupanca, Juros,
+ *   JanelaVelocidade) mantêm o serialVersionUID 1, para que contas já gravadas em disco ou em
+ *   trânsito entre nós continuem legíveis. Os valores passam a ser gravados apenas em centavos, em
+ *   campos de nome próprio (o nome antigo tinha tipo double); lerCentavos converte uma única vez,
+ *   na leitura, os valores em reais de uma forma da versão anterior
+ */
+public final class Dinheiro {
+    // Escala do ponto fixo: centavos por real
+    public static final long CENTAVOS_POR_REAL = 100;
+
+    // Maior valor em reais convertível sem estouro (com folga para o arredondamento)
+    private static final double LIMITE_REAIS = Long.MAX_VALUE / (double) CENTAVOS_POR_REAL;
+
+    private Dinheiro() {
+    }
+
+    /**
+     * Soma dois valores em centavos
+     * @throws ArithmeticException se o resultado não couber em long
+     */
+    public static long somar(long a, long b) {
+        try {
+            return Math.addExact(a, b);
+        } catch (ArithmeticException e) {
+            throw estouro();
+        }
+    }
+
+    /**
+     * Subtrai dois valores em centavos
+     * @throws ArithmeticException se o resultado não couber em long
+     */
+    public static long subtrair(long a, long b) {
+        try {
+            return Math.subtractExact(a, b);
+        } catch (ArithmeticException e) {
+            throw estouro();
+        }
+    }
+
+    /**
+     * Multiplica um valor em centavos por um inteiro
+     * @throws ArithmeticException se o resultado não couber em long
+     */
+    public static long multiplicar(long centavos, long fator) {
+        try {
+            return Math.multiplyExact(centavos, fator);
+        } catch (ArithmeticException e) {
+            throw estouro();
+        }
+    }
+
+    /**
+     * Calcula centavos * numerador / denominador com arredondamento bancário.
+     * Ex: aplicarTaxa(saldo, 5, 1000) é 0,5% do saldo
+     * @param centavos Valor base em centavos
+     * @param numerador Numerador da taxa
+     * @param denominador Denominador da taxa (positivo)
+     * @return Resultado arredondado para o centavo mais próximo (empates para o par)
+     * @throws ArithmeticException se o resultado não couber em long
+     */
+    public static long aplicarTaxa(long centavos, long numerador, long denominador) {
+        if (denominador <= 0) {
+            throw new IllegalArgumentException("Denominador da taxa deve ser positivo");
+        }
+        long produto = centavos * numerador;
+        if (Math.multiplyHigh(centavos, numerador) != (produto >> 63)) {
+            // Produto além de 64 bits: divide o produto de 128 bits pelo denominador
+            return aplicarTaxaLarga(centavos, numerador, denominador);
+        }
+        long quociente = Math.floorDiv(produto, denominador);
+        long resto = Math.floorMod(produto, denominador);
+        // resto está em [0, denominador); compara 2*resto com denominador sem estourar
+        long metade = denominador - resto;
+        if (resto > metade || (resto == metade && (quociente & 1) != 0)) {
+            quociente++;
+        }
+        return quociente;
+    }
+
+    /**
+     * aplicarTaxa para produtos que não cabem em long: o módulo do produto é calculado em 128 bits
+     * sem sinal, dividido pelo denominador e arredondado (o arredondamento para o par é simétrico,
+     * então o sinal é aplicado ao final)
+     */
+    private static long aplicarTaxaLarga(long centavos, long numerador, long denominador) {
+        boolean negativo = (centavos < 0) != (numerador < 0);
+        // Módulos como long sem sinal (Long.MIN_VALUE vira 2^63)
+        long a = centavos < 0 ? -centavos : centavos;
+        long b = numerador < 0 ? -numerador : numerador;
+        long baixo = a * b;
+        long alto = Math.multiplyHigh(a, b) + ((a >> 63) & b) + ((b >> 63) & a);
+        if (Long.compareUnsigned(alto, denominador) >= 0) {
+            throw estouro();
+        }
+        long quociente = dividir128(alto, baixo, denominador);
+        long resto = baixo - quociente * denominador;
+        long metade = denominador - resto;
+        boolean arredondar = resto > metade || (resto == metade && (quociente & 1) != 0);
+        // Quociente sem sinal de 2^63 ou mais não cabe em long
+        if (quociente < 0 || (arredondar && quociente == Long.MAX_VALUE)) {
+            throw estouro();
+        }
+        if (arredondar) {
+            quociente++;
+        }
+        return negativo ? -quociente : quociente;
+    }
+
+    /**
+     * Divide o número sem sinal de 128 bits alto:baixo por um divisor de 64 bits
+     * (divisão longa em dígitos de 32 bits, Hacker's Delight, divlu)
+     * @param alto 64 bits mais significativos do dividendo (menor que o divisor, sem sinal)
+     * @param baixo 64 bits menos significativos do dividendo
+     * @param divisor Divisor (positivo)
+     * @return Quociente sem sinal
+     */
+    private static long dividir128(long alto, long baixo, long divisor) {
+        final long base = 1L << 32;
+        int deslocamento = Long.numberOfLeadingZeros(divisor);
+        long v = divisor << deslocamento;
+        long v1 = v >>> 32;
+        long v0 = v & 0xFFFFFFFFL;
+        long u32 = (alto << deslocamento) | (deslocamento == 0 ? 0 : baixo >>> (64 - deslocamento));
+        long u10 = baixo << deslocamento;
+        long u1 = u10 >>> 32;
+        long u0 = u10 & 0xFFFFFFFFL;
+
+        long q1 = Long.divideUnsigned(u32, v1);
+        long resto = Long.remainderUnsigned(u32, v1);
+        while (Long.compareUnsigned(q1, base) >= 0 || Long.compareUnsigned(q1 * v0, (resto << 32) | u1) > 0) {
+            q1--;
+            resto += v1;
+            if (Long.compareUnsigned(resto, base) >= 0) {
+                break;
+            }
+        }
+
+        long u21 = (u32 << 32) + u1 - q1 * v;
+        long q0 = Long.divideUnsigned(u21, v1);
+        resto = Long.remainderUnsigned(u21, v1);
+        while (Long.compareUnsigned(q0, base) >= 0 || Long.compareUnsigned(q0 * v0, (resto << 32) | u0) > 0) {
+            q0--;
+            resto += v1;
+            if (Long.compareUnsigned(resto, base) >= 0) {
+                break;
+            }
+        }
+        return (q1 << 32) + q0;
+    }
+
+    /**
+     * Converte um valor em reais para centavos. Usado apenas nas fronteiras do sistema
+     * (formatos legados, estatísticas); a aritmética interna nunca passa por double
+     * @throws ArithmeticException se o valor não for finito ou não couber em long
+     */
+    public static long deReais(double reais) {
+        if (Double.isNaN(reais) || Math.abs(reais) >= LIMITE_REAIS) {
+            throw estouro();
+        }
+        return (long) Math.rint(reais * CENTAVOS_POR_REAL);
+    }
+
+    /**
+     * Converte texto decimal em centavos sem passar por double. Aceita sinal opcional e
+     * '.' ou ',' como separador decimal ("10", "10.5", "-3,75"). Casas além dos centavos
+     * são arredondadas com arredondamento bancário
+     * @param texto Valor em reais
+     * @return Valor em centavos
+     * @throws NumberFormatException se o texto não for um valor válido ou não couber em long
+     */
+    public static long deTexto(String texto) {
+        String s = texto.trim();
+        int i = 0;
+        boolean negativo = false;
+        if (i < s.length() && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+            negativo = s.charAt(i) == '-';
+            i++;
+        }
+
+        long reais = 0;
+        int digitosInteiros = 0;
+        while (i < s.length() && Character.isDigit(s.charAt(i))) {
+            if (reais > (Long.MAX_VALUE - 9) / 10) {
+                throw new NumberFormatException("Valor monetário fora do limite: " + texto);
+            }
+            reais = reais * 10 + (s.charAt(i++) - '0');
+            digitosInteiros++;
+        }
+
+        long centavos = 0;
+        int casas = 0;
+        boolean meio = false;
+        boolean acimaDoMeio = false;
+        if (i < s.length() && (s.charAt(i) == '.' || s.charAt(i) == ',')) {
+            i++;
+            while (i < s.length() && Character.isDigit(s.charAt(i))) {
+                int digito = s.charAt(i++) - '0';
+                if (casas < 2) {
+                    centavos = centavos * 10 + digito;
+                } else if (casas == 2) {
+                    meio = digito == 5;
+                    acimaDoMeio = digito > 5;
+                } else if (digito != 0 && meio) {
+                    meio = false;
+                    acimaDoMeio = true;
+                }
+                casas++;
+            }
+        }
+        if (i != s.length() || (digitosInteiros == 0 && casas == 0)) {
+            throw new NumberFormatException("Valor monetário inválido: " + texto);
+        }
+        for (int c = casas; c < 2; c++) {
+            centavos *= 10;
+        }
+
+        long total;
+        try {
+            total = Math.addExact(Math.multiplyExact(reais, CENTAVOS_POR_REAL), centavos);
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Valor monetário fora do limite: " + texto);
+        }
+        if (acimaDoMeio || (meio && (total & 1) != 0)) {
+            if (total == Long.MAX_VALUE) {
+                throw new NumberFormatException("Valor monetário fora do limite: " + texto);
+            }
+            total++;
+        }
+        return negativo ? -total : total;
+    }
+
+    /**
+     * Converte centavos em reais. Usado apenas para exibição e estatísticas
+     */
+    public static double paraReais(long centavos) {
+        return centavos / (double) CENTAVOS_POR_REAL;
+    }
+
+    /**
+     * Formata um valor em centavos com duas casas decimais (ex: 123456 -> "1234.56")
+     */
+    public static String formatar(long centavos) {
+        // Centavos e reais calculados com sinal para suportar Long.MIN_VALUE sem estouro
+        long reais = Math.abs(centavos / CENTAVOS_POR_REAL);
+        long resto = Math.abs(centavos % CENTAVOS_POR_REAL);
+        StringBuilder sb = new StringBuilder(24);
+        if (centavos < 0) {
+            sb.append('-');
+        }
+        sb.append(reais).append('.');
+        if (resto < 10) {
+            sb.append('0');
+        }
+        return sb.append(resto).toString();
+    }
+
+    /**
+     * Lê um valor em centavos de uma forma serializada, convertendo o valor em reais se a forma
+     * for anterior aos centavos
+     * @param campos Campos lidos por readObject
+     * @param campo Nome do campo em centavos
+     * @param campoReais Nome do campo em reais (double) da forma anterior
+     * @return Valor em centavos
+     */
+    static long lerCentavos(ObjectInputStream.GetField campos, String campo, String campoReais)
+            throws IOException {
+        if (!campos.defaulted(campo)) {
+            return campos.get(campo, 0L);
+        }
+        return deReais(campos.get(campoReais, 0.0));
+    }
+
+    /**
+     * Lê um vetor de valores em centavos de uma forma serializada, convertendo o vetor em reais
+     * se a forma for anterior aos centavos
+     * @return Valores em centavos (null se o vetor não foi gravado)
+     */
+    static long[] lerVetorCentavos(ObjectInputStream.GetField campos, String campo, String campoReais)
+            throws IOException {
+        if (!campos.defaulted(campo)) {
+            return (long[]) campos.get(campo, null);
+        }
+        double[] reais = (double[]) campos.get(campoReais, null);
+        if (reais == null) {
+            return null;
+        }
+        long[] centavos = new long[reais.length];
+        for (int i = 0; i < reais.length; i++) {
+            centavos[i] = deReais(reais[i]);
+        }
+        return centavos;
+    }
+
+    private static ArithmeticException estouro() {
+        return new ArithmeticException("Estouro no valor monetário");
+    }
+}
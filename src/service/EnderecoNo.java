@@ -0,0 +1,53 @@
+package service;
+
+import java.io.Serializable;
+
+/**
+ * Endereço de rede de um nó do banco em modo multi-nó.
+ *
+ * Atributos:
+ * - id: String - Identificador do nó no anel de hash consistente (final)
+ * - host: String - Nome ou IP da máquina do nó (final)
+ * - porta: int - Porta TCP em que o nó atende (final)
+ */
+public class EnderecoNo implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    // Identificador do nó no anel
+    private final String id;
+
+    // Máquina do nó
+    private final String host;
+
+    // Porta TCP do nó
+    private final int porta;
+
+    /**
+     * Construtor do endereço
+     * @param id Identificador do nó
+     * @param host Nome ou IP da máquina
+     * @param porta Porta TCP
+     */
+    public EnderecoNo(String id, String host, int porta) {
+        this.id = id;
+        this.host = host;
+        this.porta = porta;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public int getPorta() {
+        return porta;
+    }
+
+    @Override
+    public String toString() {
+        return id + "@" + host + ":" + porta;
+    }
+}
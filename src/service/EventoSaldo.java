@@ -0,0 +1,87 @@
+package service;
+
+/**
+ * Evento de alteração de saldo entregue aos assinantes do PublicadorEventos.
+ *
+ * Os eventos são reutilizados: cada assinatura possui um anel de eventos pré-alocados e o
+ * objeto recebido em onNext só é válido durante a chamada. Para guardar o evento, use copiar().
+ *
+ * Atributos:
+ * - tipo: TipoEventoSaldo - Tipo do evento
+ * - numeroContaCompleto: String - Conta afetada
+ * - valor: long - Valor da operação, em centavos
+ * - saldoApos: long - Saldo após a operação, em centavos (SALDO_DESCONHECIDO para depósitos do modo conta
+ *   quente, ainda não consolidados)
+ * - instanteMillis: long - Instante do evento (milissegundos desde 1970)
+ * - controle: long - Sequência de controle do anel da assinatura (uso interno)
+ *
+ * Métodos Públicos:
+ * - copiar(): EventoSaldo - Cópia independente do evento
+ * - getters: Acesso aos atributos
+ */
+public final class EventoSaldo {
+    // Marca de saldo ainda não consolidado (depósitos do modo conta quente)
+    public static final long SALDO_DESCONHECIDO = Long.MIN_VALUE;
+
+    // Tipo do evento
+    TipoEventoSaldo tipo;
+
+    // Conta afetada
+    String numeroContaCompleto;
+
+    // Valor da operação, em centavos
+    long valor;
+
+    // Saldo após a operação, em centavos
+    long saldoApos;
+
+    // Instante do evento
+    long instanteMillis;
+
+    // Sequência de controle do anel: indica se a posição está livre ou preenchida
+    volatile long controle;
+
+    EventoSaldo(long controle) {
+        this.controle = controle;
+    }
+
+    /**
+     * Cria uma cópia independente, que pode ser guardada após o retorno de onNext
+     * @return Cópia do evento
+     */
+    public EventoSaldo copiar() {
+        EventoSaldo copia = new EventoSaldo(-1);
+        copia.tipo = tipo;
+        copia.numeroContaCompleto = numeroContaCompleto;
+        copia.valor = valor;
+        copia.saldoApos = saldoApos;
+        copia.instanteMillis = instanteMillis;
+        return copia;
+    }
+
+    public TipoEventoSaldo getTipo() {
+        return tipo;
+    }
+
+    public String getNumeroContaCompleto() {
+        return numeroContaCompleto;
+    }
+
+    public long getValor() {
+        return valor;
+    }
+
+    public long getSaldoApos() {
+        return saldoApos;
+    }
+
+    public long getInstanteMillis() {
+        return instanteMillis;
+    }
+
+    @Override
+    public String toString() {
+        return tipo + numeroContaCompleto + " R$ " + Dinheiro.formatar(valor) + " (saldo R$ "
+                + (saldoApos == SALDO_DESCONHECIDO ? "?" : Dinheiro.formatar(saldoApos)) + ")";
+    }
+}
@@ -0,0 +1,560 @@
+package service;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Importador em lote de contas a partir de arquivos CSV ou binários, usado na migração da
+ * carteira de contas existente.
+ *
+ * O arquivo é dividido em blocos, que são mapeados em memória e interpretados em paralelo.
+ * Números repetidos no arquivo são detectados por um conjunto hash concorrente e cada bloco é
+ * inserido no Banco de uma só vez (Banco.adicionarContas), que também ignora números já cadastrados.
+ *
+ * Formato CSV (UTF-8, uma conta por linha, separador ';'):
+ * - tipo;numero;agencia;nome;saldo  (ex: "cc;123;001;João Silva;1000.00")
+ * - tipo é "cc" ou "cp"; uma linha de cabeçalho iniciada por "tipo" é ignorada
+ *
+ * Formato binário (gerado por exportarBinario):
+ * - cabeçalho: int MAGICO, int VERSAO
+ * - blocos: int quantidade de registros, int tamanho em bytes, registros
+ * - registro: byte tipo (0 = cc, 1 = cp), int numero, short + bytes UTF-8 da agência,
+ *   short + bytes UTF-8 do nome, long saldo em centavos
+ *
+ * Atributos:
+ * - banco: Banco - Banco que recebe as contas importadas (final)
+ * - pool: ForkJoinPool - Pool de threads da interpretação paralela (final)
+ *
+ * Métodos Públicos:
+ * - importarCsv(Path arquivo): Resultado - Importa contas de um arquivo CSV
+ * - importarBinario(Path arquivo): Resultado - Importa contas de um arquivo binário
+ * - exportarBinario(Collection<? extends Conta> contas, Path arquivo): void - Gera arquivo binário (estático)
+ *
+ * Observação:
+ * - As contas correntes importadas têm o limite calculado pela política de crédito em uso,
+ *   sem exibir uma mensagem por conta
+ */
+public class ImportadorContas {
+    // Identificação do formato binário ("BCOI")
+    private static final int MAGICO = 0x42434F49;
+
+    // Versão do formato binário (saldo em centavos)
+    private static final int VERSAO = 2;
+
+    // Tamanho aproximado de cada bloco interpretado por uma tarefa
+    private static final int TAMANHO_BLOCO = 8 * 1024 * 1024;
+
+    // Quantidade máxima de registros por bloco do formato binário
+    private static final int REGISTROS_POR_BLOCO_BINARIO = 65_536;
+
+    // Banco que recebe as contas
+    private final Banco banco;
+
+    // Pool de threads da interpretação paralela
+    private final ForkJoinPool pool;
+
+    /**
+     * Construtor que usa o ForkJoinPool comum
+     * @param banco Banco que receberá as contas
+     */
+    public ImportadorContas(Banco banco) {
+        this(banco, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Construtor com pool próprio
+     * @param banco Banco que receberá as contas
+     * @param pool Pool de threads da interpretação paralela
+     */
+    public ImportadorContas(Banco banco, ForkJoinPool pool) {
+        this.banco = banco;
+        this.pool = pool;
+    }
+
+    /**
+     * Importa contas de um arquivo CSV
+     * @param arquivo Caminho do arquivo
+     * @return Resultado da importação
+     * @throws IOException se o arquivo não puder ser lido
+     */
+    public Resultado importarCsv(Path arquivo) throws IOException {
+        long inicio = System.nanoTime();
+        Contadores contadores = new Contadores();
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            List<long[]> blocos = dividirEmLinhas(canal);
+            pool.submit(() -> blocos.parallelStream().forEach(bloco ->
+                    processarBlocoCsv(mapear(canal, bloco[0], bloco[1] - bloco[0]), contadores)))
+                    .join();
+        }
+        return contadores.resultado(System.nanoTime() - inicio);
+    }
+
+    /**
+     * Importa contas de um arquivo binário gerado por exportarBinario
+     * @param arquivo Caminho do arquivo
+     * @return Resultado da importação
+     * @throws IOException se o arquivo não puder ser lido ou não estiver no formato esperado
+     */
+    public Resultado importarBinario(Path arquivo) throws IOException {
+        long inicio = System.nanoTime();
+        Contadores contadores = new Contadores();
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            List<long[]> blocos = localizarBlocosBinarios(canal);
+            pool.submit(() -> blocos.parallelStream().forEach(bloco ->
+                    processarBlocoBinario(mapear(canal, bloco[0], bloco[1]), (int) bloco[2], contadores)))
+                    .join();
+        }
+        return contadores.resultado(System.nanoTime() - inicio);
+    }
+
+    /**
+     * Grava contas no formato binário aceito por importarBinario
+     * @param contas Contas a serem gravadas (contas correntes e poupanças)
+     * @param arquivo Caminho do arquivo de destino
+     * @throws IOException se o arquivo não puder ser gravado
+     */
+    public static void exportarBinario(Collection<? extends Conta> contas, Path arquivo) throws IOException {
+        try (DataOutputStream saida = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(arquivo), 1 << 16))) {
+            saida.writeInt(MAGICO);
+            saida.writeInt(VERSAO);
+
+            ByteBuffer bloco = ByteBuffer.allocate(TAMANHO_BLOCO);
+            int registros = 0;
+            for (Conta conta : contas) {
+                byte[] registro = codificar(conta);
+                if (registro == null) {
+                    continue;
+                }
+                if (registros == REGISTROS_POR_BLOCO_BINARIO || bloco.remaining() < registro.length) {
+                    gravarBloco(saida, bloco, registros);
+                    registros = 0;
+                }
+                bloco.put(registro);
+                registros++;
+            }
+            if (registros > 0) {
+                gravarBloco(saida, bloco, registros);
+            }
+        }
+    }
+
+    /**
+     * Divide o arquivo em blocos de tamanho aproximado TAMANHO_BLOCO terminados em fim de linha
+     * @return Lista de intervalos [início, fim)
+     */
+    private static List<long[]> dividirEmLinhas(FileChannel canal) throws IOException {
+        long tamanho = canal.size();
+        List<long[]> blocos = new ArrayList<>();
+        ByteBuffer busca = ByteBuffer.allocate(4096);
+        long posicao = 0;
+        while (posicao < tamanho) {
+            long fim = Math.min(posicao + TAMANHO_BLOCO, tamanho);
+            // Avança até o próximo fim de linha para não partir uma linha entre dois blocos
+            while (fim < tamanho) {
+                busca.clear();
+                int lidos = canal.read(busca, fim);
+                int quebra = -1;
+                for (int i = 0; i < lidos; i++) {
+                    if (busca.get(i) == '\n') {
+                        quebra = i;
+                        break;
+                    }
+                }
+                if (quebra >= 0) {
+                    fim += quebra + 1;
+                    break;
+                }
+                fim = lidos > 0 ? fim + lidos : tamanho;
+            }
+            blocos.add(new long[]{posicao, Math.min(fim, tamanho)});
+            posicao = fim;
+        }
+        return blocos;
+    }
+
+    /**
+     * Percorre os cabeçalhos dos blocos do formato binário
+     * @return Lista de {posição dos registros, tamanho em bytes, quantidade de registros}
+     */
+    private static List<long[]> localizarBlocosBinarios(FileChannel canal) throws IOException {
+        ByteBuffer cabecalho = ByteBuffer.allocate(8);
+        if (canal.read(cabecalho, 0) != 8 || cabecalho.getInt(0) != MAGICO) {
+            throw new IOException("Arquivo não está no formato binário de contas");
+        }
+        int versao = cabecalho.getInt(4);
+        if (versao != VERSAO) {
+            throw new IOException("Versão do formato binário não suportada: " + versao);
+        }
+
+        List<long[]> blocos = new ArrayList<>();
+        long tamanho = canal.size();
+        long posicao = 8;
+        while (posicao < tamanho) {
+            cabecalho.clear();
+            if (canal.read(cabecalho, posicao) != 8) {
+                throw new IOException("Cabeçalho de bloco truncado na posição " + posicao);
+            }
+            int registros = cabecalho.getInt(0);
+            int bytes = cabecalho.getInt(4);
+            if (registros < 0 || bytes < 0 || posicao + 8 + bytes > tamanho) {
+                throw new IOException("Bloco inválido na posição " + posicao);
+            }
+            blocos.add(new long[]{posicao + 8, bytes, registros});
+            posicao += 8 + bytes;
+        }
+        return blocos;
+    }
+
+    /**
+     * Interpreta as linhas de um bloco CSV e insere as contas válidas no banco
+     */
+    private void processarBlocoCsv(MappedByteBuffer bloco, Contadores contadores) {
+        List<Conta> contas = new ArrayList<>();
+        byte[] linha = new byte[256];
+        int limite = bloco.limit();
+        int inicioLinha = 0;
+        while (inicioLinha < limite) {
+            int fimLinha = inicioLinha;
+            while (fimLinha < limite && bloco.get(fimLinha) != '\n') {
+                fimLinha++;
+            }
+            int tamanho = fimLinha - inicioLinha;
+            if (tamanho > 0 && bloco.get(fimLinha - 1) == '\r') {
+                tamanho--;
+            }
+            if (tamanho > 0) {
+                if (linha.length < tamanho) {
+                    linha = new byte[Math.max(tamanho, linha.length * 2)];
+                }
+                bloco.get(inicioLinha, linha, 0, tamanho);
+                if (!ehCabecalho(linha, tamanho)) {
+                    contadores.lidas.increment();
+                    Conta conta = interpretarLinha(linha, tamanho);
+                    registrar(conta, contas, contadores);
+                }
+            }
+            inicioLinha = fimLinha + 1;
+        }
+        inserir(contas, contadores);
+    }
+
+    /**
+     * Interpreta os registros de um bloco binário e insere as contas válidas no banco
+     */
+    private void processarBlocoBinario(MappedByteBuffer bloco, int registros, Contadores contadores) {
+        List<Conta> contas = new ArrayList<>(registros);
+        for (int i = 0; i < registros; i++) {
+            contadores.lidas.increment();
+            Conta conta;
+            try {
+                byte tipo = bloco.get();
+                int numero = bloco.getInt();
+                String agencia = lerTexto(bloco);
+                String nome = lerTexto(bloco);
+                long saldo = bloco.getLong();
+                conta = criarConta(tipo == 0 ? "cc" : tipo == 1 ? "cp" : null, numero, agencia, nome, saldo);
+            } catch (RuntimeException e) {
+                // Registro truncado: o restante do bloco não pode ser interpretado
+                contadores.invalidas.add(registros - i);
+                break;
+            }
+            registrar(conta, contas, contadores);
+        }
+        inserir(contas, contadores);
+    }
+
+    /**
+     * Separa os campos de uma linha CSV e cria a conta correspondente
+     * @return Conta criada ou null se a linha for inválida
+     */
+    private static Conta interpretarLinha(byte[] linha, int tamanho) {
+        int[] inicios = new int[5];
+        int[] fins = new int[5];
+        int campo = 0;
+        inicios[0] = 0;
+        for (int i = 0; i < tamanho; i++) {
+            if (linha[i] == ';') {
+                if (campo == 4) {
+                    return null;
+                }
+                fins[campo] = i;
+                inicios[++campo] = i + 1;
+            }
+        }
+        if (campo != 4) {
+            return null;
+        }
+        fins[4] = tamanho;
+
+        String tipo = null;
+        if (fins[0] - inicios[0] == 2 && linha[inicios[0]] == 'c') {
+            byte segundo = linha[inicios[0] + 1];
+            tipo = segundo == 'c' ? "cc" : segundo == 'p' ? "cp" : null;
+        }
+        int numero = lerInteiro(linha, inicios[1], fins[1]);
+        long saldo = lerValor(linha, inicios[4], fins[4]);
+        if (numero < 0 || saldo < 0) {
+            return null;
+        }
+        String agencia = new String(linha, inicios[2], fins[2] - inicios[2], StandardCharsets.UTF_8);
+        String nome = new String(linha, inicios[3], fins[3] - inicios[3], StandardCharsets.UTF_8);
+        return criarConta(tipo, numero, agencia, nome, saldo);
+    }
+
+    /**
+     * Cria a conta do tipo informado, validando os dados
+     * @return Conta criada ou null se os dados forem inválidos
+     */
+    private static Conta criarConta(String tipo, int numero, String agencia, String nome, long saldo) {
+        if (tipo == null || numero < 0 || saldo < 0 || nome.isEmpty()) {
+            return null;
+        }
+        String numeroCompleto = Conta.montarNumeroCompleto(tipo, numero);
+        return tipo.equals("cc") ?
+                new ContaCorrente(numeroCompleto, numero, nome, saldo, agencia, false) :
+                new ContaPoupanca(numeroCompleto, numero, nome, saldo, agencia);
+    }
+
+    /**
+     * Acrescenta a conta ao lote do bloco, descartando inválidas e números repetidos no arquivo
+     */
+    private static void registrar(Conta conta, List<Conta> contas, Contadores contadores) {
+        if (conta == null) {
+            contadores.invalidas.increment();
+        } else if (!contadores.vistos.add(conta.getNumeroContaCompleto())) {
+            contadores.duplicadas.increment();
+        } else {
+            contas.add(conta);
+        }
+    }
+
+    /**
+     * Insere o lote do bloco no banco; números já cadastrados no banco contam como duplicados
+     */
+    private void inserir(List<Conta> contas, Contadores contadores) {
+        if (contas.isEmpty()) {
+            return;
+        }
+        int adicionadas = banco.adicionarContas(contas);
+        contadores.importadas.add(adicionadas);
+        contadores.duplicadas.add(contas.size() - adicionadas);
+    }
+
+    private static boolean ehCabecalho(byte[] linha, int tamanho) {
+        return tamanho >= 4 && linha[0] == 't' && linha[1] == 'i' && linha[2] == 'p' && linha[3] == 'o';
+    }
+
+    /**
+     * Lê um inteiro não negativo em ASCII
+     * @return Valor lido ou -1 se o campo for inválido
+     */
+    private static int lerInteiro(byte[] linha, int inicio, int fim) {
+        if (inicio >= fim || fim - inicio > 9) {
+            return -1;
+        }
+        int valor = 0;
+        for (int i = inicio; i < fim; i++) {
+            int digito = linha[i] - '0';
+            if (digito < 0 || digito > 9) {
+                return -1;
+            }
+            valor = valor * 10 + digito;
+        }
+        return valor;
+    }
+
+    /**
+     * Lê um valor decimal não negativo em ASCII (ex: "1000.50") diretamente em centavos. Casas
+     * além dos centavos são arredondadas com arredondamento bancário
+     * @return Valor em centavos ou -1 se o campo for inválido
+     */
+    private static long lerValor(byte[] linha, int inicio, int fim) {
+        long centavos = 0;
+        int casasDecimais = -1;
+        int digitos = 0;
+        // Primeira casa além dos centavos e se há alguma casa não nula depois dela
+        int descartado = 0;
+        boolean restoNaoNulo = false;
+        for (int i = inicio; i < fim; i++) {
+            byte c = linha[i];
+            if (c == '.' && casasDecimais < 0) {
+                casasDecimais = 0;
+            } else if (c < '0' || c > '9') {
+                return -1;
+            } else if (casasDecimais < 2) {
+                // Até 17 dígitos significativos cabem em long mesmo após a escala para centavos
+                if (digitos == 17) {
+                    return -1;
+                }
+                centavos = centavos * 10 + (c - '0');
+                digitos++;
+                if (casasDecimais >= 0) {
+                    casasDecimais++;
+                }
+            } else if (casasDecimais == 2) {
+                descartado = c - '0';
+                casasDecimais++;
+            } else if (c != '0') {
+                restoNaoNulo = true;
+            }
+        }
+        if (digitos == 0) {
+            return -1;
+        }
+        for (int casa = Math.max(casasDecimais, 0); casa < 2; casa++) {
+            centavos *= 10;
+        }
+        if (descartado > 5 || (descartado == 5 && (restoNaoNulo || (centavos & 1) != 0))) {
+            centavos++;
+        }
+        return centavos;
+    }
+
+    private static String lerTexto(ByteBuffer bloco) {
+        int tamanho = bloco.getShort() & 0xffff;
+        byte[] bytes = new byte[tamanho];
+        bloco.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Codifica uma conta como registro binário
+     * @return Bytes do registro ou null se a conta não puder ser representada no formato
+     */
+    private static byte[] codificar(Conta conta) {
+        byte tipo;
+        int numero;
+        String agencia;
+        if (conta instanceof ContaCorrente) {
+            tipo = 0;
+            numero = ((ContaCorrente) conta).getNumeroConta();
+            agencia = ((ContaCorrente) conta).getAgencia();
+        } else if (conta instanceof ContaPoupanca) {
+            tipo = 1;
+            numero = ((ContaPoupanca) conta).getNumeroConta();
+            agencia = ((ContaPoupanca) conta).getAgencia();
+        } else {
+            return null;
+        }
+        byte[] bytesAgencia = agencia.getBytes(StandardCharsets.UTF_8);
+        byte[] bytesNome = conta.getNomeCliente().getBytes(StandardCharsets.UTF_8);
+        if (bytesAgencia.length > 0xffff || bytesNome.length > 0xffff) {
+            return null;
+        }
+        ByteBuffer registro = ByteBuffer.allocate(1 + 4 + 2 + bytesAgencia.length + 2 + bytesNome.length + 8);
+        registro.put(tipo).putInt(numero)
+                .putShort((short) bytesAgencia.length).put(bytesAgencia)
+                .putShort((short) bytesNome.length).put(bytesNome)
+                .putLong(conta.getSaldo());
+        return registro.array();
+    }
+
+    private static void gravarBloco(DataOutputStream saida, ByteBuffer bloco, int registros) throws IOException {
+        saida.writeInt(registros);
+        saida.writeInt(bloco.position());
+        saida.write(bloco.array(), 0, bloco.position());
+        bloco.clear();
+    }
+
+    private static MappedByteBuffer mapear(FileChannel canal, long posicao, long tamanho) {
+        try {
+            return canal.map(FileChannel.MapMode.READ_ONLY, posicao, tamanho);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Contadores compartilhados pelas tarefas de uma importação
+     */
+    private static final class Contadores {
+        private final Set<String> vistos = ConcurrentHashMap.newKeySet();
+        private final LongAdder lidas = new LongAdder();
+        private final LongAdder importadas = new LongAdder();
+        private final LongAdder duplicadas = new LongAdder();
+        private final LongAdder invalidas = new LongAdder();
+
+        Resultado resultado(long duracaoNanos) {
+            return new Resultado(lidas.sum(), importadas.sum(), duplicadas.sum(),
+                    invalidas.sum(), duracaoNanos);
+        }
+    }
+
+    /**
+     * Resultado de uma importação
+     *
+     * Atributos:
+     * - lidas: long - Registros lidos do arquivo (final)
+     * - importadas: long - Contas adicionadas ao banco (final)
+     * - duplicadas: long - Registros com número repetido no arquivo ou já cadastrado (final)
+     * - invalidas: long - Registros mal formados (final)
+     * - duracaoNanos: long - Tempo total da importação (final)
+     */
+    public static class Resultado {
+        private final long lidas;
+        private final long importadas;
+        private final long duplicadas;
+        private final long invalidas;
+        private final long duracaoNanos;
+
+        public Resultado(long lidas, long importadas, long duplicadas, long invalidas, long duracaoNanos) {
+            this.lidas = lidas;
+            this.importadas = importadas;
+            this.duplicadas = duplicadas;
+            this.invalidas = invalidas;
+            this.duracaoNanos = duracaoNanos;
+        }
+
+        public long getLidas() {
+            return lidas;
+        }
+
+        public long getImportadas() {
+            return importadas;
+        }
+
+        public long getDuplicadas() {
+            return duplicadas;
+        }
+
+        public long getInvalidas() {
+            return invalidas;
+        }
+
+        public long getDuracaoNanos() {
+            return duracaoNanos;
+        }
+
+        /**
+         * Vazão da importação
+         * @return Contas importadas por segundo
+         */
+        public double getContasPorSegundo() {
+            return duracaoNanos == 0 ? 0 : importadas * 1_000_000_000.0 / duracaoNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d lida(s), %d importada(s), %d duplicada(s), %d inválida(s) " +
+                            "em %.1f ms (%.0f contas/s)", lidas, importadas, duplicadas, invalidas,
+                    duracaoNanos / 1_000_000.0, getContasPorSegundo());
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package service;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
+import java.io.Serializable;
+
+/**
+ * Histórico de saques de uma conta usado pelas regras de velocidade (MonitorVelocidade).
+ * Anel de baldes de tempo em arrays primitivos: cada balde guarda o período a que pertence,
+ * a quantidade de saques e o valor sacado nesse período. Um balde de período antigo é
+ * simplesmente sobrescrito quando o anel dá a volta.
+ *
+ * Atributos:
+ * - marcas: long[] - Por balde: (período << BITS_QUANTIDADE) | quantidade de saques
+ * - valores: long[] - Por balde: valor total sacado no período, em centavos
+ *
+ * Observação:
+ * - Os arrays só são alocados no primeiro saque verificado, e realocados apenas se o monitor
+ *   passar a exigir outra quantidade de baldes
+ * - O acesso é feito sob o monitor da conta dona do histórico
+ * - Os valores são serializados em centavos no campo valoresCentavos (ver Dinheiro, Serialização)
+ */
+final class JanelaVelocidade implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    // Campos serializados
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("marcas", long[].class),
+            new ObjectStreamField("valoresCentavos", long[].class)
+    };
+
+    // Bits da marca reservados à quantidade de saques do balde
+    static final int BITS_QUANTIDADE = 24;
+
+    // Máscara da quantidade de saques dentro da marca
+    static final long MASCARA_QUANTIDADE = (1L << BITS_QUANTIDADE) - 1;
+
+    // Por balde: (período << BITS_QUANTIDADE) | quantidade de saques
+    long[] marcas;
+
+    // Por balde: valor total sacado no período, em centavos
+    long[] valores;
+
+    /**
+     * Garante os arrays com a quantidade de baldes exigida pelo monitor
+     * @param baldes Quantidade de baldes do anel
+     */
+    void garantirBaldes(int baldes) {
+        if (marcas == null || marcas.length != baldes) {
+            marcas = new long[baldes];
+            valores = new long[baldes];
+        }
+    }
+
+    private void writeObject(ObjectOutputStream saida) throws IOException {
+        ObjectOutputStream.PutField campos = saida.putFields();
+        campos.put("marcas", marcas);
+        campos.put("valoresCentavos", valores);
+        saida.writeFields();
+    }
+
+    private void readObject(ObjectInputStream entrada) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField campos = entrada.readFields();
+        marcas = (long[]) campos.get("marcas", null);
+        valores = Dinheiro.lerVetorCentavos(campos, "valoresCentavos", "valores");
+    }
+}
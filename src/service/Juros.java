@@ -1,16 +1,93 @@
 package service;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
+import java.io.Serializable;
+import java.math.BigInteger;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Classe responsável por calcular e gerenciar os juros do cheque especial.
  * Mantém registro do valor utilizado e da data de início da utilização para cálculo dos juros.
+ * Valores em centavos; os juros são compostos diariamente e calculados por exponenciação
+ * (valor * 1,2^dias) com um único arredondamento bancário, de modo que o resultado é exato,
+ * independente da plataforma e obtido em tempo constante qualquer que seja o número de dias.
+ *
+ * Cálculo:
+ * - O fator 1,2^dias é pré-calculado como long em ponto fixo binário (FATORES, com ESCALAS bits
+ *   fracionários) e multiplicado pelo valor em 128 bits (Math.multiplyHigh), sem alocar objetos
+ * - O fator truncado subestima o produto em menos de valor / 2^escala; quando esse erro pode mudar
+ *   o arredondamento (produto rente a meio centavo ou valor próximo do teto), o total é recalculado
+ *   de forma exata com as potências em BigInteger. Empates exatos não ocorrem: valor * 6^d é par e
+ *   5^d é ímpar, logo o total nunca termina em meio centavo
+ *
+ * Estouro:
+ * - O total devido satura em TETO_DIVIDA em vez de estourar o long: a partir desse ponto os juros
+ *   deixam de crescer e a conta continua operável (consultas, depósitos e o lote noturno nunca
+ *   lançam ArithmeticException por causa dos juros)
+ * - O teto deixa folga para as somas feitas pela conta sobre o total devido
+ * - O valor utilizado é serializado em centavos no campo valorUtilizadoCentavos (ver Dinheiro, Serialização)
  */
-public class Juros {
-    private static final double TAXA_JUROS_DIARIA = 0.20; // 20% ao dia
+public class Juros implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    // Campos serializados
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("dataInicioUtilizacao", LocalDate.class),
+            new ObjectStreamField("valorUtilizadoCentavos", long.class)
+    };
+
+    // Taxa de juros diária como fração (20% ao dia)
+    private static final long TAXA_JUROS_NUMERADOR = 20;
+    private static final long TAXA_JUROS_DENOMINADOR = 100;
+
+    // Total devido máximo em centavos (o saldo devedor satura neste valor)
+    static final long TETO_DIVIDA = Long.MAX_VALUE / 4;
+
+    // Potências do fator diário (1 + taxa) como fração: numerador^d e denominador^d, até o
+    // número de dias a partir do qual até 1 centavo de dívida alcança o teto (cálculo exato)
+    private static final BigInteger[] POTENCIAS_NUMERADOR;
+    private static final BigInteger[] POTENCIAS_DENOMINADOR;
+
+    // Por número de dias: floor(1,2^d * 2^ESCALAS[d]), com a maior escala que cabe em 63 bits
+    private static final long[] FATORES;
+    private static final int[] ESCALAS;
+
+    static {
+        BigInteger numerador = BigInteger.valueOf(TAXA_JUROS_DENOMINADOR + TAXA_JUROS_NUMERADOR);
+        BigInteger denominador = BigInteger.valueOf(TAXA_JUROS_DENOMINADOR);
+        BigInteger teto = BigInteger.valueOf(TETO_DIVIDA);
+        List<BigInteger> numeradores = new ArrayList<>();
+        List<BigInteger> denominadores = new ArrayList<>();
+        BigInteger n = BigInteger.ONE;
+        BigInteger d = BigInteger.ONE;
+        while (n.compareTo(teto.multiply(d)) < 0) {
+            numeradores.add(n);
+            denominadores.add(d);
+            n = n.multiply(numerador);
+            d = d.multiply(denominador);
+        }
+        POTENCIAS_NUMERADOR = numeradores.toArray(new BigInteger[0]);
+        POTENCIAS_DENOMINADOR = denominadores.toArray(new BigInteger[0]);
+
+        FATORES = new long[POTENCIAS_NUMERADOR.length];
+        ESCALAS = new int[POTENCIAS_NUMERADOR.length];
+        for (int dia = 0; dia < FATORES.length; dia++) {
+            // Expoente binário da parte inteira do fator: a escala deixa o fator com 63 bits
+            int expoente = POTENCIAS_NUMERADOR[dia].divide(POTENCIAS_DENOMINADOR[dia]).bitLength() - 1;
+            ESCALAS[dia] = 62 - expoente;
+            FATORES[dia] = POTENCIAS_NUMERADOR[dia].shiftLeft(ESCALAS[dia])
+                    .divide(POTENCIAS_DENOMINADOR[dia]).longValueExact();
+        }
+    }
+
     private LocalDate dataInicioUtilizacao;
-    private double valorUtilizado;
+    private long valorUtilizado;
 
     /**
      * Construtor que inicializa os atributos com valores padrão
@@ -22,21 +99,21 @@ public class Juros {
 
     /**
      * Registra a utilização do cheque especial e define a data de início se for a primeira utilização
-     * @param valor Valor utilizado do cheque especial
+     * @param valor Valor utilizado do cheque especial em centavos
      */
-    public void registrarUtilizacao(double valor) {
+    public void registrarUtilizacao(long valor) {
         if (this.valorUtilizado == 0) {
             this.dataInicioUtilizacao = LocalDate.now();
         }
-        this.valorUtilizado += valor;
+        this.valorUtilizado = Dinheiro.somar(this.valorUtilizado, valor);
     }
 
     /**
      * Reduz o valor utilizado do cheque especial e zera a data se o valor chegar a zero
-     * @param valor Valor a ser reduzido do cheque especial
+     * @param valor Valor a ser reduzido do cheque especial em centavos
      */
-    public void reduzirUtilizacao(double valor) {
-        this.valorUtilizado -= valor;
+    public void reduzirUtilizacao(long valor) {
+        this.valorUtilizado = Dinheiro.subtrair(this.valorUtilizado, valor);
         if (this.valorUtilizado <= 0) {
             this.valorUtilizado = 0;
             this.dataInicioUtilizacao = null;
@@ -44,36 +121,124 @@ public class Juros {
     }
 
     /**
-     * Calcula os juros acumulados com base no tempo de utilização e taxa diária
-     * @return Valor dos juros acumulados
+     * Calcula os juros acumulados com base no tempo de utilização e taxa diária.
+     * O total devido satura em TETO_DIVIDA
+     * @return Valor dos juros acumulados até hoje em centavos
      */
-    public double calcularJuros() {
+    public long calcularJuros() {
+        return calcularJuros(LocalDate.now());
+    }
+
+    /**
+     * Calcula os juros acumulados da data de início da utilização até a data informada
+     * @param data Data final da contagem de dias
+     * @return Valor dos juros acumulados em centavos (zero se a data não for posterior ao início)
+     */
+    public long calcularJuros(LocalDate data) {
         if (valorUtilizado == 0 || dataInicioUtilizacao == null) {
             return 0;
         }
 
-        long dias = ChronoUnit.DAYS.between(dataInicioUtilizacao, LocalDate.now());
+        long dias = ChronoUnit.DAYS.between(dataInicioUtilizacao, data);
         if (dias <= 0) {
             return 0;
         }
 
-        return valorUtilizado * Math.pow(1 + TAXA_JUROS_DIARIA, dias) - valorUtilizado;
+        long teto = Math.max(TETO_DIVIDA, valorUtilizado);
+        if (dias >= FATORES.length) {
+            return teto - valorUtilizado;
+        }
+        long total = totalComJuros(valorUtilizado, (int) dias);
+        return (total >= TETO_DIVIDA ? teto : total) - valorUtilizado;
+    }
+
+    /**
+     * Calcula valor * 1,2^dias arredondado para o centavo (empates para o par)
+     * @param valor Valor utilizado em centavos (não negativo)
+     * @param dias Dias de juros (menor que FATORES.length)
+     * @return Total devido em centavos, ou TETO_DIVIDA se o total alcançar o teto
+     */
+    static long totalComJuros(long valor, int dias) {
+        int escala = ESCALAS[dias];
+        long fator = FATORES[dias];
+        long alto = Math.multiplyHigh(valor, fator);
+        long baixo = valor * fator;
+        // produto = alto:baixo >= 2^(62 + escala) implica total >= 2^62 > TETO_DIVIDA
+        if ((alto >>> (escala - 2)) != 0) {
+            return TETO_DIVIDA;
+        }
+        long inteiro = (alto << (64 - escala)) | (baixo >>> escala);
+        long fracao = baixo & ((1L << escala) - 1);
+        long meio = 1L << (escala - 1);
+        // O produto exato fica em [fracao, fracao + valor) na escala do fator
+        long limite = fracao + valor;
+        long total;
+        if (limite <= meio) {
+            total = inteiro;
+        } else if (fracao >= meio && limite <= meio + (1L << escala)) {
+            total = inteiro + 1;
+        } else {
+            total = totalExato(valor, dias);
+        }
+        return Math.min(total, TETO_DIVIDA);
+    }
+
+    /**
+     * Calcula valor * 1,2^dias de forma exata (usado quando o fator em ponto fixo não decide o arredondamento)
+     */
+    private static long totalExato(long valor, int dias) {
+        BigInteger[] divisao = BigInteger.valueOf(valor).multiply(POTENCIAS_NUMERADOR[dias])
+                .divideAndRemainder(POTENCIAS_DENOMINADOR[dias]);
+        // Sem empates (ver Cálculo): arredonda para cima se o resto passar da metade
+        BigInteger total = divisao[1].shiftLeft(1).compareTo(POTENCIAS_DENOMINADOR[dias]) > 0 ?
+                divisao[0].add(BigInteger.ONE) : divisao[0];
+        return total.compareTo(BigInteger.valueOf(TETO_DIVIDA)) >= 0 ? TETO_DIVIDA : total.longValueExact();
+    }
+
+    /**
+     * Lança os juros acumulados até a data informada no valor utilizado e reinicia a contagem de
+     * dias nessa data. A partir daí os juros lançados são dívida do cheque especial, e não mais
+     * juros pendentes. Repetir a operação para a mesma data, ou para uma data anterior à última
+     * capitalização, não tem efeito
+     * @param data Data da capitalização (data de referência do processamento em lote)
+     * @return Valor dos juros capitalizados em centavos
+     */
+    public long capitalizarJuros(LocalDate data) {
+        long juros = calcularJuros(data);
+        if (juros > 0) {
+            this.valorUtilizado = Dinheiro.somar(this.valorUtilizado, juros);
+            this.dataInicioUtilizacao = data;
+        }
+        return juros;
     }
 
     /**
      * Retorna o total devido (valor utilizado + juros acumulados)
-     * @return Total devido
+     * @return Total devido em centavos
      */
-    public double getTotalDevido() {
-        return valorUtilizado + calcularJuros();
+    public long getTotalDevido() {
+        return Dinheiro.somar(valorUtilizado, calcularJuros());
     }
 
     // Getters
-    public double getValorUtilizado() {
+    public long getValorUtilizado() {
         return valorUtilizado;
     }
 
     public LocalDate getDataInicioUtilizacao() {
         return dataInicioUtilizacao;
     }
-}
\ No newline at end of file
+
+    private void writeObject(ObjectOutputStream saida) throws IOException {
+        ObjectOutputStream.PutField campos = saida.putFields();
+        campos.put("dataInicioUtilizacao", dataInicioUtilizacao);
+        campos.put("valorUtilizadoCentavos", valorUtilizado);
+        saida.writeFields();
+    }
+
+    private void readObject(ObjectInputStream entrada) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField campos = entrada.readFields();
+        dataInicioUtilizacao = (LocalDate) campos.get("dataInicioUtilizacao", null);
+        valorUtilizado = Dinheiro.lerCentavos(campos, "valorUtilizadoCentavos", "valorUtilizado");
+    }
+}
@@ -22,6 +22,7 @@ import java.util.Scanner;
  * - realizarSaque(Conta conta): void - Executa operação de saque
  * - realizarPagamento(Conta conta): void - Executa operação de pagamento
  * - removerConta(): void - Fluxo para remoção de conta
+ * - lerValor(): long - Lê um valor em reais digitado pelo usuário e o converte em centavos
  *
  * Padrões de projeto utilizados:
  * - Singleton: Para a instância do Banco
@@ -112,7 +113,7 @@ public class Menu {
         int numero = scanner.nextInt();
         scanner.nextLine();
 
-        String numeroCompleto = " cc " + numero;
+        String numeroCompleto = Conta.montarNumeroCompleto("cc", numero);
 
         if (banco.buscarConta(numeroCompleto) != null) {
             System.out.println("Conta já existe!");
@@ -126,10 +127,17 @@ public class Menu {
         String nome = scanner.nextLine();
 
         System.out.print("Depósito inicial: ");
-        double deposito = scanner.nextDouble();
+        long deposito = lerValor();
+        if (deposito < 0) {
+            System.out.println("Valor inválido!");
+            return;
+        }
 
         ContaCorrente novaConta = new ContaCorrente(numeroCompleto, numero, nome, deposito, agencia);
-        banco.adicionarConta(novaConta);
+        if (!banco.adicionarConta(novaConta)) {
+            System.out.println("Conta já existe!");
+            return;
+        }
         System.out.println("Conta criada com sucesso!");
     }
 
@@ -143,7 +151,7 @@ public class Menu {
         int numero = scanner.nextInt();
         scanner.nextLine();
 
-        String numeroCompleto = " cp " + numero;
+        String numeroCompleto = Conta.montarNumeroCompleto("cp", numero);
 
         if (banco.buscarConta(numeroCompleto) != null) {
             System.out.println("Conta já existe!");
@@ -157,10 +165,17 @@ public class Menu {
         String nome = scanner.nextLine();
 
         System.out.print("Depósito inicial: ");
-        double deposito = scanner.nextDouble();
+        long deposito = lerValor();
+        if (deposito < 0) {
+            System.out.println("Valor inválido!");
+            return;
+        }
 
         ContaPoupanca novaConta = new ContaPoupanca(numeroCompleto, numero, nome, deposito, agencia);
-        banco.adicionarConta(novaConta);
+        if (!banco.adicionarConta(novaConta)) {
+            System.out.println("Conta já existe!");
+            return;
+        }
         System.out.println("Conta criada com sucesso!");
     }
 
@@ -240,7 +255,7 @@ public class Menu {
      */
     private static void realizarDeposito(Conta conta) {
         System.out.print("Valor do depósito: ");
-        double valor = scanner.nextDouble();
+        long valor = lerValor();
         conta.realizarDeposito(valor);
     }
 
@@ -250,7 +265,7 @@ public class Menu {
      */
     private static void realizarSaque(Conta conta) {
         System.out.print("Valor do saque: ");
-        double valor = scanner.nextDouble();
+        long valor = lerValor();
         conta.realizarSaque(valor);
     }
 
@@ -260,7 +275,7 @@ public class Menu {
      */
     private static void realizarPagamento(Conta conta) {
         System.out.print("Valor do pagamento: ");
-        double valor = scanner.nextDouble();
+        long valor = lerValor();
         conta.realizarPagamento(valor);
     }
 
@@ -284,4 +299,17 @@ public class Menu {
             System.out.println("Falha ao remover conta!");
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Lê um valor em reais (ex: 150,75 ou 150.75) e o converte em centavos sem passar por double
+     * @return Valor em centavos, ou -1 se o texto digitado não for um valor válido
+     */
+    private static long lerValor() {
+        String texto = scanner.next();
+        try {
+            return Dinheiro.deTexto(texto);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
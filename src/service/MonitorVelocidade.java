@@ -0,0 +1,183 @@
+package service;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Monitor de velocidade de saques (prevenção a fraudes). Avalia as regras de velocidade
+ * (RegraVelocidade) em cada realizarSaque/realizarPagamento, antes da verificação de saldo.
+ *
+ * O tempo é dividido em períodos de duração fixa (resolução) e cada conta mantém um anel de
+ * baldes com a quantidade e o valor sacados por período (JanelaVelocidade). Uma regra de
+ * janela M soma os baldes dos últimos M/resolução períodos, incluindo o atual. As regras são
+ * ordenadas pela janela, de modo que uma única passagem pelo anel avalia todas elas.
+ *
+ * Atributos:
+ * - ativo: MonitorVelocidade - Monitor usado pelas contas (estático, null = verificação desligada)
+ * - resolucaoMillis: long - Duração de cada período/balde (final)
+ * - baldes: int - Tamanho do anel, suficiente para a maior janela (final)
+ * - regras: RegraVelocidade[] - Regras ordenadas pela janela (final)
+ * - baldesPorRegra / maxSaquesPorRegra / valorMaximoPorRegra: Parâmetros das regras em arrays primitivos (final)
+ *
+ * Métodos Públicos:
+ * - getAtivo() / setAtivo(MonitorVelocidade): Monitor usado pelas contas (estáticos)
+ * - getRegras(): List<RegraVelocidade> - Regras do monitor
+ * - getResolucao(): Duration - Duração de cada balde
+ *
+ * Métodos de Pacote:
+ * - verificar(JanelaVelocidade janela, long valor, long agoraMillis): int - Índice da regra violada ou -1
+ * - registrar(JanelaVelocidade janela, long valor, long agoraMillis): void - Registra um saque efetuado
+ * - getRegra(int indice): RegraVelocidade - Regra pelo índice devolvido por verificar
+ *
+ * Desempenho:
+ * - verificar e registrar não alocam memória (exceto no primeiro saque de cada conta) e
+ *   percorrem no máximo o anel da conta, que fica sob o monitor da própria conta
+ * - A janela é deslizante com granularidade de um balde: saques do início do período mais
+ *   antigo contam por até uma resolução além da janela nominal
+ */
+public class MonitorVelocidade {
+    // Resolução padrão dos baldes
+    public static final Duration RESOLUCAO_PADRAO = Duration.ofMinutes(1);
+
+    // Monitor usado pelas contas (null = verificação desligada)
+    private static volatile MonitorVelocidade ativo;
+
+    // Duração de cada período/balde em milissegundos
+    private final long resolucaoMillis;
+
+    // Tamanho do anel de baldes
+    private final int baldes;
+
+    // Regras ordenadas pela janela
+    private final RegraVelocidade[] regras;
+
+    // Quantidade de baldes somados por regra
+    private final int[] baldesPorRegra;
+
+    // Quantidade máxima de saques por regra
+    private final int[] maxSaquesPorRegra;
+
+    // Valor máximo sacado por regra, em centavos
+    private final long[] valorMaximoPorRegra;
+
+    /**
+     * Construtor com resolução padrão de um minuto
+     * @param regras Regras de velocidade
+     */
+    public MonitorVelocidade(RegraVelocidade... regras) {
+        this(RESOLUCAO_PADRAO, regras);
+    }
+
+    /**
+     * Construtor do monitor
+     * @param resolucao Duração de cada balde (mínimo de um segundo)
+     * @param regras Regras de velocidade (ao menos uma)
+     */
+    public MonitorVelocidade(Duration resolucao, RegraVelocidade... regras) {
+        if (resolucao.compareTo(Duration.ofSeconds(1)) < 0 || regras.length == 0) {
+            throw new IllegalArgumentException("Resolução mínima de 1 segundo e ao menos uma regra");
+        }
+        this.resolucaoMillis = resolucao.toMillis();
+        this.regras = regras.clone();
+        Arrays.sort(this.regras, Comparator.comparing(RegraVelocidade::getJanela));
+
+        this.baldesPorRegra = new int[regras.length];
+        this.maxSaquesPorRegra = new int[regras.length];
+        this.valorMaximoPorRegra = new long[regras.length];
+        for (int i = 0; i < this.regras.length; i++) {
+            long janelaMillis = this.regras[i].getJanela().toMillis();
+            this.baldesPorRegra[i] = (int) Math.max(1, (janelaMillis + resolucaoMillis - 1) / resolucaoMillis);
+            this.maxSaquesPorRegra[i] = this.regras[i].getMaxSaques();
+            this.valorMaximoPorRegra[i] = this.regras[i].getValorMaximo();
+        }
+        this.baldes = baldesPorRegra[regras.length - 1];
+    }
+
+    /**
+     * Verifica se um novo saque viola alguma regra (chamado sob o monitor da conta)
+     * @param janela Histórico de saques da conta
+     * @param valor Valor do saque pretendido, em centavos
+     * @param agoraMillis Instante atual
+     * @return Índice da regra violada ou -1 se o saque é permitido
+     */
+    int verificar(JanelaVelocidade janela, long valor, long agoraMillis) {
+        janela.garantirBaldes(baldes);
+        long[] marcas = janela.marcas;
+        long[] valores = janela.valores;
+        long periodo = agoraMillis / resolucaoMillis;
+
+        // Acumulados em long e saturados: um estouro liberaria o saque silenciosamente
+        long quantidade = 1;
+        long total = valor;
+        int regra = 0;
+        int indice = (int) Math.floorMod(periodo, (long) baldes);
+        for (int j = 0; j < baldes; j++, indice = indice == 0 ? baldes - 1 : indice - 1) {
+            long marca = marcas[indice];
+            if ((marca >>> JanelaVelocidade.BITS_QUANTIDADE) == periodo - j) {
+                quantidade += marca & JanelaVelocidade.MASCARA_QUANTIDADE;
+                long valorBalde = valores[indice];
+                total = total > Long.MAX_VALUE - valorBalde ? Long.MAX_VALUE : total + valorBalde;
+            }
+            // Avalia todas as regras cuja janela termina neste balde
+            while (regra < baldesPorRegra.length && baldesPorRegra[regra] == j + 1) {
+                if (quantidade > maxSaquesPorRegra[regra] || total > valorMaximoPorRegra[regra]) {
+                    return regra;
+                }
+                regra++;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Registra um saque efetuado no balde do período atual (chamado sob o monitor da conta)
+     * @param janela Histórico de saques da conta
+     * @param valor Valor sacado, em centavos
+     * @param agoraMillis Instante do saque
+     */
+    void registrar(JanelaVelocidade janela, long valor, long agoraMillis) {
+        janela.garantirBaldes(baldes);
+        long periodo = agoraMillis / resolucaoMillis;
+        int indice = (int) Math.floorMod(periodo, (long) baldes);
+        long[] marcas = janela.marcas;
+        if ((marcas[indice] >>> JanelaVelocidade.BITS_QUANTIDADE) != periodo) {
+            marcas[indice] = periodo << JanelaVelocidade.BITS_QUANTIDADE;
+            janela.valores[indice] = 0;
+        }
+        // A quantidade satura no máximo representável em vez de invadir os bits do período
+        if ((marcas[indice] & JanelaVelocidade.MASCARA_QUANTIDADE) < JanelaVelocidade.MASCARA_QUANTIDADE) {
+            marcas[indice]++;
+        }
+        janela.valores[indice] = Dinheiro.somar(janela.valores[indice], valor);
+    }
+
+    RegraVelocidade getRegra(int indice) {
+        return regras[indice];
+    }
+
+    public List<RegraVelocidade> getRegras() {
+        return List.of(regras);
+    }
+
+    public Duration getResolucao() {
+        return Duration.ofMillis(resolucaoMillis);
+    }
+
+    /**
+     * Retorna o monitor usado pelas contas
+     * @return Monitor ativo ou null se a verificação estiver desligada
+     */
+    public static MonitorVelocidade getAtivo() {
+        return ativo;
+    }
+
+    /**
+     * Define o monitor usado pelas contas a partir dos próximos saques
+     * @param monitor Novo monitor ou null para desligar a verificação
+     */
+    public static void setAtivo(MonitorVelocidade monitor) {
+        ativo = monitor;
+    }
+}
@@ -0,0 +1,546 @@
+package service;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Nó do banco em modo multi-nó. Cada nó é um processo que guarda uma partição das contas
+ * em seu próprio Banco e atende requisições TCP do cliente roteador (ClienteRoteador).
+ *
+ * Atributos:
+ * - id: String - Identificador do nó no anel de hash consistente (final)
+ * - porta: int - Porta TCP atendida (final)
+ * - banco: Banco - Partição de contas deste nó (final)
+ * - anel: AnelHashConsistente - Visão do cluster usada no roteamento (null se isolado)
+ * - anelNovo: AnelHashConsistente - Visão do cluster em preparação (null fora de um rebalanceamento)
+ * - membros: Map<String, EnderecoNo> - Endereços dos nós do cluster (final)
+ * - contasMigradas: Map<String, String> - Número da conta -> nó que a recebeu na migração (final)
+ * - contasRecebidas: Set<String> - Contas importadas durante o rebalanceamento em andamento (final)
+ * - contasEmTransito: Map<String, CountDownLatch> - Contas sendo enviadas a outro nó -> fim do envio (final)
+ * - conexoes: Map<String, ConexaoNo> - Conexões abertas com outros nós (final)
+ * - atendimento: ExecutorService - Threads que atendem as conexões recebidas (final)
+ * - controleAdmissao: ControleAdmissao - Limites de operações por conta e global (null se desativado) (final)
+ * - manutencao: ScheduledExecutorService - Descarta periodicamente os baldes de contas ociosas (final)
+ * - cadastro: Object - Serializa criações e importações de contas (final)
+ *
+ * Métodos Públicos:
+ * - main(String[] args): void - Inicia um nó como processo independente
+ *   (args: id porta [operações/s por conta] [operações/s globais])
+ * - iniciar(): void - Aceita conexões até o nó ser encerrado
+ * - encerrar(): void - Fecha o socket do servidor e as conexões abertas
+ * - processar(RequisicaoNo requisicao): RespostaNo - Executa uma requisição
+ *
+ * Rebalanceamento (conduzido por ClienteRoteador.adicionarNo):
+ * - REBALANCEAR prepara o nó: o roteamento continua pelo anel anterior e o novo anel fica em
+ *   anelNovo. O novo nó, que ainda não tem contas, redireciona as que desconhece ao dono anterior
+ * - MIGRAR envia aos novos donos as contas que deixaram de pertencer ao nó. A conta é marcada em
+ *   trânsito sob seu monitor e enviada fora dele: operações concorrentes aguardam o fim do envio
+ *   sem bloquear o monitor durante a ida e volta pela rede e, em seguida, recebem MOVIDA com o
+ *   endereço do novo dono (ou são executadas aqui, se o envio falhar)
+ * - CONFIRMAR passa a rotear pelo novo anel. CANCELAR devolve aos donos anteriores as contas
+ *   recebidas e descarta o novo anel, de modo que o cluster volta à composição anterior
+ * - Enquanto o rebalanceamento não termina, o nó recusa criar contas que mudam de dono, e o novo
+ *   dono recusa a importação de um número que já possui, sem que nenhuma das contas seja sobrescrita
+ */
+public class NoBanco {
+    // Identificador do nó
+    private final String id;
+
+    // Porta TCP atendida
+    private final int porta;
+
+    // Partição de contas deste nó
+    private final Banco banco;
+
+    // Tempo máximo de espera pelo envio de uma conta em migração
+    private static final long ESPERA_TRANSITO_SEGUNDOS = 30;
+
+    // Visão do cluster (null enquanto o nó não participa de um cluster)
+    private volatile AnelHashConsistente anel;
+
+    // Visão do cluster em preparação (null fora de um rebalanceamento)
+    private volatile AnelHashConsistente anelNovo;
+
+    // Endereços dos nós do cluster
+    private final Map<String, EnderecoNo> membros;
+
+    // Contas que migraram para outro nó -> identificador do novo dono
+    private final Map<String, String> contasMigradas;
+
+    // Contas importadas durante o rebalanceamento (devolvidas se ele for cancelado)
+    private final Set<String> contasRecebidas;
+
+    // Contas sendo enviadas a outro nó -> liberado ao fim do envio
+    private final Map<String, CountDownLatch> contasEmTransito;
+
+    // Conexões com outros nós (usadas na migração)
+    private final Map<String, ConexaoNo> conexoes;
+
+    // Threads de atendimento das conexões recebidas
+    private final ExecutorService atendimento;
+
+    // Limites de operações por conta e global (null se desativado)
+    private final ControleAdmissao controleAdmissao;
+
+    // Tarefas periódicas de manutenção do nó
+    private final ScheduledExecutorService manutencao;
+
+    // Serializa criações, importações e trocas de anel (não usa o monitor do banco, que na ordem
+    // de bloqueio do armazenamento em camadas vem depois do monitor das contas)
+    private final Object cadastro = new Object();
+
+    // Socket do servidor
+    private volatile ServerSocket servidor;
+
+    /**
+     * Construtor do nó
+     * @param id Identificador do nó
+     * @param porta Porta TCP a ser atendida
+     */
+    public NoBanco(String id, int porta) {
+        this(id, porta, null);
+    }
+
+    /**
+     * Construtor do nó com controle de admissão
+     * @param id Identificador do nó
+     * @param porta Porta TCP a ser atendida
+     * @param controleAdmissao Limites de operações (null para desativar)
+     */
+    public NoBanco(String id, int porta, ControleAdmissao controleAdmissao) {
+        this.id = id;
+        this.porta = porta;
+        this.banco = new Banco("Banco Digital - nó " + id);
+        this.membros = new ConcurrentHashMap<>();
+        this.contasMigradas = new ConcurrentHashMap<>();
+        this.contasRecebidas = ConcurrentHashMap.newKeySet();
+        this.contasEmTransito = new ConcurrentHashMap<>();
+        this.conexoes = new ConcurrentHashMap<>();
+        this.atendimento = Executors.newCachedThreadPool();
+        this.controleAdmissao = controleAdmissao;
+        this.manutencao = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "manutencao-" + id);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Inicia um nó como processo independente
+     * @param args id do nó, porta TCP e, opcionalmente, limites de operações por segundo
+     *             por conta e globais (ex: "no1 7001" ou "no1 7001 50 100000")
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2 && args.length != 4) {
+            System.out.println("Uso: java service.NoBanco <id> <porta> [ops/s por conta] [ops/s globais]");
+            return;
+        }
+        ControleAdmissao controle = null;
+        if (args.length == 4) {
+            double ritmoConta = Double.parseDouble(args[2]);
+            double ritmoGlobal = Double.parseDouble(args[3]);
+            // Rajada equivalente a um segundo de operações no ritmo configurado
+            controle = new ControleAdmissao((int) Math.ceil(ritmoConta), ritmoConta,
+                    (int) Math.ceil(ritmoGlobal), ritmoGlobal);
+        }
+        new NoBanco(args[0], Integer.parseInt(args[1]), controle).iniciar();
+    }
+
+    /**
+     * Abre o socket do servidor e aceita conexões até o nó ser encerrado
+     */
+    public void iniciar() throws IOException {
+        servidor = new ServerSocket(porta);
+        System.out.println("Nó " + id + " atendendo na porta " + porta);
+        if (controleAdmissao != null) {
+            manutencao.scheduleWithFixedDelay(controleAdmissao::removerBaldesOciosos,
+                    1, 1, TimeUnit.MINUTES);
+        }
+        while (!servidor.isClosed()) {
+            try {
+                Socket socket = servidor.accept();
+                atendimento.execute(() -> atenderConexao(socket));
+            } catch (IOException e) {
+                if (!servidor.isClosed()) {
+                    System.out.println("Falha ao aceitar conexão: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Encerra o nó, fechando o servidor e as conexões com outros nós
+     */
+    public void encerrar() {
+        try {
+            if (servidor != null) {
+                servidor.close();
+            }
+        } catch (IOException ignored) {
+            // Servidor já encerrado
+        }
+        atendimento.shutdownNow();
+        manutencao.shutdownNow();
+        conexoes.values().forEach(ConexaoNo::close);
+    }
+
+    /**
+     * Atende uma conexão, processando requisições até o cliente desconectar
+     * @param socket Conexão aceita
+     */
+    private void atenderConexao(Socket socket) {
+        try (socket;
+             ObjectOutputStream saida = new ObjectOutputStream(socket.getOutputStream())) {
+            socket.setTcpNoDelay(true);
+            saida.flush();
+            ObjectInputStream entrada = new ObjectInputStream(socket.getInputStream());
+            while (true) {
+                RequisicaoNo requisicao = (RequisicaoNo) entrada.readObject();
+                saida.writeObject(processar(requisicao));
+                saida.reset();
+                saida.flush();
+            }
+        } catch (EOFException e) {
+            // Cliente encerrou a conexão
+        } catch (IOException | ClassNotFoundException e) {
+            if (!atendimento.isShutdown()) {
+                System.out.println("Conexão encerrada com erro: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Executa uma requisição recebida
+     * @param requisicao Requisição a ser executada
+     * @return Resposta a ser devolvida ao remetente
+     */
+    public RespostaNo processar(RequisicaoNo requisicao) {
+        switch (requisicao.getOperacao()) {
+            case CRIAR:
+                return criarConta(requisicao.getConta());
+            case IMPORTAR:
+                return importarConta(requisicao.getConta());
+            case REBALANCEAR:
+                return rebalancear(requisicao);
+            case MIGRAR:
+                return migrarContas();
+            case CONFIRMAR:
+                return confirmarRebalanceamento();
+            case CANCELAR:
+                return cancelarRebalanceamento();
+            default:
+                return executarOperacao(requisicao);
+        }
+    }
+
+    /**
+     * Cadastra uma nova conta, desde que este nó seja o dono de seu número. Durante um
+     * rebalanceamento, recusa os números que passarão a outro nó: a migração só envia as
+     * contas que já existiam quando o rebalanceamento foi preparado
+     */
+    private RespostaNo criarConta(Conta conta) {
+        String numero = conta.getNumeroContaCompleto();
+        synchronized (cadastro) {
+            EnderecoNo dono = donoExterno(numero);
+            if (dono != null) {
+                return RespostaNo.movida(dono);
+            }
+            AnelHashConsistente preparado = anelNovo;
+            if (preparado != null && !id.equals(preparado.localizarNo(numero))) {
+                return RespostaNo.erro("Rebalanceamento em andamento, tente criar a conta " +
+                        numero + " novamente");
+            }
+            Conta existente = banco.buscarConta(numero);
+            if (existente != null) {
+                return RespostaNo.falha(existente, "Conta já existe!");
+            }
+            if (!banco.adicionarConta(conta)) {
+                return RespostaNo.falha(conta, "Conta já existe!");
+            }
+            contasMigradas.remove(numero);
+        }
+        return RespostaNo.ok(conta);
+    }
+
+    /**
+     * Recebe uma conta migrada de outro nó. Recusa a conta se o número já existir aqui (por
+     * exemplo, criado por um cliente que já via o novo anel antes da migração): sobrescrever
+     * perderia o saldo de uma das duas contas
+     */
+    private RespostaNo importarConta(Conta conta) {
+        synchronized (cadastro) {
+            Conta existente = banco.buscarConta(conta.getNumeroContaCompleto());
+            if (existente != null) {
+                return RespostaNo.falha(existente, "Conta já existe no nó " + id + "!");
+            }
+            if (!banco.adicionarConta(conta)) {
+                return RespostaNo.falha(conta, "Conta já existe no nó " + id + "!");
+            }
+            contasMigradas.remove(conta.getNumeroContaCompleto());
+            if (anelNovo != null) {
+                contasRecebidas.add(conta.getNumeroContaCompleto());
+            }
+        }
+        return RespostaNo.ok(conta);
+    }
+
+    /**
+     * Executa uma operação sobre uma conta da partição deste nó. Se a conta estiver sendo
+     * enviada a outro nó, aguarda o fim do envio fora do monitor e tenta de novo
+     */
+    private RespostaNo executarOperacao(RequisicaoNo requisicao) {
+        String numero = requisicao.getNumeroConta();
+        Conta conta = banco.buscarConta(numero);
+        if (conta == null) {
+            return redirecionar(numero);
+        }
+
+        if (controleAdmissao != null) {
+            StatusAdmissao status = controleAdmissao.admitir(numero);
+            if (!status.isAdmitida()) {
+                return RespostaNo.rejeitada(status);
+            }
+        }
+
+        while (true) {
+            RespostaNo resposta = executarNaConta(conta, requisicao);
+            if (resposta != null) {
+                return resposta;
+            }
+            CountDownLatch transito = contasEmTransito.get(numero);
+            try {
+                if (transito != null && !transito.await(ESPERA_TRANSITO_SEGUNDOS, TimeUnit.SECONDS)) {
+                    return RespostaNo.erro("Conta " + numero + " em migração, tente novamente");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return RespostaNo.erro("Operação interrompida na conta " + numero);
+            }
+            // Se o envio falhou a conta continua aqui (possivelmente recarregada do disco)
+            conta = banco.buscarConta(numero);
+            if (conta == null) {
+                return redirecionar(numero);
+            }
+        }
+    }
+
+    /**
+     * Executa a operação com o monitor da conta bloqueado
+     * @return Resposta da operação, ou null se a conta estiver em trânsito para outro nó
+     */
+    private RespostaNo executarNaConta(Conta conta, RequisicaoNo requisicao) {
+        String numero = requisicao.getNumeroConta();
+        return PerfiladorContencao.executar(conta, numero, OperacaoPerfilada.LOTE, () -> {
+            // A conta pode ter migrado enquanto esta thread aguardava o monitor
+            if (contasMigradas.containsKey(numero)) {
+                return redirecionar(numero);
+            }
+            if (contasEmTransito.containsKey(numero)) {
+                return null;
+            }
+
+            switch (requisicao.getOperacao()) {
+                case BUSCAR:
+                case SALDO:
+                    return RespostaNo.ok(conta);
+                case DEPOSITO:
+                    return conta.realizarDeposito(requisicao.getValor()) ?
+                            RespostaNo.ok(conta) : RespostaNo.falha(conta, "Depósito não realizado");
+                case SAQUE:
+                    return conta.realizarSaque(requisicao.getValor()) ?
+                            RespostaNo.ok(conta) : RespostaNo.falha(conta, "Saque não realizado");
+                case PAGAMENTO:
+                    return conta.realizarPagamento(requisicao.getValor()) ?
+                            RespostaNo.ok(conta) : RespostaNo.falha(conta, "Pagamento não realizado");
+                default:
+                    return RespostaNo.erro("Operação não suportada: " + requisicao.getOperacao());
+            }
+        });
+    }
+
+    /**
+     * Resposta para conta ausente: indica o novo dono se a conta migrou ou pertence a outro nó
+     */
+    private RespostaNo redirecionar(String numero) {
+        String novoDono = contasMigradas.get(numero);
+        if (novoDono != null && membros.containsKey(novoDono)) {
+            return RespostaNo.movida(membros.get(novoDono));
+        }
+        EnderecoNo dono = donoExterno(numero);
+        return dono != null ? RespostaNo.movida(dono) : RespostaNo.naoEncontrada(numero);
+    }
+
+    /**
+     * Retorna o endereço do dono da conta se não for este nó
+     * @return Endereço do outro nó ou null se este nó for o dono (ou estiver isolado)
+     */
+    private EnderecoNo donoExterno(String numero) {
+        AnelHashConsistente atual = anel;
+        if (atual == null) {
+            return null;
+        }
+        String dono = atual.localizarNo(numero);
+        return dono == null || dono.equals(id) ? null : membros.get(dono);
+    }
+
+    /**
+     * Prepara o rebalanceamento: continua roteando pelo anel anterior e guarda o novo anel
+     * até a confirmação
+     */
+    private synchronized RespostaNo rebalancear(RequisicaoNo requisicao) {
+        if (anelNovo != null) {
+            return RespostaNo.erro("Nó " + id + " já participa de um rebalanceamento");
+        }
+        AnelHashConsistente anterior = new AnelHashConsistente(requisicao.getNosVirtuais());
+        for (EnderecoNo membro : requisicao.getMembrosAnteriores()) {
+            membros.put(membro.getId(), membro);
+            anterior.adicionarNo(membro.getId());
+        }
+        AnelHashConsistente novo = new AnelHashConsistente(requisicao.getNosVirtuais());
+        for (EnderecoNo membro : requisicao.getMembros()) {
+            membros.put(membro.getId(), membro);
+            novo.adicionarNo(membro.getId());
+        }
+        synchronized (cadastro) {
+            anel = anterior;
+            anelNovo = novo;
+            contasRecebidas.clear();
+        }
+        return RespostaNo.ok("Nó " + id + " preparado para o rebalanceamento");
+    }
+
+    /**
+     * Envia aos novos donos as contas que deixaram de pertencer a este nó
+     */
+    private synchronized RespostaNo migrarContas() {
+        AnelHashConsistente novo = anelNovo;
+        if (novo == null) {
+            return RespostaNo.erro("Nó " + id + " não tem rebalanceamento preparado");
+        }
+        int migradas = 0;
+        // Todas as contas da partição, inclusive as gravadas em disco pelo armazenamento em camadas
+        for (String numero : banco.getNumerosContas()) {
+            String dono = novo.localizarNo(numero);
+            if (dono.equals(id)) {
+                continue;
+            }
+            RespostaNo resposta = migrar(numero, dono);
+            if (resposta == null) {
+                // Conta removida durante o rebalanceamento
+                continue;
+            }
+            if (resposta.getStatus() != RespostaNo.Status.OK) {
+                return resposta;
+            }
+            migradas++;
+        }
+        return RespostaNo.ok("Nó " + id + " migrou " + migradas + " conta(s)");
+    }
+
+    /**
+     * Passa a rotear pelo novo anel
+     */
+    private synchronized RespostaNo confirmarRebalanceamento() {
+        synchronized (cadastro) {
+            if (anelNovo != null) {
+                anel = anelNovo;
+                anelNovo = null;
+            }
+            contasRecebidas.clear();
+        }
+        return RespostaNo.ok("Nó " + id + " confirmou o rebalanceamento");
+    }
+
+    /**
+     * Devolve aos donos anteriores as contas recebidas e descarta o novo anel. Contas que não
+     * puderem ser devolvidas continuam aqui e são reportadas no erro
+     */
+    private synchronized RespostaNo cancelarRebalanceamento() {
+        List<String> pendentes = new ArrayList<>();
+        AnelHashConsistente anterior = anel;
+        for (String numero : List.copyOf(contasRecebidas)) {
+            String dono = anterior == null ? null : anterior.localizarNo(numero);
+            if (dono == null || dono.equals(id)) {
+                continue;
+            }
+            RespostaNo resposta = migrar(numero, dono);
+            if (resposta != null && resposta.getStatus() != RespostaNo.Status.OK) {
+                System.out.println(resposta.getMensagem());
+                pendentes.add(numero);
+            }
+        }
+        synchronized (cadastro) {
+            anelNovo = null;
+            contasRecebidas.clear();
+        }
+        if (!pendentes.isEmpty()) {
+            return RespostaNo.erro("Nó " + id + " não devolveu as contas " + pendentes);
+        }
+        return RespostaNo.ok("Nó " + id + " cancelou o rebalanceamento");
+    }
+
+    /**
+     * Envia a conta a outro nó e a retira da partição. A conta é marcada em trânsito com o
+     * monitor bloqueado, de modo que nenhuma operação a altera depois disso, e enviada fora do
+     * monitor. Uma conta em disco é migrada sem voltar para a memória: a marcação e a remoção
+     * ocorrem sob a trava do armazenamento em camadas
+     * @return OK se a conta migrou, ERRO com o motivo, ou null se a conta não existir mais
+     */
+    private RespostaNo migrar(String numero, String dono) {
+        CountDownLatch transito = new CountDownLatch(1);
+        try {
+            Conta conta = banco.consultarSemCarregar(numero, c -> {
+                synchronized (c) {
+                    contasEmTransito.put(numero, transito);
+                }
+                return c;
+            });
+            if (conta == null) {
+                return null;
+            }
+            try {
+                RespostaNo resposta = conexao(dono).enviar(RequisicaoNo.importacao(conta));
+                if (resposta.getStatus() != RespostaNo.Status.OK) {
+                    return RespostaNo.erro("Nó " + dono + " recusou a conta " + numero +
+                            ": " + resposta.getMensagem());
+                }
+            } catch (IOException e) {
+                return RespostaNo.erro("Falha ao migrar conta " + numero + " para o nó " +
+                        dono + ": " + e.getMessage());
+            }
+            banco.consultarSemCarregar(numero, c -> {
+                synchronized (c) {
+                    // Registra o encaminhamento antes de retirar a conta da partição
+                    contasMigradas.put(numero, dono);
+                    banco.removerConta(c);
+                }
+                return c;
+            });
+            return RespostaNo.ok("Conta " + numero + " migrada para o nó " + dono);
+        } finally {
+            contasEmTransito.remove(numero, transito);
+            transito.countDown();
+        }
+    }
+
+    /**
+     * Retorna (abrindo se necessário) a conexão com outro nó do cluster
+     */
+    private ConexaoNo conexao(String idNo) {
+        return conexoes.computeIfAbsent(idNo, chave -> new ConexaoNo(membros.get(chave)));
+    }
+}
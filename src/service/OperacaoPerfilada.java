@@ -0,0 +1,21 @@
+package service;
+
+/**
+ * Operações de conta medidas pelo PerfiladorContencao
+ *
+ * Valores:
+ * - SAQUE: realizarSaque e realizarPagamento
+ * - DEPOSITO: realizarDeposito (exceto o caminho sem bloqueio do modo conta quente)
+ * - RENDIMENTO: aplicarRendimento e o rendimento mensal do processamento em lote
+ * - JUROS: Capitalização dos juros do cheque especial pelo processamento em lote
+ * - LOTE: Blocos que executam uma ou mais operações com uma única aquisição do monitor da conta
+ *   (AdaptadorContaAssincrona, requisições de NoBanco, ProcessadorLote e AgendadorPagamentos); as
+ *   operações internas do bloco não são medidas de novo
+ */
+public enum OperacaoPerfilada {
+    SAQUE,
+    DEPOSITO,
+    RENDIMENTO,
+    JUROS,
+    LOTE
+}
@@ -0,0 +1,619 @@
+package service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Perfilador opcional de contenção nos monitores das contas. Quando ativo, uma a cada N
+ * operações medidas (OperacaoPerfilada) tem o tempo de espera pelo monitor da conta e o tempo
+ * de retenção do monitor medidos e registrados por operação e por conta.
+ *
+ * As contas com maior tempo de espera são mantidas por resumos Space-Saving de tamanho fixo:
+ * as contas são distribuídas em faixas pelo hash do número e cada faixa guarda no máximo
+ * 'capacidade' contadores; ao chegar uma conta nova com a faixa cheia, ela herda o contador
+ * da conta de menor peso (que passa a ser o erro máximo da estimativa). Qualquer conta cuja
+ * espera supere 1/capacidade do total da sua faixa está garantidamente no resumo.
+ *
+ * Atributos:
+ * - ativo: PerfiladorContencao - Perfilador usado pelas contas (estático, null = desligado)
+ * - taxaAmostragem: int - Mede uma a cada N operações (final)
+ * - topK: int - Tamanho da lista de contas quentes (final)
+ * - operacoes: Estatistica[] - Totais por operação (final)
+ * - faixas: Resumo[] - Resumos Space-Saving das contas, por faixa (final)
+ * - despejo: ScheduledExecutorService - Exibe o relatório periodicamente (null até iniciarDespejo)
+ *
+ * Métodos Públicos:
+ * - getContasQuentes(): List<ContaQuente> - As topK contas com maior tempo de espera
+ * - getEstatisticas(): List<EstatisticaOperacao> - Espera e retenção por operação
+ * - relatorio(): String - Texto com as estatísticas e as contas quentes
+ * - iniciarDespejo(Duration intervalo): void - Exibe o relatório periodicamente
+ * - reiniciar(): void - Descarta as medições
+ * - close(): void - Interrompe o despejo periódico
+ * - getAtivo() / setAtivo(PerfiladorContencao): Perfilador usado pelas contas (estáticos)
+ *
+ * Métodos de Pacote (usados pelas contas):
+ * - amostrar(): PerfiladorContencao - Perfilador ativo se a operação atual deve ser medida (estático)
+ * - medir / medirValor / medirAcao: Executam a operação sob o monitor da conta, medindo espera e retenção
+ * - executar(Object conta, String numeroConta, OperacaoPerfilada operacao, Supplier<R> / Runnable corpo):
+ *   Executa um bloco sob o monitor da conta, medindo-o se for sorteado (estáticos)
+ *
+ * Aquisições reentrantes:
+ * - A espera só é medida na aquisição mais externa do monitor. Quem executa várias operações com
+ *   o monitor já adquirido mede o bloco inteiro (executar, OperacaoPerfilada.LOTE); se a thread já
+ *   detém o monitor, medir, medirValor e medirAcao executam a operação sem registrar amostra, que
+ *   mostraria uma espera nula
+ *
+ * Desempenho:
+ * - Desligado, o custo por operação é uma leitura volátil; ligado, as operações não amostradas
+ *   custam também um sorteio em ThreadLocalRandom
+ * - Apenas amostras com espera acima de ESPERA_MINIMA_NANOS (contenção real) entram nos resumos
+ */
+public class PerfiladorContencao implements AutoCloseable {
+    // Espera mínima para uma amostra ser considerada contenção
+    public static final long ESPERA_MINIMA_NANOS = 1_000;
+
+    // Quantidade de faixas dos resumos (potência de 2)
+    private static final int FAIXAS = 16;
+
+    // Perfilador usado pelas contas (null = desligado)
+    private static volatile PerfiladorContencao ativo;
+
+    // Mede uma a cada N operações
+    private final int taxaAmostragem;
+
+    // Tamanho da lista de contas quentes
+    private final int topK;
+
+    // Totais por operação (índice = ordinal)
+    private final Estatistica[] operacoes;
+
+    // Resumos Space-Saving das contas, por faixa
+    private final Resumo[] faixas;
+
+    // Exibe o relatório periodicamente
+    private ScheduledExecutorService despejo;
+
+    /**
+     * Construtor com as 20 contas mais quentes e amostragem de uma a cada 64 operações
+     */
+    public PerfiladorContencao() {
+        this(20, 64);
+    }
+
+    /**
+     * Construtor do perfilador
+     * @param topK Tamanho da lista de contas quentes
+     * @param taxaAmostragem Mede uma a cada N operações (1 = todas)
+     */
+    public PerfiladorContencao(int topK, int taxaAmostragem) {
+        if (topK <= 0 || taxaAmostragem <= 0) {
+            throw new IllegalArgumentException("Top K e taxa de amostragem devem ser positivos");
+        }
+        this.topK = topK;
+        this.taxaAmostragem = taxaAmostragem;
+        this.operacoes = new Estatistica[OperacaoPerfilada.values().length];
+        for (int i = 0; i < operacoes.length; i++) {
+            this.operacoes[i] = new Estatistica();
+        }
+        // Cada faixa comporta o top K inteiro, para o caso de todas as contas quentes caírem nela
+        int capacidade = Math.max(16, 2 * topK);
+        this.faixas = new Resumo[FAIXAS];
+        for (int i = 0; i < FAIXAS; i++) {
+            this.faixas[i] = new Resumo(capacidade);
+        }
+    }
+
+    /**
+     * Retorna o perfilador ativo se a operação atual foi sorteada para medição
+     * @return Perfilador ativo ou null se a operação não deve ser medida
+     */
+    static PerfiladorContencao amostrar() {
+        PerfiladorContencao perfilador = ativo;
+        if (perfilador == null || (perfilador.taxaAmostragem > 1
+                && ThreadLocalRandom.current().nextInt(perfilador.taxaAmostragem) != 0)) {
+            return null;
+        }
+        return perfilador;
+    }
+
+    /**
+     * Executa um bloco sob o monitor da conta, medindo a espera e a retenção se o bloco for
+     * sorteado pelo perfilador ativo
+     * @param conta Conta cujo monitor é adquirido
+     * @param numeroConta Número completo da conta
+     * @param operacao Operação registrada
+     * @param corpo Corpo do bloco (executado com o monitor adquirido)
+     * @return Resultado do bloco
+     */
+    static <R> R executar(Object conta, String numeroConta, OperacaoPerfilada operacao, Supplier<R> corpo) {
+        PerfiladorContencao perfilador = amostrar();
+        if (perfilador == null || Thread.holdsLock(conta)) {
+            synchronized (conta) {
+                return corpo.get();
+            }
+        }
+        long inicio = System.nanoTime();
+        long adquirido;
+        long liberado;
+        R resultado;
+        synchronized (conta) {
+            adquirido = System.nanoTime();
+            resultado = corpo.get();
+            liberado = System.nanoTime();
+        }
+        perfilador.registrar(numeroConta, operacao, adquirido - inicio, liberado - adquirido);
+        return resultado;
+    }
+
+    /**
+     * Variante de executar para blocos sem retorno
+     */
+    static void executar(Object conta, String numeroConta, OperacaoPerfilada operacao, Runnable corpo) {
+        executar(conta, numeroConta, operacao, () -> {
+            corpo.run();
+            return null;
+        });
+    }
+
+    /**
+     * Executa a operação sob o monitor da conta, medindo a espera e a retenção (sem amostra se a
+     * thread já detiver o monitor)
+     * @param conta Conta cujo monitor é adquirido
+     * @param numeroConta Número completo da conta
+     * @param operacao Operação medida
+     * @param corpo Corpo da operação (executado com o monitor adquirido)
+     * @return Resultado da operação
+     */
+    boolean medir(Object conta, String numeroConta, OperacaoPerfilada operacao, BooleanSupplier corpo) {
+        if (Thread.holdsLock(conta)) {
+            return corpo.getAsBoolean();
+        }
+        long inicio = System.nanoTime();
+        long adquirido;
+        long liberado;
+        boolean resultado;
+        synchronized (conta) {
+            adquirido = System.nanoTime();
+            resultado = corpo.getAsBoolean();
+            liberado = System.nanoTime();
+        }
+        registrar(numeroConta, operacao, adquirido - inicio, liberado - adquirido);
+        return resultado;
+    }
+
+    /**
+     * Variante de medir para operações que devolvem um valor
+     */
+    long medirValor(Object conta, String numeroConta, OperacaoPerfilada operacao, LongSupplier corpo) {
+        if (Thread.holdsLock(conta)) {
+            return corpo.getAsLong();
+        }
+        long inicio = System.nanoTime();
+        long adquirido;
+        long liberado;
+        long resultado;
+        synchronized (conta) {
+            adquirido = System.nanoTime();
+            resultado = corpo.getAsLong();
+            liberado = System.nanoTime();
+        }
+        registrar(numeroConta, operacao, adquirido - inicio, liberado - adquirido);
+        return resultado;
+    }
+
+    /**
+     * Variante de medir para operações sem retorno
+     */
+    void medirAcao(Object conta, String numeroConta, OperacaoPerfilada operacao, Runnable corpo) {
+        if (Thread.holdsLock(conta)) {
+            corpo.run();
+            return;
+        }
+        long inicio = System.nanoTime();
+        long adquirido;
+        long liberado;
+        synchronized (conta) {
+            adquirido = System.nanoTime();
+            corpo.run();
+            liberado = System.nanoTime();
+        }
+        registrar(numeroConta, operacao, adquirido - inicio, liberado - adquirido);
+    }
+
+    /**
+     * Registra uma amostra, fora do monitor da conta
+     */
+    private void registrar(String numeroConta, OperacaoPerfilada operacao, long espera, long retencao) {
+        operacoes[operacao.ordinal()].registrar(espera, retencao);
+        if (espera >= ESPERA_MINIMA_NANOS) {
+            int hash = numeroConta.hashCode();
+            faixas[(hash ^ (hash >>> 16)) & (FAIXAS - 1)].registrar(numeroConta, operacao, espera, retencao);
+        }
+    }
+
+    /**
+     * Retorna as contas com maior tempo de espera amostrado, em ordem decrescente
+     * @return Até topK contas quentes
+     */
+    public List<ContaQuente> getContasQuentes() {
+        List<ContaQuente> todas = new ArrayList<>();
+        for (Resumo faixa : faixas) {
+            faixa.copiarPara(todas);
+        }
+        todas.sort((a, b) -> Long.compare(b.getEsperaNanos(), a.getEsperaNanos()));
+        return Collections.unmodifiableList(new ArrayList<>(todas.subList(0, Math.min(topK, todas.size()))));
+    }
+
+    /**
+     * Retorna a espera e a retenção amostradas de cada operação
+     * @return Estatísticas na ordem de OperacaoPerfilada
+     */
+    public List<EstatisticaOperacao> getEstatisticas() {
+        List<EstatisticaOperacao> estatisticas = new ArrayList<>();
+        for (OperacaoPerfilada operacao : OperacaoPerfilada.values()) {
+            estatisticas.add(operacoes[operacao.ordinal()].copiar(operacao));
+        }
+        return estatisticas;
+    }
+
+    /**
+     * Monta o relatório de contenção com as estatísticas por operação e as contas quentes
+     * @return Texto do relatório
+     */
+    public String relatorio() {
+        StringBuilder texto = new StringBuilder();
+        texto.append(String.format("=== Contenção nas contas (amostragem 1/%d) ===%n", taxaAmostragem));
+        for (EstatisticaOperacao estatistica : getEstatisticas()) {
+            if (estatistica.getAmostras() > 0) {
+                texto.append(estatistica).append(String.format("%n"));
+            }
+        }
+        List<ContaQuente> quentes = getContasQuentes();
+        if (quentes.isEmpty()) {
+            texto.append(String.format("Nenhuma conta com contenção registrada%n"));
+        } else {
+            texto.append(String.format("Contas quentes:%n"));
+            for (int i = 0; i < quentes.size(); i++) {
+                texto.append(String.format("%2d. %s%n", i + 1, quentes.get(i)));
+            }
+        }
+        return texto.toString();
+    }
+
+    /**
+     * Passa a exibir o relatório periodicamente
+     * @param intervalo Intervalo entre relatórios
+     */
+    public synchronized void iniciarDespejo(Duration intervalo) {
+        if (intervalo.isNegative() || intervalo.isZero()) {
+            throw new IllegalArgumentException("Intervalo do relatório deve ser positivo");
+        }
+        if (despejo != null) {
+            throw new IllegalStateException("Relatório periódico já iniciado");
+        }
+        despejo = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "perfilador-contencao");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long periodo = intervalo.toMillis();
+        despejo.scheduleWithFixedDelay(() -> System.out.print(relatorio()), periodo, periodo, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Descarta as medições acumuladas
+     */
+    public void reiniciar() {
+        for (Estatistica estatistica : operacoes) {
+            estatistica.reiniciar();
+        }
+        for (Resumo faixa : faixas) {
+            faixa.reiniciar();
+        }
+    }
+
+    /**
+     * Interrompe o relatório periódico
+     */
+    @Override
+    public synchronized void close() {
+        if (despejo != null) {
+            despejo.shutdownNow();
+            despejo = null;
+        }
+    }
+
+    public int getTaxaAmostragem() {
+        return taxaAmostragem;
+    }
+
+    public int getTopK() {
+        return topK;
+    }
+
+    /**
+     * Retorna o perfilador usado pelas contas
+     * @return Perfilador ativo ou null se desligado
+     */
+    public static PerfiladorContencao getAtivo() {
+        return ativo;
+    }
+
+    /**
+     * Define o perfilador usado pelas contas a partir das próximas operações
+     * @param perfilador Novo perfilador ou null para desligar
+     */
+    public static void setAtivo(PerfiladorContencao perfilador) {
+        ativo = perfilador;
+    }
+
+    /**
+     * Totais de uma operação (atualizados sem bloqueio)
+     */
+    private static final class Estatistica {
+        final LongAdder amostras = new LongAdder();
+        final LongAdder contidas = new LongAdder();
+        final LongAdder espera = new LongAdder();
+        final LongAdder retencao = new LongAdder();
+        final LongAccumulator esperaMaxima = new LongAccumulator(Math::max, 0);
+        final LongAccumulator retencaoMaxima = new LongAccumulator(Math::max, 0);
+
+        void registrar(long tempoEspera, long tempoRetencao) {
+            amostras.increment();
+            if (tempoEspera >= ESPERA_MINIMA_NANOS) {
+                contidas.increment();
+            }
+            espera.add(tempoEspera);
+            retencao.add(tempoRetencao);
+            esperaMaxima.accumulate(tempoEspera);
+            retencaoMaxima.accumulate(tempoRetencao);
+        }
+
+        EstatisticaOperacao copiar(OperacaoPerfilada operacao) {
+            return new EstatisticaOperacao(operacao, amostras.sum(), contidas.sum(), espera.sum(),
+                    esperaMaxima.get(), retencao.sum(), retencaoMaxima.get());
+        }
+
+        void reiniciar() {
+            amostras.reset();
+            contidas.reset();
+            espera.reset();
+            retencao.reset();
+            esperaMaxima.reset();
+            retencaoMaxima.reset();
+        }
+    }
+
+    /**
+     * Resumo Space-Saving de uma faixa de contas, com no máximo 'capacidade' contadores
+     */
+    private static final class Resumo {
+        // Quantidade máxima de contadores
+        private final int capacidade;
+
+        // Contador de cada conta monitorada
+        private final Map<String, Contador> contadores;
+
+        Resumo(int capacidade) {
+            this.capacidade = capacidade;
+            this.contadores = new HashMap<>();
+        }
+
+        synchronized void registrar(String numeroConta, OperacaoPerfilada operacao, long espera, long retencao) {
+            Contador contador = contadores.get(numeroConta);
+            if (contador == null) {
+                if (contadores.size() < capacidade) {
+                    contador = new Contador(numeroConta, 0);
+                } else {
+                    // Substitui a conta de menor peso, herdando seu peso como erro
+                    Contador menor = null;
+                    for (Contador candidato : contadores.values()) {
+                        if (menor == null || candidato.peso < menor.peso) {
+                            menor = candidato;
+                        }
+                    }
+                    contadores.remove(menor.numeroConta);
+                    contador = new Contador(numeroConta, menor.peso);
+                }
+                contadores.put(numeroConta, contador);
+            }
+            contador.peso += espera;
+            contador.amostras++;
+            contador.retencao += retencao;
+            contador.esperaPorOperacao[operacao.ordinal()] += espera;
+        }
+
+        synchronized void copiarPara(List<ContaQuente> destino) {
+            for (Contador contador : contadores.values()) {
+                Map<OperacaoPerfilada, Long> porOperacao = new EnumMap<>(OperacaoPerfilada.class);
+                for (OperacaoPerfilada operacao : OperacaoPerfilada.values()) {
+                    long espera = contador.esperaPorOperacao[operacao.ordinal()];
+                    if (espera > 0) {
+                        porOperacao.put(operacao, espera);
+                    }
+                }
+                destino.add(new ContaQuente(contador.numeroConta, contador.peso, contador.erro,
+                        contador.amostras, contador.retencao, porOperacao));
+            }
+        }
+
+        synchronized void reiniciar() {
+            contadores.clear();
+        }
+    }
+
+    /**
+     * Contador de uma conta no resumo
+     */
+    private static final class Contador {
+        final String numeroConta;
+        final long erro;
+        long peso;
+        long amostras;
+        long retencao;
+        final long[] esperaPorOperacao = new long[OperacaoPerfilada.values().length];
+
+        Contador(String numeroConta, long pesoHerdado) {
+            this.numeroConta = numeroConta;
+            this.erro = pesoHerdado;
+            this.peso = pesoHerdado;
+        }
+    }
+
+    /**
+     * Conta quente do relatório de contenção
+     */
+    public static class ContaQuente {
+        // Número completo da conta
+        private final String numeroConta;
+
+        // Espera estimada (amostrada) pelo monitor da conta, em nanossegundos
+        private final long esperaNanos;
+
+        // Erro máximo da estimativa (a espera real amostrada está entre esperaNanos - erro e esperaNanos)
+        private final long erroNanos;
+
+        // Amostras com contenção desde a entrada da conta no resumo
+        private final long amostras;
+
+        // Retenção do monitor nessas amostras, em nanossegundos
+        private final long retencaoNanos;
+
+        // Espera por operação desde a entrada da conta no resumo
+        private final Map<OperacaoPerfilada, Long> esperaPorOperacao;
+
+        ContaQuente(String numeroConta, long esperaNanos, long erroNanos, long amostras, long retencaoNanos,
+                    Map<OperacaoPerfilada, Long> esperaPorOperacao) {
+            this.numeroConta = numeroConta;
+            this.esperaNanos = esperaNanos;
+            this.erroNanos = erroNanos;
+            this.amostras = amostras;
+            this.retencaoNanos = retencaoNanos;
+            this.esperaPorOperacao = Collections.unmodifiableMap(esperaPorOperacao);
+        }
+
+        public String getNumeroConta() {
+            return numeroConta;
+        }
+
+        public long getEsperaNanos() {
+            return esperaNanos;
+        }
+
+        public long getErroNanos() {
+            return erroNanos;
+        }
+
+        public long getAmostras() {
+            return amostras;
+        }
+
+        public long getRetencaoNanos() {
+            return retencaoNanos;
+        }
+
+        public Map<OperacaoPerfilada, Long> getEsperaPorOperacao() {
+            return esperaPorOperacao;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder porOperacao = new StringBuilder();
+            esperaPorOperacao.forEach((operacao, espera) -> porOperacao.append(porOperacao.length() == 0 ? "" : ", ")
+                    .append(String.format("%s %.3f ms", operacao, espera / 1e6)));
+            return String.format("%s | espera %.3f ms (erro ≤ %.3f ms) | %d amostra(s) | retenção %.3f ms | %s",
+                    numeroConta, esperaNanos / 1e6, erroNanos / 1e6, amostras, retencaoNanos / 1e6, porOperacao);
+        }
+    }
+
+    /**
+     * Espera e retenção amostradas de uma operação
+     */
+    public static class EstatisticaOperacao {
+        // Operação medida
+        private final OperacaoPerfilada operacao;
+
+        // Operações amostradas
+        private final long amostras;
+
+        // Amostras com espera acima de ESPERA_MINIMA_NANOS
+        private final long contidas;
+
+        // Espera total e máxima, em nanossegundos
+        private final long esperaTotalNanos;
+        private final long esperaMaximaNanos;
+
+        // Retenção total e máxima, em nanossegundos
+        private final long retencaoTotalNanos;
+        private final long retencaoMaximaNanos;
+
+        EstatisticaOperacao(OperacaoPerfilada operacao, long amostras, long contidas, long esperaTotalNanos,
+                            long esperaMaximaNanos, long retencaoTotalNanos, long retencaoMaximaNanos) {
+            this.operacao = operacao;
+            this.amostras = amostras;
+            this.contidas = contidas;
+            this.esperaTotalNanos = esperaTotalNanos;
+            this.esperaMaximaNanos = esperaMaximaNanos;
+            this.retencaoTotalNanos = retencaoTotalNanos;
+            this.retencaoMaximaNanos = retencaoMaximaNanos;
+        }
+
+        public OperacaoPerfilada getOperacao() {
+            return operacao;
+        }
+
+        public long getAmostras() {
+            return amostras;
+        }
+
+        public long getContidas() {
+            return contidas;
+        }
+
+        public long getEsperaTotalNanos() {
+            return esperaTotalNanos;
+        }
+
+        public long getEsperaMaximaNanos() {
+            return esperaMaximaNanos;
+        }
+
+        public long getRetencaoTotalNanos() {
+            return retencaoTotalNanos;
+        }
+
+        public long getRetencaoMaximaNanos() {
+            return retencaoMaximaNanos;
+        }
+
+        public double getEsperaMediaNanos() {
+            return amostras == 0 ? 0 : (double) esperaTotalNanos / amostras;
+        }
+
+        public double getRetencaoMediaNanos() {
+            return amostras == 0 ? 0 : (double) retencaoTotalNanos / amostras;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-10s %d amostra(s), %d com contenção | espera média %.1f µs (máx %.1f µs)"
+                            + " | retenção média %.1f µs (máx %.1f µs)",
+                    operacao, amostras, contidas, getEsperaMediaNanos() / 1e3, esperaMaximaNanos / 1e3,
+                    getRetencaoMediaNanos() / 1e3, retencaoMaximaNanos / 1e3);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package service;
+
+import java.time.LocalDate;
+
+/**
+ * Periodicidade de um pagamento agendado (AgendadorPagamentos)
+ *
+ * Valores:
+ * - UNICA: Pagamento executado uma única vez
+ * - SEMANAL: Repete a cada 7 dias
+ * - MENSAL: Repete todo mês no mesmo dia; em meses mais curtos, no último dia do mês
+ */
+public enum Periodicidade {
+    UNICA,
+    SEMANAL,
+    MENSAL;
+
+    /**
+     * Calcula a data da próxima ocorrência
+     * @param data Data da ocorrência atual
+     * @param diaDoMes Dia do mês da primeira ocorrência (usado pela periodicidade mensal)
+     * @return Data da próxima ocorrência ou null se o pagamento não se repete
+     */
+    LocalDate proxima(LocalDate data, int diaDoMes) {
+        switch (this) {
+            case SEMANAL:
+                return data.plusWeeks(1);
+            case MENSAL:
+                LocalDate mes = data.withDayOfMonth(1).plusMonths(1);
+                return mes.withDayOfMonth(Math.min(diaDoMes, mes.lengthOfMonth()));
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package service;
+
+/**
+ * Interface que define a política de crédito usada no cálculo do limite de cheque especial.
+ * A política ativa é configurada em ContaCorrente.setPoliticaLimite e pode ser trocada em tempo
+ * de execução; ReavaliadorLimites aplica uma nova política a todas as contas correntes.
+ *
+ * Métodos:
+ * - calcularLimite(long saldo, String agencia, int usosChequeEspecial): long - Limite da conta em centavos
+ *
+ * Requisitos para implementações:
+ * - O cálculo deve depender apenas dos parâmetros (sem efeitos colaterais), pois é executado
+ *   em paralelo sobre várias contas durante a reavaliação em lote
+ *
+ * Padrões de projeto relacionados:
+ * - Strategy: Cada implementação define uma regra de crédito diferente
+ */
+public interface PoliticaLimite {
+    /**
+     * Calcula o limite de cheque especial de uma conta
+     * @param saldo Saldo atual da conta em centavos
+     * @param agencia Agência da conta
+     * @param usosChequeEspecial Quantidade de vezes que a conta entrou no cheque especial
+     * @return Limite de cheque especial em centavos (nunca negativo)
+     */
+    long calcularLimite(long saldo, String agencia, int usosChequeEspecial);
+}
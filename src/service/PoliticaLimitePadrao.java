@@ -0,0 +1,17 @@
+package service;
+
+/**
+ * Política de limite original do banco: 20% do saldo para saldos até R$ 500,00
+ * e 50% do saldo para saldos maiores.
+ */
+public class PoliticaLimitePadrao implements PoliticaLimite {
+    // Saldo (centavos) até o qual vale o percentual menor
+    private static final long SALDO_FAIXA_BAIXA = 500_00;
+
+    @Override
+    public long calcularLimite(long saldo, String agencia, int usosChequeEspecial) {
+        return saldo <= SALDO_FAIXA_BAIXA ?
+                Dinheiro.aplicarTaxa(saldo, 20, 100) : // 20% para saldos baixos
+                Dinheiro.aplicarTaxa(saldo, 50, 100);  // 50% para saldos maiores
+    }
+}
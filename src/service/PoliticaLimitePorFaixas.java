@@ -0,0 +1,121 @@
+package service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Política de limite configurável por faixas de saldo, com ajustes por agência e por
+ * histórico de uso do cheque especial.
+ *
+ * Cálculo:
+ * - limite = saldo * percentual da faixa * fator da agência * fator de histórico
+ * - percentual da faixa: maior faixa cujo saldo mínimo seja menor ou igual ao saldo
+ * - fator da agência: 1 (10.000 pontos-base) quando a agência não tiver fator próprio
+ * - fator de histórico: 1 - reducaoPorUso * usos, nunca abaixo de fatorMinimoHistorico
+ * - percentuais e fatores são inteiros em pontos-base (10.000 = 100%) e são combinados antes da
+ *   multiplicação, feita por Dinheiro.aplicarTaxa e arredondada uma única vez para o centavo
+ *   (empates para o par), sem passar por double
+ *
+ * Atributos:
+ * - faixas: TreeMap<Long, Long> - Saldo mínimo da faixa (centavos) -> percentual do saldo em pontos-base (final)
+ * - fatoresAgencia: Map<String, Long> - Agência -> multiplicador do limite em pontos-base (final)
+ * - reducaoPorUso: long - Redução do limite a cada uso do cheque especial, em pontos-base
+ * - fatorMinimoHistorico: long - Piso do fator de histórico, em pontos-base
+ *
+ * Métodos Públicos:
+ * - adicionarFaixa(long saldoMinimo, long percentual): void - Define o percentual a partir de um saldo
+ * - definirFatorAgencia(String agencia, long fator): void - Define o multiplicador de uma agência
+ * - definirReducaoPorUso(long reducaoPorUso, long fatorMinimo): void - Configura a penalidade por uso
+ * - calcularLimite(...): long - Implementação da interface PoliticaLimite
+ *
+ * Observação:
+ * - A configuração deve ser concluída antes de a política ser instalada; depois disso ela é
+ *   apenas lida, inclusive por várias threads ao mesmo tempo
+ */
+public class PoliticaLimitePorFaixas implements PoliticaLimite {
+    // Escala dos percentuais e fatores (10.000 pontos-base = 100%)
+    public static final long PONTOS_BASE = 10_000;
+
+    // Maior percentual ou fator aceito (100 vezes): o produto dos três fatores cabe em long
+    private static final long FATOR_MAXIMO = 100 * PONTOS_BASE;
+
+    // Denominador dos três fatores combinados
+    private static final long DENOMINADOR_COMBINADO = PONTOS_BASE * PONTOS_BASE * PONTOS_BASE;
+
+    // Saldo mínimo da faixa (centavos) -> percentual do saldo, em pontos-base
+    private final TreeMap<Long, Long> faixas;
+
+    // Agência -> multiplicador do limite, em pontos-base
+    private final Map<String, Long> fatoresAgencia;
+
+    // Redução do limite a cada uso do cheque especial, em pontos-base
+    private long reducaoPorUso;
+
+    // Piso do fator de histórico, em pontos-base
+    private long fatorMinimoHistorico;
+
+    /**
+     * Construtor da política sem faixas (limite zero até que faixas sejam adicionadas)
+     */
+    public PoliticaLimitePorFaixas() {
+        this.faixas = new TreeMap<>();
+        this.fatoresAgencia = new HashMap<>();
+        this.reducaoPorUso = 0;
+        this.fatorMinimoHistorico = PONTOS_BASE;
+    }
+
+    /**
+     * Define o percentual do saldo concedido a partir de um saldo mínimo
+     * @param saldoMinimo Saldo a partir do qual a faixa vale, em centavos
+     * @param percentual Percentual do saldo concedido como limite, em pontos-base (ex: 3000 para 30%)
+     */
+    public void adicionarFaixa(long saldoMinimo, long percentual) {
+        if (percentual < 0 || percentual > FATOR_MAXIMO) {
+            throw new IllegalArgumentException("Percentual da faixa deve estar entre 0 e " + FATOR_MAXIMO);
+        }
+        faixas.put(saldoMinimo, percentual);
+    }
+
+    /**
+     * Define o multiplicador de limite de uma agência
+     * @param agencia Agência bancária
+     * @param fator Multiplicador em pontos-base (ex: 12000 para 20% a mais)
+     */
+    public void definirFatorAgencia(String agencia, long fator) {
+        if (fator < 0 || fator > FATOR_MAXIMO) {
+            throw new IllegalArgumentException("Fator da agência deve estar entre 0 e " + FATOR_MAXIMO);
+        }
+        fatoresAgencia.put(agencia, fator);
+    }
+
+    /**
+     * Configura a penalidade por uso do cheque especial
+     * @param reducaoPorUso Parte do limite retirada a cada uso, em pontos-base (ex: 500 para 5%)
+     * @param fatorMinimo Menor fator aplicado, por mais usos que a conta tenha, em pontos-base (ex: 5000)
+     */
+    public void definirReducaoPorUso(long reducaoPorUso, long fatorMinimo) {
+        if (reducaoPorUso < 0 || reducaoPorUso > PONTOS_BASE || fatorMinimo < 0 || fatorMinimo > PONTOS_BASE) {
+            throw new IllegalArgumentException("Parâmetros de redução por uso inválidos");
+        }
+        this.reducaoPorUso = reducaoPorUso;
+        this.fatorMinimoHistorico = fatorMinimo;
+    }
+
+    @Override
+    public long calcularLimite(long saldo, String agencia, int usosChequeEspecial) {
+        if (saldo <= 0) {
+            return 0;
+        }
+        Map.Entry<Long, Long> faixa = faixas.floorEntry(saldo);
+        if (faixa == null) {
+            return 0;
+        }
+        long fatorAgencia = fatoresAgencia.getOrDefault(agencia, PONTOS_BASE);
+        // reducaoPorUso * usos pode passar de PONTOS_BASE; o piso limita o fator
+        long reducao = Math.min(PONTOS_BASE, reducaoPorUso * usosChequeEspecial);
+        long fatorHistorico = Math.max(fatorMinimoHistorico, PONTOS_BASE - reducao);
+        long fator = faixa.getValue() * fatorAgencia * fatorHistorico;
+        return Math.max(0, Dinheiro.aplicarTaxa(saldo, fator, DENOMINADOR_COMBINADO));
+    }
+}
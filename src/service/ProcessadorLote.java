@@ -0,0 +1,416 @@
+package service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Processamento em lote de fim de dia (rendimento da poupança, juros do cheque especial, etc.).
+ *
+ * Cada execução percorre todas as contas do banco em blocos distribuídos entre threads de
+ * trabalho. A conclusão de cada bloco é registrada em um checkpoint em disco (CheckpointLote);
+ * após uma queda, a mesma execução é retomada processando apenas os blocos não concluídos.
+ *
+ * Atributos:
+ * - banco: Banco - Banco cujas contas são processadas (final)
+ * - diretorioCheckpoints: Path - Diretório dos arquivos de checkpoint (final)
+ * - tamanhoBloco: int - Quantidade de contas por bloco (final)
+ * - trabalhadores: ExecutorService - Threads que processam os blocos (final)
+ * - agendador: ScheduledExecutorService - Dispara as execuções diárias (final)
+ *
+ * Métodos Públicos:
+ * - executar(TarefaLote tarefa, LocalDate dataReferencia): Resultado - Executa (ou retoma) a tarefa na data
+ * - retomarInterrompidas(List<TarefaLote> tarefas): List<Resultado> - Retoma execuções com checkpoint não finalizado
+ * - agendarDiariamente(List<TarefaLote> tarefas, LocalTime horario): void - Agenda as tarefas para todo dia
+ * - close(): void - Encerra as threads do processamento
+ *
+ * Convivência com operações online:
+ * - Cada conta é processada com seu próprio monitor, adquirido por uma única conta de cada vez;
+ *   depósitos e saques concorrentes esperam no máximo o processamento de uma conta
+ * - A quantidade de threads de trabalho limita a fração de CPU usada pelo lote
+ * - Contas em disco (armazenamento em camadas) são processadas e regravadas sem voltar à memória,
+ *   e o lote não marca acesso nas contas residentes: o conjunto de contas ativas em memória
+ *   não é trocado pelas contas inativas visitadas
+ */
+public class ProcessadorLote implements AutoCloseable {
+    // Quantidade padrão de contas por bloco
+    public static final int TAMANHO_BLOCO_PADRAO = 10_000;
+
+    // Banco cujas contas são processadas
+    private final Banco banco;
+
+    // Diretório dos arquivos de checkpoint
+    private final Path diretorioCheckpoints;
+
+    // Quantidade de contas por bloco
+    private final int tamanhoBloco;
+
+    // Threads que processam os blocos
+    private final ExecutorService trabalhadores;
+
+    // Dispara as execuções diárias
+    private final ScheduledExecutorService agendador;
+
+    /**
+     * Construtor com tamanho de bloco padrão e metade dos núcleos como threads de trabalho
+     * @param banco Banco cujas contas serão processadas
+     * @param diretorioCheckpoints Diretório dos checkpoints (criado se não existir)
+     * @throws IOException se o diretório não puder ser criado
+     */
+    public ProcessadorLote(Banco banco, Path diretorioCheckpoints) throws IOException {
+        this(banco, diretorioCheckpoints, TAMANHO_BLOCO_PADRAO,
+                Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    }
+
+    /**
+     * Construtor do processamento em lote
+     * @param banco Banco cujas contas serão processadas
+     * @param diretorioCheckpoints Diretório dos checkpoints (criado se não existir)
+     * @param tamanhoBloco Quantidade de contas por bloco
+     * @param threads Quantidade de threads de trabalho
+     * @throws IOException se o diretório não puder ser criado
+     */
+    public ProcessadorLote(Banco banco, Path diretorioCheckpoints, int tamanhoBloco, int threads)
+            throws IOException {
+        if (tamanhoBloco <= 0 || threads <= 0) {
+            throw new IllegalArgumentException("Tamanho do bloco e quantidade de threads devem ser positivos");
+        }
+        this.banco = banco;
+        this.diretorioCheckpoints = Files.createDirectories(diretorioCheckpoints);
+        this.tamanhoBloco = tamanhoBloco;
+        AtomicInteger contador = new AtomicInteger();
+        this.trabalhadores = Executors.newFixedThreadPool(threads, tarefa -> {
+            Thread thread = new Thread(tarefa, "lote-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.agendador = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "lote-agendador");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Executa a tarefa sobre todas as contas na data de referência, retomando a partir do
+     * checkpoint se a execução já tiver sido iniciada
+     * @param tarefa Tarefa a ser executada
+     * @param dataReferencia Data do processamento
+     * @return Resultado da execução
+     * @throws IOException se o checkpoint não puder ser lido ou gravado
+     */
+    public Resultado executar(TarefaLote tarefa, LocalDate dataReferencia) throws IOException {
+        long inicio = System.nanoTime();
+        if (!tarefa.deveExecutar(dataReferencia)) {
+            return new Resultado(tarefa.getNome(), dataReferencia, 0, 0, 0, 0, 0, 0, 0);
+        }
+
+        // Números de todas as contas, inclusive as gravadas em disco pelo armazenamento em camadas
+        List<String> numeros = banco.getNumerosContas();
+        Collections.sort(numeros);
+
+        try (CheckpointLote checkpoint = CheckpointLote.abrir(arquivoCheckpoint(tarefa, dataReferencia),
+                cabecalho(tarefa, dataReferencia), calcularLimites(numeros))) {
+            List<String> limites = checkpoint.getLimites();
+            if (checkpoint.isFinalizado()) {
+                return new Resultado(tarefa.getNome(), dataReferencia, limites.size(), limites.size(),
+                        0, 0, 0, 0, System.nanoTime() - inicio);
+            }
+
+            List<List<String>> blocos = separarEmBlocos(numeros, limites);
+            LongAdder processadas = new LongAdder();
+            LongAdder alteradas = new LongAdder();
+            List<Future<?>> pendentes = new ArrayList<>();
+            int pulados = 0;
+
+            for (int i = 0; i < blocos.size(); i++) {
+                if (checkpoint.estaConcluido(i)) {
+                    pulados++;
+                    continue;
+                }
+                int indice = i;
+                List<String> bloco = blocos.get(i);
+                pendentes.add(trabalhadores.submit(() -> {
+                    processarBloco(banco, tarefa, dataReferencia, bloco, processadas, alteradas);
+                    checkpoint.marcarConcluido(indice);
+                    return null;
+                }));
+            }
+
+            int falhas = 0;
+            for (Future<?> pendente : pendentes) {
+                try {
+                    pendente.get();
+                } catch (ExecutionException e) {
+                    falhas++;
+                    System.out.println("Falha em bloco da tarefa " + tarefa.getNome() + ": " + e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Processamento em lote interrompido", e);
+                }
+            }
+
+            if (falhas == 0) {
+                checkpoint.finalizar();
+            }
+            return new Resultado(tarefa.getNome(), dataReferencia, blocos.size(), pulados,
+                    pendentes.size() - falhas, falhas, processadas.sum(), alteradas.sum(),
+                    System.nanoTime() - inicio);
+        }
+    }
+
+    /**
+     * Retoma as execuções cujo checkpoint existe mas não foi finalizado (ex: após uma queda)
+     * @param tarefas Tarefas conhecidas
+     * @return Resultados das execuções retomadas
+     * @throws IOException se algum checkpoint não puder ser lido ou gravado
+     */
+    public List<Resultado> retomarInterrompidas(List<TarefaLote> tarefas) throws IOException {
+        List<Resultado> resultados = new ArrayList<>();
+        for (TarefaLote tarefa : tarefas) {
+            // Apenas "<tarefa>-<aaaa-mm-dd>.ckpt": o nome de outra tarefa pode começar com o desta
+            Pattern padrao = Pattern.compile(Pattern.quote(tarefa.getNome()) + "-(\\d{4}-\\d{2}-\\d{2})\\.ckpt");
+            List<Path> arquivos;
+            try (var listagem = Files.list(diretorioCheckpoints)) {
+                arquivos = listagem.filter(arquivo -> padrao.matcher(arquivo.getFileName().toString()).matches())
+                        .sorted().toList();
+            }
+            for (Path arquivo : arquivos) {
+                Matcher nome = padrao.matcher(arquivo.getFileName().toString());
+                nome.matches();
+                LocalDate data;
+                try {
+                    data = LocalDate.parse(nome.group(1));
+                } catch (DateTimeParseException e) {
+                    // Data inexistente no nome do arquivo: não é um checkpoint desta tarefa
+                    continue;
+                }
+                boolean finalizado;
+                try (CheckpointLote checkpoint = CheckpointLote.abrir(arquivo, cabecalho(tarefa, data), List.of())) {
+                    finalizado = checkpoint.isFinalizado();
+                }
+                if (!finalizado) {
+                    resultados.add(executar(tarefa, data));
+                }
+            }
+        }
+        return resultados;
+    }
+
+    /**
+     * Agenda as tarefas para rodar todos os dias no horário informado. Execuções interrompidas
+     * são retomadas imediatamente
+     * @param tarefas Tarefas a serem executadas, na ordem informada
+     * @param horario Horário diário de execução
+     */
+    public void agendarDiariamente(List<TarefaLote> tarefas, LocalTime horario) {
+        List<TarefaLote> copia = List.copyOf(tarefas);
+        agendador.execute(() -> {
+            try {
+                retomarInterrompidas(copia).forEach(System.out::println);
+            } catch (IOException e) {
+                System.out.println("Falha ao retomar processamento em lote: " + e.getMessage());
+            }
+        });
+
+        LocalDateTime agora = LocalDateTime.now();
+        LocalDateTime proxima = agora.toLocalDate().atTime(horario);
+        if (!proxima.isAfter(agora)) {
+            proxima = proxima.plusDays(1);
+        }
+        agendador.scheduleAtFixedRate(() -> {
+            LocalDate hoje = LocalDate.now();
+            for (TarefaLote tarefa : copia) {
+                try {
+                    System.out.println(executar(tarefa, hoje));
+                } catch (IOException e) {
+                    System.out.println("Falha na tarefa " + tarefa.getNome() + ": " + e.getMessage());
+                }
+            }
+        }, Duration.between(agora, proxima).toMillis(), TimeUnit.DAYS.toMillis(1), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Encerra as threads do processamento (execuções em andamento são interrompidas e
+     * retomadas pelo checkpoint na próxima vez)
+     */
+    @Override
+    public void close() {
+        agendador.shutdownNow();
+        trabalhadores.shutdownNow();
+    }
+
+    /**
+     * Processa as contas de um bloco, uma de cada vez e com o monitor da própria conta.
+     * Contas em disco são processadas sem serem carregadas; contas removidas são ignoradas
+     */
+    private static void processarBloco(Banco banco, TarefaLote tarefa, LocalDate dataReferencia,
+                                       List<String> bloco, LongAdder processadas, LongAdder alteradas) {
+        for (String numero : bloco) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new IllegalStateException("Processamento do bloco interrompido");
+            }
+            Boolean alterada = banco.processarSemCarregar(numero, conta ->
+                    PerfiladorContencao.executar(conta, numero, OperacaoPerfilada.LOTE,
+                            () -> tarefa.processar(conta, dataReferencia)));
+            if (alterada == null) {
+                continue;
+            }
+            processadas.increment();
+            if (alterada) {
+                alteradas.increment();
+            }
+        }
+    }
+
+    /**
+     * Define os limites dos blocos: o primeiro número de conta de cada grupo de tamanhoBloco contas
+     */
+    private List<String> calcularLimites(List<String> numerosOrdenados) {
+        List<String> limites = new ArrayList<>();
+        for (int i = 0; i < numerosOrdenados.size(); i += tamanhoBloco) {
+            limites.add(numerosOrdenados.get(i));
+        }
+        return limites;
+    }
+
+    /**
+     * Distribui os números ordenados entre os blocos definidos pelos limites do checkpoint.
+     * Números anteriores ao primeiro limite ficam no primeiro bloco
+     */
+    private static List<List<String>> separarEmBlocos(List<String> numerosOrdenados, List<String> limites) {
+        List<List<String>> blocos = new ArrayList<>();
+        for (int i = 0; i < limites.size(); i++) {
+            blocos.add(new ArrayList<>());
+        }
+        if (limites.isEmpty()) {
+            return blocos;
+        }
+        int bloco = 0;
+        for (String numero : numerosOrdenados) {
+            while (bloco + 1 < limites.size() && numero.compareTo(limites.get(bloco + 1)) >= 0) {
+                bloco++;
+            }
+            blocos.get(bloco).add(numero);
+        }
+        return blocos;
+    }
+
+    private Path arquivoCheckpoint(TarefaLote tarefa, LocalDate dataReferencia) {
+        return diretorioCheckpoints.resolve(tarefa.getNome() + "-" + dataReferencia + ".ckpt");
+    }
+
+    private static String cabecalho(TarefaLote tarefa, LocalDate dataReferencia) {
+        return "LOTE " + tarefa.getNome() + " " + dataReferencia;
+    }
+
+    /**
+     * Resultado de uma execução do processamento em lote
+     *
+     * Atributos:
+     * - tarefa: String - Nome da tarefa (final)
+     * - dataReferencia: LocalDate - Data do processamento (final)
+     * - blocos: int - Total de blocos da execução (final)
+     * - blocosPulados: int - Blocos já concluídos antes desta execução (final)
+     * - blocosProcessados: int - Blocos concluídos nesta execução (final)
+     * - blocosComFalha: int - Blocos que falharam e serão refeitos na retomada (final)
+     * - contasProcessadas: long - Contas visitadas nesta execução (final)
+     * - contasAlteradas: long - Contas alteradas pela tarefa (final)
+     * - duracaoNanos: long - Tempo da execução (final)
+     */
+    public static class Resultado {
+        private final String tarefa;
+        private final LocalDate dataReferencia;
+        private final int blocos;
+        private final int blocosPulados;
+        private final int blocosProcessados;
+        private final int blocosComFalha;
+        private final long contasProcessadas;
+        private final long contasAlteradas;
+        private final long duracaoNanos;
+
+        public Resultado(String tarefa, LocalDate dataReferencia, int blocos, int blocosPulados,
+                         int blocosProcessados, int blocosComFalha, long contasProcessadas,
+                         long contasAlteradas, long duracaoNanos) {
+            this.tarefa = tarefa;
+            this.dataReferencia = dataReferencia;
+            this.blocos = blocos;
+            this.blocosPulados = blocosPulados;
+            this.blocosProcessados = blocosProcessados;
+            this.blocosComFalha = blocosComFalha;
+            this.contasProcessadas = contasProcessadas;
+            this.contasAlteradas = contasAlteradas;
+            this.duracaoNanos = duracaoNanos;
+        }
+
+        public String getTarefa() {
+            return tarefa;
+        }
+
+        public LocalDate getDataReferencia() {
+            return dataReferencia;
+        }
+
+        public int getBlocos() {
+            return blocos;
+        }
+
+        public int getBlocosPulados() {
+            return blocosPulados;
+        }
+
+        public int getBlocosProcessados() {
+            return blocosProcessados;
+        }
+
+        public int getBlocosComFalha() {
+            return blocosComFalha;
+        }
+
+        public long getContasProcessadas() {
+            return contasProcessadas;
+        }
+
+        public long getContasAlteradas() {
+            return contasAlteradas;
+        }
+
+        public long getDuracaoNanos() {
+            return duracaoNanos;
+        }
+
+        /**
+         * Indica se todos os blocos da execução estão concluídos
+         * @return true se não houve falhas
+         */
+        public boolean isConcluido() {
+            return blocosComFalha == 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Lote %s (%s): %d bloco(s), %d já concluído(s), %d processado(s), " +
+                            "%d com falha | %d conta(s) processada(s), %d alterada(s) em %.1f ms",
+                    tarefa, dataReferencia, blocos, blocosPulados, blocosProcessados, blocosComFalha,
+                    contasProcessadas, contasAlteradas, duracaoNanos / 1_000_000.0);
+        }
+    }
+}
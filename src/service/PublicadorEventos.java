@@ -0,0 +1,354 @@
+package service;
+
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Feed de alterações de saldo (depósitos, saques, entrada no cheque especial, quitação de juros
+ * e rendimentos) baseado em java.util.concurrent.Flow, para sistemas de notificação e análise.
+ *
+ * Cada assinatura tem um anel de eventos pré-alocados (EventoSaldo) com capacidade fixa.
+ * A conta que publica apenas reserva uma posição do anel com uma operação atômica e preenche os
+ * campos; a entrega ao assinante ocorre no executor, respeitando a demanda pedida em request(n).
+ * Se o anel de um assinante lento estiver cheio, o evento é descartado para esse assinante:
+ * a publicação nunca bloqueia a operação da conta.
+ *
+ * Atributos:
+ * - ativo: PublicadorEventos - Publicador usado pelas contas (estático, null = feed desligado)
+ * - executor: Executor - Executa as entregas aos assinantes (final)
+ * - capacidadePorAssinante: int - Tamanho do anel de cada assinatura (potência de 2) (final)
+ * - assinaturas: Assinatura[] - Assinaturas ativas (cópia na escrita)
+ * - fechado: boolean - Publicador encerrado
+ * - descartados: LongAdder - Eventos descartados por anéis cheios (final)
+ *
+ * Métodos Públicos:
+ * - subscribe(Flow.Subscriber<? super EventoSaldo> assinante): void - Registra um assinante
+ * - getEventosDescartados(): long - Total de eventos descartados
+ * - getQuantidadeAssinantes(): int - Assinaturas ativas
+ * - close(): void - Entrega os eventos pendentes e conclui as assinaturas (onComplete)
+ * - getAtivo() / setAtivo(PublicadorEventos): Publicador usado pelas contas (estáticos)
+ *
+ * Métodos de Pacote:
+ * - publicar(TipoEventoSaldo tipo, String numeroContaCompleto, long valor, long saldoApos): void
+ *
+ * Observação:
+ * - Nenhum objeto é alocado por evento publicado; o EventoSaldo recebido em onNext só é válido
+ *   durante a chamada (use copiar() para guardá-lo)
+ */
+public class PublicadorEventos implements Flow.Publisher<EventoSaldo>, AutoCloseable {
+    // Capacidade padrão do anel de cada assinatura
+    public static final int CAPACIDADE_PADRAO = 1024;
+
+    // Publicador usado pelas contas (null = feed desligado)
+    private static volatile PublicadorEventos ativo;
+
+    // Executa as entregas aos assinantes
+    private final Executor executor;
+
+    // Tamanho do anel de cada assinatura
+    private final int capacidadePorAssinante;
+
+    // Assinaturas ativas (substituído por inteiro a cada inclusão ou remoção)
+    private volatile Assinatura[] assinaturas;
+
+    // Publicador encerrado
+    private volatile boolean fechado;
+
+    // Eventos descartados por anéis cheios
+    private final LongAdder descartados;
+
+    /**
+     * Construtor com o pool comum e a capacidade padrão
+     */
+    public PublicadorEventos() {
+        this(ForkJoinPool.commonPool(), CAPACIDADE_PADRAO);
+    }
+
+    /**
+     * Construtor do publicador
+     * @param executor Executor das entregas aos assinantes
+     * @param capacidadePorAssinante Eventos pendentes por assinatura (arredondado para potência de 2)
+     */
+    public PublicadorEventos(Executor executor, int capacidadePorAssinante) {
+        if (capacidadePorAssinante <= 0) {
+            throw new IllegalArgumentException("Capacidade por assinante deve ser positiva");
+        }
+        this.executor = executor;
+        int capacidade = 1;
+        while (capacidade < capacidadePorAssinante) {
+            capacidade <<= 1;
+        }
+        this.capacidadePorAssinante = capacidade;
+        this.assinaturas = new Assinatura[0];
+        this.descartados = new LongAdder();
+    }
+
+    /**
+     * Registra um assinante. A entrega começa após o primeiro request(n)
+     * @param assinante Assinante do feed
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super EventoSaldo> assinante) {
+        if (assinante == null) {
+            throw new NullPointerException("Assinante não pode ser nulo");
+        }
+        Assinatura assinatura = new Assinatura(assinante);
+        synchronized (this) {
+            if (!fechado) {
+                Assinatura[] novas = Arrays.copyOf(assinaturas, assinaturas.length + 1);
+                novas[novas.length - 1] = assinatura;
+                assinaturas = novas;
+            }
+        }
+        assinante.onSubscribe(assinatura);
+        if (fechado) {
+            assinatura.concluir();
+        }
+    }
+
+    /**
+     * Publica um evento para todas as assinaturas, sem bloquear (chamado pelas contas)
+     * @param tipo Tipo do evento
+     * @param numeroContaCompleto Conta afetada
+     * @param valor Valor da operação, em centavos
+     * @param saldoApos Saldo após a operação, em centavos
+     */
+    void publicar(TipoEventoSaldo tipo, String numeroContaCompleto, long valor, long saldoApos) {
+        Assinatura[] atuais = assinaturas;
+        if (atuais.length == 0) {
+            return;
+        }
+        long agora = System.currentTimeMillis();
+        for (int i = 0; i < atuais.length; i++) {
+            if (!atuais[i].oferecer(tipo, numeroContaCompleto, valor, saldoApos, agora)) {
+                descartados.increment();
+            }
+        }
+    }
+
+    public long getEventosDescartados() {
+        return descartados.sum();
+    }
+
+    public int getQuantidadeAssinantes() {
+        return assinaturas.length;
+    }
+
+    /**
+     * Encerra o publicador: novos eventos são ignorados, os pendentes são entregues conforme a
+     * demanda e cada assinatura recebe onComplete
+     */
+    @Override
+    public void close() {
+        Assinatura[] atuais;
+        synchronized (this) {
+            if (fechado) {
+                return;
+            }
+            fechado = true;
+            atuais = assinaturas;
+            assinaturas = new Assinatura[0];
+        }
+        for (Assinatura assinatura : atuais) {
+            assinatura.concluir();
+        }
+    }
+
+    /**
+     * Retorna o publicador usado pelas contas
+     * @return Publicador ativo ou null se o feed estiver desligado
+     */
+    public static PublicadorEventos getAtivo() {
+        return ativo;
+    }
+
+    /**
+     * Define o publicador usado pelas contas a partir das próximas operações
+     * @param publicador Novo publicador ou null para desligar o feed
+     */
+    public static void setAtivo(PublicadorEventos publicador) {
+        ativo = publicador;
+    }
+
+    private synchronized void remover(Assinatura assinatura) {
+        Assinatura[] atuais = assinaturas;
+        for (int i = 0; i < atuais.length; i++) {
+            if (atuais[i] == assinatura) {
+                Assinatura[] novas = new Assinatura[atuais.length - 1];
+                System.arraycopy(atuais, 0, novas, 0, i);
+                System.arraycopy(atuais, i + 1, novas, i, atuais.length - i - 1);
+                assinaturas = novas;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Assinatura de um assinante: anel limitado de eventos pré-alocados com vários produtores
+     * (as contas) e um único consumidor (a entrega no executor).
+     *
+     * Cada posição tem uma sequência de controle: a posição p está livre para o produtor da
+     * posição lógica p quando controle == p, e preenchida para o consumidor quando
+     * controle == p + 1. Após a entrega, o consumidor a libera para a próxima volta do anel
+     */
+    private final class Assinatura implements Flow.Subscription {
+        // Assinante que recebe os eventos
+        private final Flow.Subscriber<? super EventoSaldo> assinante;
+
+        // Anel de eventos pré-alocados
+        private final EventoSaldo[] eventos;
+
+        // Máscara para o índice no anel
+        private final int mascara;
+
+        // Próxima posição lógica a ser reservada por um produtor
+        private final AtomicLong cauda;
+
+        // Próxima posição lógica a ser entregue (usado apenas pela entrega)
+        private long cabeca;
+
+        // Eventos pedidos pelo assinante e ainda não entregues
+        private final AtomicLong demanda;
+
+        // Pedidos de entrega pendentes (garante uma única entrega em execução)
+        private final AtomicInteger pendencias;
+
+        // Tarefa de entrega reutilizada a cada agendamento
+        private final Runnable tarefaEntrega;
+
+        // Assinatura cancelada pelo assinante
+        private volatile boolean cancelada;
+
+        // Publicador encerrado: concluir após entregar os pendentes
+        private volatile boolean concluindo;
+
+        // onComplete/onError já enviado
+        private boolean terminada;
+
+        Assinatura(Flow.Subscriber<? super EventoSaldo> assinante) {
+            this.assinante = assinante;
+            this.eventos = new EventoSaldo[capacidadePorAssinante];
+            for (int i = 0; i < eventos.length; i++) {
+                eventos[i] = new EventoSaldo(i);
+            }
+            this.mascara = eventos.length - 1;
+            this.cauda = new AtomicLong();
+            this.demanda = new AtomicLong();
+            this.pendencias = new AtomicInteger();
+            this.tarefaEntrega = this::entregar;
+        }
+
+        /**
+         * Reserva uma posição do anel e preenche o evento
+         * @return false se o anel estiver cheio (evento descartado) ou a assinatura cancelada
+         */
+        boolean oferecer(TipoEventoSaldo tipo, String numero, long valor, long saldoApos, long agora) {
+            if (cancelada) {
+                return true;
+            }
+            long posicao;
+            EventoSaldo evento;
+            for (;;) {
+                posicao = cauda.get();
+                evento = eventos[(int) (posicao & mascara)];
+                long controle = evento.controle;
+                if (controle == posicao) {
+                    if (cauda.compareAndSet(posicao, posicao + 1)) {
+                        break;
+                    }
+                } else if (controle < posicao) {
+                    // Posição da volta anterior ainda não entregue: anel cheio
+                    return false;
+                }
+                // Caso contrário outro produtor reservou a posição: tenta a seguinte
+            }
+
+            evento.tipo = tipo;
+            evento.numeroContaCompleto = numero;
+            evento.valor = valor;
+            evento.saldoApos = saldoApos;
+            evento.instanteMillis = agora;
+            evento.controle = posicao + 1;
+            agendar();
+            return true;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancelada = true;
+                remover(this);
+                assinante.onError(new IllegalArgumentException("request(n) exige n positivo (regra 3.9 de Flow)"));
+                return;
+            }
+            long atual;
+            long nova;
+            do {
+                atual = demanda.get();
+                nova = atual + n < 0 ? Long.MAX_VALUE : atual + n;
+            } while (!demanda.compareAndSet(atual, nova));
+            agendar();
+        }
+
+        @Override
+        public void cancel() {
+            cancelada = true;
+            remover(this);
+        }
+
+        void concluir() {
+            concluindo = true;
+            agendar();
+        }
+
+        private void agendar() {
+            if (pendencias.getAndIncrement() == 0) {
+                executor.execute(tarefaEntrega);
+            }
+        }
+
+        /**
+         * Entrega os eventos preenchidos enquanto houver demanda (um único executor por vez)
+         */
+        private void entregar() {
+            int perdidas = 1;
+            for (;;) {
+                long pedidos = demanda.get();
+                long entregues = 0;
+                while (entregues != pedidos && !cancelada && !terminada) {
+                    EventoSaldo evento = eventos[(int) (cabeca & mascara)];
+                    if (evento.controle != cabeca + 1) {
+                        break;
+                    }
+                    try {
+                        assinante.onNext(evento);
+                    } catch (Throwable erro) {
+                        cancel();
+                        assinante.onError(erro);
+                        return;
+                    }
+                    evento.controle = cabeca + eventos.length;
+                    cabeca++;
+                    entregues++;
+                }
+                if (entregues != 0 && pedidos != Long.MAX_VALUE) {
+                    demanda.addAndGet(-entregues);
+                }
+                if (concluindo && !terminada && !cancelada
+                        && eventos[(int) (cabeca & mascara)].controle != cabeca + 1) {
+                    terminada = true;
+                    assinante.onComplete();
+                }
+                perdidas = pendencias.addAndGet(-perdidas);
+                if (perdidas == 0) {
+                    return;
+                }
+            }
+        }
+    }
+}
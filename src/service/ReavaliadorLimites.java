@@ -0,0 +1,158 @@
+package service;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Motor de reavaliação em lote dos limites de cheque especial.
+ * Quando a política de crédito muda, instala a nova política e recalcula em paralelo o limite
+ * de todas as contas correntes, informando quantos limites foram alterados. Como a política é
+ * única para todas as contas correntes (ContaCorrente.setPoliticaLimite), todos os bancos
+ * registrados (Banco.getBancos) são reavaliados, e não apenas um deles.
+ *
+ * Atributos:
+ * - pool: ForkJoinPool - Pool de threads usado na reavaliação paralela (final)
+ *
+ * Métodos Públicos:
+ * - reavaliar(PoliticaLimite novaPolitica): Resultado - Instala a política e recalcula os limites de todos os bancos registrados
+ * - reavaliar(Banco banco, PoliticaLimite novaPolitica): Resultado - Idem, incluindo um banco fora do registro
+ *   (ex: a partição de um NoBanco)
+ *
+ * Consistência:
+ * - A nova política é instalada antes do recálculo; assim, depósitos concorrentes já calculam
+ *   o limite pela política nova e nenhum limite antigo sobrescreve um recalculado
+ * - Em cada conta, leitura do estado, cálculo e troca do limite ocorrem sob o monitor da conta,
+ *   de modo que operações concorrentes observam o limite antigo ou o novo, nunca um intermediário
+ * - A troca é feita conta a conta, não em um único passo para o lote: enquanto a reavaliação
+ *   está em andamento, contas já recalculadas convivem com contas que ainda têm o limite antigo.
+ *   Como a política nova já está instalada, qualquer operação que recalcule o limite de uma conta
+ *   ainda não visitada já usa a política nova
+ * - Todas as contas são reavaliadas, inclusive as gravadas em disco pelo armazenamento em camadas,
+ *   que são recalculadas e regravadas sem voltar à memória (Banco.processarSemCarregar)
+ */
+public class ReavaliadorLimites {
+    // Pool de threads da reavaliação paralela
+    private final ForkJoinPool pool;
+
+    /**
+     * Construtor que usa o ForkJoinPool comum (um worker por núcleo)
+     */
+    public ReavaliadorLimites() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Construtor com pool próprio
+     * @param pool Pool de threads da reavaliação
+     */
+    public ReavaliadorLimites(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Instala a nova política de crédito e recalcula o limite de todas as contas correntes dos
+     * bancos registrados
+     * @param novaPolitica Política de limite a aplicar
+     * @return Resultado com a quantidade de contas avaliadas e de limites alterados
+     */
+    public Resultado reavaliar(PoliticaLimite novaPolitica) {
+        return reavaliar(Banco.getBancos(), novaPolitica);
+    }
+
+    /**
+     * Instala a nova política de crédito e recalcula o limite de todas as contas correntes do
+     * banco informado e dos bancos registrados
+     * @param banco Banco a reavaliar além dos registrados (ex: partição de um NoBanco)
+     * @param novaPolitica Política de limite a aplicar
+     * @return Resultado com a quantidade de contas avaliadas e de limites alterados
+     */
+    public Resultado reavaliar(Banco banco, PoliticaLimite novaPolitica) {
+        Set<Banco> bancos = new LinkedHashSet<>(Banco.getBancos());
+        bancos.add(banco);
+        return reavaliar(bancos, novaPolitica);
+    }
+
+    /**
+     * Instala a política e recalcula os limites das contas correntes dos bancos informados
+     */
+    private Resultado reavaliar(Collection<Banco> bancos, PoliticaLimite novaPolitica) {
+        ContaCorrente.setPoliticaLimite(novaPolitica);
+
+        long inicio = System.nanoTime();
+        long contasAvaliadas = 0;
+        long limitesAlterados = 0;
+        for (Banco banco : bancos) {
+            long[] contagem = reavaliarBanco(banco, novaPolitica);
+            contasAvaliadas += contagem[0];
+            limitesAlterados += contagem[1];
+        }
+        return new Resultado(contasAvaliadas, limitesAlterados, System.nanoTime() - inicio);
+    }
+
+    /**
+     * Recalcula em paralelo os limites das contas correntes de um banco
+     * @return {contas avaliadas, limites alterados}
+     */
+    private long[] reavaliarBanco(Banco banco, PoliticaLimite novaPolitica) {
+        // Números de todas as contas, inclusive as gravadas em disco pelo armazenamento em camadas
+        List<String> numeros = banco.getNumerosContas();
+        return pool.submit(() -> numeros.parallelStream()
+                .map(numero -> banco.processarSemCarregar(numero, conta -> conta instanceof ContaCorrente ?
+                        ((ContaCorrente) conta).reavaliarLimite(novaPolitica) : null))
+                .filter(Objects::nonNull)
+                .collect(() -> new long[2],
+                        (acumulado, alterado) -> {
+                            acumulado[0]++;
+                            if (alterado) {
+                                acumulado[1]++;
+                            }
+                        },
+                        (a, b) -> {
+                            a[0] += b[0];
+                            a[1] += b[1];
+                        }))
+                .join();
+    }
+
+    /**
+     * Resultado de uma reavaliação em lote
+     *
+     * Atributos:
+     * - contasAvaliadas: long - Contas correntes reavaliadas (final)
+     * - limitesAlterados: long - Contas cujo limite mudou (final)
+     * - duracaoNanos: long - Tempo gasto na reavaliação (final)
+     */
+    public static class Resultado {
+        private final long contasAvaliadas;
+        private final long limitesAlterados;
+        private final long duracaoNanos;
+
+        public Resultado(long contasAvaliadas, long limitesAlterados, long duracaoNanos) {
+            this.contasAvaliadas = contasAvaliadas;
+            this.limitesAlterados = limitesAlterados;
+            this.duracaoNanos = duracaoNanos;
+        }
+
+        public long getContasAvaliadas() {
+            return contasAvaliadas;
+        }
+
+        public long getLimitesAlterados() {
+            return limitesAlterados;
+        }
+
+        public long getDuracaoNanos() {
+            return duracaoNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d conta(s) corrente(s) avaliada(s), %d limite(s) alterado(s) em %.1f ms",
+                    contasAvaliadas, limitesAlterados, duracaoNanos / 1_000_000.0);
+        }
+    }
+}
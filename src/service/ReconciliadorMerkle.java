@@ -0,0 +1,560 @@
+package service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+/**
+ * Reconciliação dos saldos por árvore de Merkle. Mantém o estado esperado de cada conta (saldo e
+ * valor utilizado do cheque especial) e seu hash, agrupados em folhas pelo número da conta, e uma
+ * árvore binária de hashes sobre as folhas.
+ *
+ * O estado esperado não é lido da conta: é obtido aplicando, a partir do estado inicial, o tipo e
+ * o valor de cada movimento informado pelas operações (ver Estado esperado). A verificação compara
+ * o saldo e o cheque especial utilizado da conta com esse estado, de modo que um erro na
+ * aritmética da conta aparece como divergência.
+ *
+ * A árvore é atualizada de forma incremental: cada movimento de uma conta atualiza apenas a folha
+ * da conta (sob o monitor da própria conta) e marca a folha como suja;
+ * os nós internos dos caminhos sujos são recalculados quando a raiz é consultada. Comparar duas
+ * árvores (duas réplicas ou dois instantâneos) desce apenas pelos nós com hashes diferentes e
+ * encontra as contas divergentes em O(alteradas × log n).
+ *
+ * Atributos:
+ * - banco: Banco - Banco reconciliado (final)
+ * - quantidadeFolhas: int - Quantidade de folhas (potência de 2) (final)
+ * - folhas: Folha[] - Estado esperado de cada conta e soma dos hashes por folha (final)
+ * - nos: long[] - Árvore binária em array: raiz no índice 1, folhas a partir de quantidadeFolhas (final)
+ * - sujas: AtomicLongArray - Mapa de bits das folhas alteradas desde o último recálculo (final)
+ *
+ * Métodos Públicos:
+ * - ativar() / desativar(): void - Liga/desliga a atualização incremental pelas operações das contas do banco
+ * - getRaiz(): long - Hash da raiz (recalcula os caminhos sujos)
+ * - verificar(): Verificacao - Compara em paralelo todas as contas com o estado esperado e aponta divergências
+ * - instantaneo(): Instantaneo - Cópia imutável da árvore para comparação futura
+ * - diferencas(ArvoreMerkle a, ArvoreMerkle b): List<String> - Contas divergentes entre duas árvores (estático)
+ *
+ * Métodos de Pacote:
+ * - registrar(String numeroContaCompleto, TipoEventoSaldo tipo, long valor): void - Chamado pelas contas a cada movimento
+ * - incluir(Conta conta): void - Chamado pelo banco ao adicionar uma conta (estado inicial lido da conta)
+ * - remover(String numeroContaCompleto): void - Chamado pelo banco ao remover uma conta
+ * - hashEstado(String numero, long saldo, long valorUtilizado): long - Hash do estado de uma conta (estático)
+ *
+ * Estado esperado (tipo do movimento e valor, em centavos):
+ * - DEPOSITO: amortiza o cheque especial utilizado e o restante vai para o saldo
+ * - SAQUE: sai do saldo e o que faltar entra no cheque especial utilizado
+ * - QUITACAO_JUROS: reduz o cheque especial utilizado (até zero)
+ * - CAPITALIZACAO_JUROS: aumenta o cheque especial utilizado
+ * - RENDIMENTO: aumenta o saldo
+ * - ENTRADA_CHEQUE_ESPECIAL não altera o estado (já coberta pelo SAQUE)
+ *
+ * Observação:
+ * - Cada banco tem no máximo um reconciliador ativo (Banco.getReconciliador). Cada conta conhece o
+ *   banco em que está cadastrada (ResidenciaConta) e informa seus movimentos apenas ao reconciliador
+ *   desse banco, de modo que contas com o mesmo número em bancos diferentes não se misturam. Para
+ *   comparar réplicas no mesmo processo, a réplica não ativa é reconstruída com new ReconciliadorMerkle(banco)
+ * - O estado inicial de cada conta é lido dela na construção, na ativação e na inclusão pelo
+ *   banco; movimentos feitos com o reconciliador desativado só são incorporados na próxima ativação
+ * - Construção, ativação e verificação leem as contas em disco (armazenamento em camadas) sem
+ *   trazê-las para a memória nem marcar acesso (Banco.consultarSemCarregar)
+ * - Folhas somam os hashes das contas (soma é independente de ordem e permite atualização por
+ *   diferença); nós internos misturam os hashes dos filhos
+ */
+public class ReconciliadorMerkle implements ArvoreMerkle {
+    // Quantidade padrão de folhas
+    public static final int FOLHAS_PADRAO = 1 << 16;
+
+    // Banco reconciliado
+    private final Banco banco;
+
+    // Quantidade de folhas
+    private final int quantidadeFolhas;
+
+    // Hash de cada conta e soma dos hashes, por folha
+    private final Folha[] folhas;
+
+    // Árvore binária em array (raiz no índice 1)
+    private final long[] nos;
+
+    // Mapa de bits das folhas alteradas desde o último recálculo
+    private final AtomicLongArray sujas;
+
+    /**
+     * Constrói a árvore com a quantidade padrão de folhas
+     * @param banco Banco a ser reconciliado
+     */
+    public ReconciliadorMerkle(Banco banco) {
+        this(banco, FOLHAS_PADRAO);
+    }
+
+    /**
+     * Constrói a árvore calculando em paralelo o hash de todas as contas do banco
+     * @param banco Banco a ser reconciliado
+     * @param quantidadeFolhas Quantidade de folhas (arredondada para potência de 2)
+     */
+    public ReconciliadorMerkle(Banco banco, int quantidadeFolhas) {
+        if (quantidadeFolhas <= 0) {
+            throw new IllegalArgumentException("Quantidade de folhas deve ser positiva");
+        }
+        int folhasPotencia = 1;
+        while (folhasPotencia < quantidadeFolhas) {
+            folhasPotencia <<= 1;
+        }
+        this.banco = banco;
+        this.quantidadeFolhas = folhasPotencia;
+        this.folhas = new Folha[folhasPotencia];
+        for (int i = 0; i < folhasPotencia; i++) {
+            this.folhas[i] = new Folha();
+        }
+        this.nos = new long[2 * folhasPotencia];
+        this.sujas = new AtomicLongArray((folhasPotencia + 63) / 64);
+
+        banco.getNumerosContas().parallelStream().forEach(this::incluirPorNumero);
+        getRaiz();
+    }
+
+    /**
+     * Passa a receber as alterações feitas pelas operações das contas do banco (substitui o
+     * reconciliador ativo do banco). Operações em andamento terminam sob o monitor da conta antes
+     * de a árvore lê-la novamente
+     */
+    public void ativar() {
+        banco.setReconciliador(this);
+        // Contas alteradas entre a construção e a ativação são relidas
+        banco.getNumerosContas().parallelStream().forEach(this::incluirPorNumero);
+    }
+
+    /**
+     * Deixa de receber as alterações das contas
+     */
+    public void desativar() {
+        banco.removerReconciliador(this);
+    }
+
+    public Banco getBanco() {
+        return banco;
+    }
+
+    /**
+     * Aplica um movimento ao estado esperado da conta (chamado sob o monitor da conta, depois de a
+     * conta alterar o próprio estado). Contas ainda não incluídas só entram na árvore por incluir
+     * @param numeroContaCompleto Número completo da conta
+     * @param tipo Tipo do movimento
+     * @param valor Valor do movimento, em centavos
+     */
+    void registrar(String numeroContaCompleto, TipoEventoSaldo tipo, long valor) {
+        int indice = indiceFolha(numeroContaCompleto);
+        Folha folha = folhas[indice];
+        synchronized (folha) {
+            Estado estado = folha.contas.get(numeroContaCompleto);
+            if (estado == null) {
+                return;
+            }
+            long anterior = estado.hash;
+            estado.aplicar(tipo, valor);
+            estado.hash = hashEstado(numeroContaCompleto, estado.saldo, estado.utilizado);
+            folha.soma += estado.hash - anterior;
+        }
+        marcarSuja(indice);
+    }
+
+    /**
+     * Inclui (ou reinicia) uma conta na árvore, tomando como estado esperado o estado atual da
+     * conta, lido sob o monitor da conta
+     * @param conta Conta adicionada ao banco
+     */
+    void incluir(Conta conta) {
+        synchronized (conta) {
+            long[] atual = estadoDe(conta);
+            gravar(conta.getNumeroContaCompleto(), atual[0], atual[1]);
+        }
+    }
+
+    /**
+     * Inclui uma conta pelo número, lendo o estado das contas em disco sem trazê-las para a memória
+     */
+    private void incluirPorNumero(String numeroContaCompleto) {
+        banco.consultarSemCarregar(numeroContaCompleto, conta -> {
+            incluir(conta);
+            return Boolean.TRUE;
+        });
+    }
+
+    /**
+     * Grava o estado esperado de uma conta na sua folha
+     */
+    private void gravar(String numeroContaCompleto, long saldo, long utilizado) {
+        int indice = indiceFolha(numeroContaCompleto);
+        Folha folha = folhas[indice];
+        synchronized (folha) {
+            Estado estado = folha.contas.get(numeroContaCompleto);
+            if (estado == null) {
+                estado = new Estado();
+                folha.contas.put(numeroContaCompleto, estado);
+            }
+            folha.soma -= estado.hash;
+            estado.saldo = saldo;
+            estado.utilizado = utilizado;
+            estado.hash = hashEstado(numeroContaCompleto, saldo, utilizado);
+            folha.soma += estado.hash;
+        }
+        marcarSuja(indice);
+    }
+
+    /**
+     * Retira uma conta da árvore (conta removida do banco)
+     * @param numeroContaCompleto Número completo da conta
+     */
+    void remover(String numeroContaCompleto) {
+        int indice = indiceFolha(numeroContaCompleto);
+        Folha folha = folhas[indice];
+        synchronized (folha) {
+            Estado estado = folha.contas.remove(numeroContaCompleto);
+            if (estado == null) {
+                return;
+            }
+            folha.soma -= estado.hash;
+        }
+        marcarSuja(indice);
+    }
+
+    /**
+     * Retorna o hash da raiz, recalculando apenas os caminhos das folhas alteradas
+     * @return Hash da raiz
+     */
+    @Override
+    public synchronized long getRaiz() {
+        for (int palavra = 0; palavra < sujas.length(); palavra++) {
+            long bits = sujas.getAndSet(palavra, 0);
+            while (bits != 0) {
+                int indice = palavra * 64 + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                Folha folha = folhas[indice];
+                synchronized (folha) {
+                    nos[quantidadeFolhas + indice] = folha.soma;
+                }
+                for (int no = (quantidadeFolhas + indice) >>> 1; no >= 1; no >>>= 1) {
+                    nos[no] = misturar(nos[2 * no], nos[2 * no + 1]);
+                }
+            }
+        }
+        return nos[1];
+    }
+
+    @Override
+    public int getQuantidadeFolhas() {
+        return quantidadeFolhas;
+    }
+
+    @Override
+    public synchronized long getNo(int indice) {
+        return nos[indice];
+    }
+
+    @Override
+    public Map<String, Long> getContasDaFolha(int folha) {
+        Folha alvo = folhas[folha];
+        Map<String, Long> copia = new HashMap<>();
+        synchronized (alvo) {
+            alvo.contas.forEach((numero, estado) -> copia.put(numero, estado.hash));
+        }
+        return copia;
+    }
+
+    /**
+     * Compara em paralelo o saldo e o cheque especial utilizado de cada conta do banco com o
+     * estado esperado. Aponta contas cujo estado não resulta dos movimentos informados (erro de
+     * cálculo ou alteração sem passar pelas operações), contas ausentes do banco e contas ausentes
+     * da árvore. Uma conta divergente é conferida uma segunda vez antes de ser apontada, pois um
+     * depósito do modo conta quente pode ser consolidado entre a leitura da conta e a do estado
+     * @return Resultado da verificação
+     */
+    public Verificacao verificar() {
+        long inicio = System.nanoTime();
+        Set<String> divergentes = ConcurrentHashMap.newKeySet();
+
+        // Contas da árvore: o estado da conta deve coincidir com o estado esperado
+        IntStream.range(0, quantidadeFolhas).parallel().forEach(indice -> {
+            for (String numero : getContasDaFolha(indice).keySet()) {
+                if (divergente(indice, numero) && divergente(indice, numero)) {
+                    divergentes.add(numero);
+                }
+            }
+        });
+
+        // Contas do banco que não estão na árvore
+        List<String> numeros = banco.getNumerosContas();
+        numeros.parallelStream().forEach(numero -> {
+            Folha folha = folhas[indiceFolha(numero)];
+            synchronized (folha) {
+                if (!folha.contas.containsKey(numero)) {
+                    divergentes.add(numero);
+                }
+            }
+        });
+
+        return new Verificacao(numeros.size(), new ArrayList<>(new TreeSet<>(divergentes)),
+                System.nanoTime() - inicio);
+    }
+
+    /**
+     * Compara o estado atual de uma conta da árvore com o estado esperado
+     * @return true se os estados diferem ou a conta não existe mais no banco
+     */
+    private boolean divergente(int indice, String numero) {
+        Boolean divergente = banco.consultarSemCarregar(numero, conta -> {
+            synchronized (conta) {
+                long[] atual = estadoDe(conta);
+                Folha folha = folhas[indice];
+                synchronized (folha) {
+                    Estado esperado = folha.contas.get(numero);
+                    return esperado == null || esperado.saldo != atual[0] || esperado.utilizado != atual[1];
+                }
+            }
+        });
+        return divergente == null || divergente;
+    }
+
+    /**
+     * Cria uma cópia imutável da árvore e dos hashes das contas (custo proporcional ao número de contas)
+     * @return Instantâneo da árvore
+     */
+    public synchronized Instantaneo instantaneo() {
+        getRaiz();
+        List<Map<String, Long>> contas = new ArrayList<>(quantidadeFolhas);
+        for (int i = 0; i < quantidadeFolhas; i++) {
+            contas.add(getContasDaFolha(i));
+        }
+        return new Instantaneo(nos.clone(), contas);
+    }
+
+    /**
+     * Compara duas árvores com a mesma quantidade de folhas, descendo apenas pelos nós divergentes
+     * @param a Primeira árvore (reconciliador ou instantâneo)
+     * @param b Segunda árvore
+     * @return Números das contas com hash diferente ou presentes em apenas uma das árvores
+     */
+    public static List<String> diferencas(ArvoreMerkle a, ArvoreMerkle b) {
+        if (a.getQuantidadeFolhas() != b.getQuantidadeFolhas()) {
+            throw new IllegalArgumentException("Árvores com quantidades de folhas diferentes");
+        }
+        List<String> divergentes = new ArrayList<>();
+        if (a.getRaiz() == b.getRaiz()) {
+            return divergentes;
+        }
+        compararNo(a, b, 1, divergentes);
+        Collections.sort(divergentes);
+        return divergentes;
+    }
+
+    private static void compararNo(ArvoreMerkle a, ArvoreMerkle b, int no, List<String> divergentes) {
+        if (a.getNo(no) == b.getNo(no)) {
+            return;
+        }
+        int folhas = a.getQuantidadeFolhas();
+        if (no < folhas) {
+            compararNo(a, b, 2 * no, divergentes);
+            compararNo(a, b, 2 * no + 1, divergentes);
+            return;
+        }
+        Map<String, Long> contasA = a.getContasDaFolha(no - folhas);
+        Map<String, Long> contasB = b.getContasDaFolha(no - folhas);
+        for (Map.Entry<String, Long> conta : contasA.entrySet()) {
+            if (!conta.getValue().equals(contasB.get(conta.getKey()))) {
+                divergentes.add(conta.getKey());
+            }
+        }
+        for (String numero : contasB.keySet()) {
+            if (!contasA.containsKey(numero)) {
+                divergentes.add(numero);
+            }
+        }
+    }
+
+    /**
+     * Hash do estado de uma conta: número, saldo e valor utilizado do cheque especial
+     * @param numeroContaCompleto Número completo da conta
+     * @param saldo Saldo consolidado, em centavos
+     * @param valorUtilizado Valor utilizado do cheque especial, em centavos (0 para poupança)
+     * @return Hash de 64 bits
+     */
+    static long hashEstado(String numeroContaCompleto, long saldo, long valorUtilizado) {
+        long hash = misturar(numeroContaCompleto.hashCode(), saldo);
+        return misturar(hash, valorUtilizado);
+    }
+
+    /**
+     * Saldo e cheque especial utilizado da conta, em centavos (chamado sob o monitor da conta)
+     */
+    private static long[] estadoDe(Conta conta) {
+        long utilizado = conta instanceof ContaCorrente ? ((ContaCorrente) conta).getValorUtilizadoChequeEspecial() : 0;
+        return new long[] {conta.getSaldo(), utilizado};
+    }
+
+    private int indiceFolha(String numeroContaCompleto) {
+        return (int) (misturar(numeroContaCompleto.hashCode(), 0) >>> 1) & (quantidadeFolhas - 1);
+    }
+
+    private void marcarSuja(int indice) {
+        long bit = 1L << indice;
+        int palavra = indice >>> 6;
+        if ((sujas.get(palavra) & bit) == 0) {
+            sujas.getAndAccumulate(palavra, bit, (atual, novo) -> atual | novo);
+        }
+    }
+
+    /**
+     * Combina dois valores de 64 bits (finalizador do MurmurHash3)
+     */
+    private static long misturar(long a, long b) {
+        long h = a * 0x9E3779B97F4A7C15L + Long.rotateLeft(b, 31);
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Folha da árvore: estado esperado de cada conta da folha e soma dos hashes
+     */
+    private static final class Folha {
+        // Estado esperado de cada conta (atualizado sem nova alocação)
+        private final Map<String, Estado> contas = new HashMap<>();
+
+        // Soma dos hashes das contas
+        private long soma;
+    }
+
+    /**
+     * Estado esperado de uma conta, obtido pelos movimentos informados (acessado sob o bloqueio da folha)
+     */
+    private static final class Estado {
+        // Saldo esperado, em centavos
+        private long saldo;
+
+        // Cheque especial utilizado esperado, em centavos
+        private long utilizado;
+
+        // Hash do estado esperado
+        private long hash;
+
+        /**
+         * Aplica um movimento ao estado (ver Estado esperado)
+         */
+        void aplicar(TipoEventoSaldo tipo, long valor) {
+            switch (tipo) {
+                case DEPOSITO: {
+                    long paraCheque = Math.min(valor, utilizado);
+                    utilizado -= paraCheque;
+                    saldo = Dinheiro.somar(saldo, valor - paraCheque);
+                    break;
+                }
+                case SAQUE: {
+                    long doSaldo = Math.max(0, Math.min(valor, saldo));
+                    saldo -= doSaldo;
+                    utilizado = Dinheiro.somar(utilizado, valor - doSaldo);
+                    break;
+                }
+                case QUITACAO_JUROS:
+                    utilizado = Math.max(0, utilizado - valor);
+                    break;
+                case CAPITALIZACAO_JUROS:
+                    utilizado = Dinheiro.somar(utilizado, valor);
+                    break;
+                case RENDIMENTO:
+                    saldo = Dinheiro.somar(saldo, valor);
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Cópia imutável de uma árvore de Merkle
+     *
+     * Atributos:
+     * - nos: long[] - Hashes dos nós (final)
+     * - contas: List<Map<String, Long>> - Hash de cada conta, por folha (final)
+     */
+    public static class Instantaneo implements ArvoreMerkle {
+        private final long[] nos;
+        private final List<Map<String, Long>> contas;
+
+        Instantaneo(long[] nos, List<Map<String, Long>> contas) {
+            this.nos = nos;
+            this.contas = contas;
+        }
+
+        @Override
+        public long getRaiz() {
+            return nos[1];
+        }
+
+        @Override
+        public int getQuantidadeFolhas() {
+            return contas.size();
+        }
+
+        @Override
+        public long getNo(int indice) {
+            return nos[indice];
+        }
+
+        @Override
+        public Map<String, Long> getContasDaFolha(int folha) {
+            return Collections.unmodifiableMap(contas.get(folha));
+        }
+    }
+
+    /**
+     * Resultado de uma verificação completa
+     *
+     * Atributos:
+     * - contasVerificadas: int - Contas do banco (final)
+     * - divergentes: List<String> - Contas cujo estado não coincide com a árvore (final)
+     * - duracaoNanos: long - Tempo da verificação (final)
+     */
+    public static class Verificacao {
+        private final int contasVerificadas;
+        private final List<String> divergentes;
+        private final long duracaoNanos;
+
+        public Verificacao(int contasVerificadas, List<String> divergentes, long duracaoNanos) {
+            this.contasVerificadas = contasVerificadas;
+            this.divergentes = divergentes;
+            this.duracaoNanos = duracaoNanos;
+        }
+
+        public int getContasVerificadas() {
+            return contasVerificadas;
+        }
+
+        public List<String> getDivergentes() {
+            return divergentes;
+        }
+
+        public long getDuracaoNanos() {
+            return duracaoNanos;
+        }
+
+        public boolean isConsistente() {
+            return divergentes.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Reconciliação: %d conta(s) verificada(s), %d divergente(s) em %.1f ms",
+                    contasVerificadas, divergentes.size(), duracaoNanos / 1_000_000.0);
+        }
+    }
+}
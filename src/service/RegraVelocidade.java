@@ -0,0 +1,99 @@
+package service;
+
+import java.time.Duration;
+
+/**
+ * Regra de velocidade para saques e pagamentos (prevenção a fraudes): limita a quantidade de
+ * saques e/ou o valor total sacado por uma conta dentro de uma janela de tempo.
+ * Ex: "mais de 5 saques ou R$ 2.000,00 em 10 minutos".
+ *
+ * Atributos:
+ * - maxSaques: int - Quantidade máxima de saques na janela (Integer.MAX_VALUE = sem limite) (final)
+ * - valorMaximo: long - Valor máximo sacado na janela, em centavos (Long.MAX_VALUE = sem limite) (final)
+ * - janela: Duration - Janela de tempo avaliada (final)
+ *
+ * Métodos Públicos:
+ * - porQuantidade(int maxSaques, Duration janela): RegraVelocidade - Regra apenas por quantidade
+ * - porValor(long valorMaximo, Duration janela): RegraVelocidade - Regra apenas por valor
+ * - getters: Acesso aos atributos
+ */
+public class RegraVelocidade {
+    // Quantidade máxima de saques na janela
+    private final int maxSaques;
+
+    // Valor máximo sacado na janela, em centavos
+    private final long valorMaximo;
+
+    // Janela de tempo avaliada
+    private final Duration janela;
+
+    /**
+     * Construtor da regra
+     * @param maxSaques Quantidade máxima de saques na janela (Integer.MAX_VALUE para não limitar)
+     * @param valorMaximo Valor máximo sacado na janela, em centavos (Long.MAX_VALUE para não limitar)
+     * @param janela Janela de tempo avaliada
+     */
+    public RegraVelocidade(int maxSaques, long valorMaximo, Duration janela) {
+        if (maxSaques <= 0 || valorMaximo <= 0 || janela.isNegative() || janela.isZero()) {
+            throw new IllegalArgumentException("Limites e janela da regra de velocidade devem ser positivos");
+        }
+        this.maxSaques = maxSaques;
+        this.valorMaximo = valorMaximo;
+        this.janela = janela;
+    }
+
+    public static RegraVelocidade porQuantidade(int maxSaques, Duration janela) {
+        return new RegraVelocidade(maxSaques, Long.MAX_VALUE, janela);
+    }
+
+    public static RegraVelocidade porValor(long valorMaximo, Duration janela) {
+        return new RegraVelocidade(Integer.MAX_VALUE, valorMaximo, janela);
+    }
+
+    public int getMaxSaques() {
+        return maxSaques;
+    }
+
+    public long getValorMaximo() {
+        return valorMaximo;
+    }
+
+    public Duration getJanela() {
+        return janela;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder texto = new StringBuilder();
+        if (maxSaques != Integer.MAX_VALUE) {
+            texto.append("mais de ").append(maxSaques).append(" saque(s)");
+        }
+        if (valorMaximo != Long.MAX_VALUE) {
+            if (texto.length() > 0) {
+                texto.append(" ou ");
+            }
+            texto.append("mais de R$ ").append(Dinheiro.formatar(valorMaximo));
+        }
+        return texto.append(" em ").append(formatarJanela()).toString();
+    }
+
+    /**
+     * Formata a janela na maior unidade que a representa exatamente (ex: "10 minuto(s)", "90 segundo(s)")
+     */
+    private String formatarJanela() {
+        if (janela.getNano() % 1_000_000 != 0) {
+            return janela.toString();
+        }
+        long millis = janela.toMillis();
+        if (millis % 3_600_000 == 0) {
+            return millis / 3_600_000 + " hora(s)";
+        }
+        if (millis % 60_000 == 0) {
+            return millis / 60_000 + " minuto(s)";
+        }
+        if (millis % 1_000 == 0) {
+            return millis / 1_000 + " segundo(s)";
+        }
+        return millis + " ms";
+    }
+}
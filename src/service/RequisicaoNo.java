@@ -0,0 +1,119 @@
+package service;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Mensagem enviada a um nó do banco (NoBanco) pelo cliente roteador ou por outro nó.
+ *
+ * Atributos:
+ * - operacao: Operacao - Operação solicitada (final)
+ * - numeroConta: String - Número completo da conta alvo (final)
+ * - valor: long - Valor da operação financeira, em centavos (final)
+ * - conta: Conta - Conta a ser criada ou importada (final)
+ * - membros: List<EnderecoNo> - Nós do cluster, usado no rebalanceamento (final)
+ * - membrosAnteriores: List<EnderecoNo> - Nós do cluster antes do rebalanceamento (final)
+ * - nosVirtuais: int - Nós virtuais por nó, usado no rebalanceamento (final)
+ *
+ * Métodos Públicos:
+ * - paraConta(Operacao, String, long): RequisicaoNo - Cria requisição de operação sobre conta
+ * - criacao(Conta): RequisicaoNo - Cria requisição de cadastro de conta
+ * - importacao(Conta): RequisicaoNo - Cria requisição de recebimento de conta migrada
+ * - rebalanceamento(List<EnderecoNo>, List<EnderecoNo>, int): RequisicaoNo - Cria requisição de preparo do rebalanceamento
+ * - etapaRebalanceamento(Operacao): RequisicaoNo - Cria requisição de MIGRAR, CONFIRMAR ou CANCELAR
+ * - getters
+ */
+public class RequisicaoNo implements Serializable {
+    private static final long serialVersionUID = 3L;
+
+    /**
+     * Operações aceitas por um nó. O rebalanceamento tem três etapas: REBALANCEAR prepara os
+     * anéis anterior e novo, MIGRAR envia as contas aos novos donos e CONFIRMAR (ou CANCELAR,
+     * que devolve as contas recebidas) encerra o rebalanceamento
+     */
+    public enum Operacao {
+        CRIAR, BUSCAR, SALDO, DEPOSITO, SAQUE, PAGAMENTO, IMPORTAR, REBALANCEAR, MIGRAR, CONFIRMAR, CANCELAR
+    }
+
+    // Operação solicitada
+    private final Operacao operacao;
+
+    // Número completo da conta alvo
+    private final String numeroConta;
+
+    // Valor da operação financeira
+    private final long valor;
+
+    // Conta a ser criada ou importada
+    private final Conta conta;
+
+    // Nós do cluster (rebalanceamento)
+    private final List<EnderecoNo> membros;
+
+    // Nós do cluster antes do rebalanceamento
+    private final List<EnderecoNo> membrosAnteriores;
+
+    // Nós virtuais por nó (rebalanceamento)
+    private final int nosVirtuais;
+
+    private RequisicaoNo(Operacao operacao, String numeroConta, long valor, Conta conta,
+                         List<EnderecoNo> membros, List<EnderecoNo> membrosAnteriores, int nosVirtuais) {
+        this.operacao = operacao;
+        this.numeroConta = numeroConta;
+        this.valor = valor;
+        this.conta = conta;
+        this.membros = membros;
+        this.membrosAnteriores = membrosAnteriores;
+        this.nosVirtuais = nosVirtuais;
+    }
+
+    public static RequisicaoNo paraConta(Operacao operacao, String numeroConta, long valor) {
+        return new RequisicaoNo(operacao, numeroConta, valor, null, null, null, 0);
+    }
+
+    public static RequisicaoNo criacao(Conta conta) {
+        return new RequisicaoNo(Operacao.CRIAR, conta.getNumeroContaCompleto(), 0, conta, null, null, 0);
+    }
+
+    public static RequisicaoNo importacao(Conta conta) {
+        return new RequisicaoNo(Operacao.IMPORTAR, conta.getNumeroContaCompleto(), 0, conta, null, null, 0);
+    }
+
+    public static RequisicaoNo rebalanceamento(List<EnderecoNo> membros, List<EnderecoNo> membrosAnteriores,
+                                               int nosVirtuais) {
+        return new RequisicaoNo(Operacao.REBALANCEAR, null, 0, null, List.copyOf(membros),
+                List.copyOf(membrosAnteriores), nosVirtuais);
+    }
+
+    public static RequisicaoNo etapaRebalanceamento(Operacao operacao) {
+        return new RequisicaoNo(operacao, null, 0, null, null, null, 0);
+    }
+
+    public Operacao getOperacao() {
+        return operacao;
+    }
+
+    public String getNumeroConta() {
+        return numeroConta;
+    }
+
+    public long getValor() {
+        return valor;
+    }
+
+    public Conta getConta() {
+        return conta;
+    }
+
+    public List<EnderecoNo> getMembros() {
+        return membros;
+    }
+
+    public List<EnderecoNo> getMembrosAnteriores() {
+        return membrosAnteriores;
+    }
+
+    public int getNosVirtuais() {
+        return nosVirtuais;
+    }
+}
@@ -0,0 +1,122 @@
+package service;
+
+import java.io.Serializable;
+
+/**
+ * Estado de residência em memória de uma conta, usado pelo armazenamento em camadas
+ * (ArmazenamentoEmCamadas). Cada ContaCorrente e ContaPoupanca possui uma instância.
+ *
+ * Atributos:
+ * - acessada: boolean - Bit de referência do algoritmo do relógio: conta usada desde a última varredura
+ * - despejadaPor: ArmazenamentoEmCamadas - Armazenamento que gravou a conta em disco (null se residente)
+ * - banco: Banco - Banco em que a conta está cadastrada (null se não cadastrada ou encerrada)
+ *
+ * Métodos de Pacote:
+ * - registrarAcesso(Conta conta): void - Marca o acesso e reativa a conta se ela tiver sido despejada
+ * - garantirResidencia(Conta conta): void - Reativa a conta despejada antes de uma alteração de estado
+ * - consumirAcesso(): boolean - Lê e limpa o bit de referência
+ * - marcarDespejada / limparDespejo: Transições controladas pelo armazenamento em camadas
+ * - vincular(Banco banco): void - Define o banco da conta (chamado pelo banco)
+ * - getReconciliador(): ReconciliadorMerkle - Reconciliador ativo do banco da conta ou null
+ * - de(Conta conta): ResidenciaConta - Estado de residência da conta (null se a conta não suportar camadas)
+ *
+ * Observação:
+ * - Os campos são transientes: uma conta lida do disco começa residente e sem acesso registrado
+ * - Um objeto despejado que ainda esteja referenciado por algum chamador volta a ser a conta
+ *   residente no primeiro uso, de modo que nenhuma alteração feita por ele é perdida
+ */
+final class ResidenciaConta implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    // Conta usada desde a última varredura
+    private transient volatile boolean acessada;
+
+    // Armazenamento que gravou a conta em disco (null enquanto residente)
+    private transient volatile ArmazenamentoEmCamadas despejadaPor;
+
+    // Banco em que a conta está cadastrada (refeito pelo banco ao ler a conta do disco)
+    private transient volatile Banco banco;
+
+    /**
+     * Marca o acesso à conta e, se ela tiver sido despejada, devolve-a à memória
+     * @param conta Conta dona deste estado
+     */
+    void registrarAcesso(Conta conta) {
+        // Evita escrever na linha de cache quando o bit já está marcado
+        if (!acessada) {
+            acessada = true;
+        }
+        garantirResidencia(conta);
+    }
+
+    /**
+     * Devolve a conta à memória se ela tiver sido despejada (sem marcar acesso)
+     * @param conta Conta dona deste estado
+     */
+    void garantirResidencia(Conta conta) {
+        ArmazenamentoEmCamadas camada = despejadaPor;
+        if (camada != null) {
+            camada.reativar(conta);
+        }
+    }
+
+    /**
+     * Lê e limpa o bit de referência
+     * @return true se a conta foi acessada desde a última chamada
+     */
+    boolean consumirAcesso() {
+        boolean valor = acessada;
+        if (valor) {
+            acessada = false;
+        }
+        return valor;
+    }
+
+    boolean isDespejada() {
+        return despejadaPor != null;
+    }
+
+    void marcarDespejada(ArmazenamentoEmCamadas camada) {
+        despejadaPor = camada;
+    }
+
+    void vincular(Banco banco) {
+        this.banco = banco;
+    }
+
+    /**
+     * Retorna o reconciliador ativo do banco da conta
+     * @return Reconciliador ou null se a conta não estiver cadastrada ou o banco não tiver reconciliador ativo
+     */
+    ReconciliadorMerkle getReconciliador() {
+        Banco atual = banco;
+        return atual == null ? null : atual.getReconciliador();
+    }
+
+    /**
+     * Marca a conta como residente se ela tiver sido despejada pelo armazenamento informado
+     * @return true se a conta estava despejada por esse armazenamento
+     */
+    boolean limparDespejo(ArmazenamentoEmCamadas camada) {
+        if (despejadaPor != camada) {
+            return false;
+        }
+        despejadaPor = null;
+        return true;
+    }
+
+    /**
+     * Retorna o estado de residência de uma conta
+     * @param conta Conta consultada
+     * @return Estado de residência ou null se o tipo de conta não suportar armazenamento em camadas
+     */
+    static ResidenciaConta de(Conta conta) {
+        if (conta instanceof ContaCorrente) {
+            return ((ContaCorrente) conta).getResidencia();
+        }
+        if (conta instanceof ContaPoupanca) {
+            return ((ContaPoupanca) conta).getResidencia();
+        }
+        return null;
+    }
+}
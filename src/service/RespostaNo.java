@@ -0,0 +1,111 @@
+package service;
+
+import java.io.Serializable;
+
+/**
+ * Resposta de um nó do banco (NoBanco) a uma RequisicaoNo.
+ *
+ * Atributos:
+ * - status: Status - Resultado da requisição (final)
+ * - saldo: long - Saldo da conta após a operação, em centavos (final)
+ * - tipoConta: String - Tipo da conta ("cc" ou "cp"), preenchido em BUSCAR (final)
+ * - nomeCliente: String - Titular da conta, preenchido em BUSCAR (final)
+ * - destino: EnderecoNo - Nó que passou a ser dono da conta, quando status é MOVIDA (final)
+ * - mensagem: String - Descrição do resultado (final)
+ *
+ * Métodos Públicos:
+ * - ok / falha / naoEncontrada / movida / rejeitada / erro: Fábricas para cada status
+ * - getters
+ */
+public class RespostaNo implements Serializable {
+    private static final long serialVersionUID = 2L;
+
+    /**
+     * Resultados possíveis de uma requisição
+     * - OK: operação executada
+     * - FALHA: operação recusada pela regra de negócio (ex: saldo insuficiente)
+     * - NAO_ENCONTRADA: conta inexistente no nó
+     * - MOVIDA: conta pertence a outro nó (ver destino)
+     * - REJEITADA: operação recusada pelo controle de admissão (limite de taxa excedido)
+     * - ERRO: falha técnica (comunicação, requisição inválida)
+     */
+    public enum Status {
+        OK, FALHA, NAO_ENCONTRADA, MOVIDA, REJEITADA, ERRO
+    }
+
+    private final Status status;
+    private final long saldo;
+    private final String tipoConta;
+    private final String nomeCliente;
+    private final EnderecoNo destino;
+    private final String mensagem;
+
+    private RespostaNo(Status status, long saldo, String tipoConta, String nomeCliente,
+                       EnderecoNo destino, String mensagem) {
+        this.status = status;
+        this.saldo = saldo;
+        this.tipoConta = tipoConta;
+        this.nomeCliente = nomeCliente;
+        this.destino = destino;
+        this.mensagem = mensagem;
+    }
+
+    public static RespostaNo ok(Conta conta) {
+        return new RespostaNo(Status.OK, conta.getSaldo(), conta.getTipoConta(),
+                conta.getNomeCliente(), null, null);
+    }
+
+    public static RespostaNo ok(String mensagem) {
+        return new RespostaNo(Status.OK, 0, null, null, null, mensagem);
+    }
+
+    public static RespostaNo falha(Conta conta, String mensagem) {
+        return new RespostaNo(Status.FALHA, conta.getSaldo(), conta.getTipoConta(),
+                conta.getNomeCliente(), null, mensagem);
+    }
+
+    public static RespostaNo naoEncontrada(String numeroConta) {
+        return new RespostaNo(Status.NAO_ENCONTRADA, 0, null, null, null,
+                "Conta não encontrada: " + numeroConta);
+    }
+
+    public static RespostaNo movida(EnderecoNo destino) {
+        return new RespostaNo(Status.MOVIDA, 0, null, null, destino,
+                "Conta pertence ao nó " + destino);
+    }
+
+    public static RespostaNo rejeitada(StatusAdmissao statusAdmissao) {
+        return new RespostaNo(Status.REJEITADA, 0, null, null, null,
+                statusAdmissao == StatusAdmissao.REJEITADA_CONTA ?
+                        "Operação rejeitada: limite de operações da conta excedido" :
+                        "Operação rejeitada: limite de operações do banco excedido");
+    }
+
+    public static RespostaNo erro(String mensagem) {
+        return new RespostaNo(Status.ERRO, 0, null, null, null, mensagem);
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public long getSaldo() {
+        return saldo;
+    }
+
+    public String getTipoConta() {
+        return tipoConta;
+    }
+
+    public String getNomeCliente() {
+        return nomeCliente;
+    }
+
+    public EnderecoNo getDestino() {
+        return destino;
+    }
+
+    public String getMensagem() {
+        return mensagem;
+    }
+}
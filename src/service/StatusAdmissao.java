@@ -0,0 +1,23 @@
+package service;
+
+/**
+ * Resultado do controle de admissão de uma operação.
+ *
+ * Valores:
+ * - ADMITIDA: operação liberada para execução
+ * - REJEITADA_CONTA: a conta excedeu seu limite de operações por segundo
+ * - REJEITADA_GLOBAL: o banco excedeu o limite global de operações por segundo
+ */
+public enum StatusAdmissao {
+    ADMITIDA,
+    REJEITADA_CONTA,
+    REJEITADA_GLOBAL;
+
+    /**
+     * Indica se a operação foi liberada
+     * @return true se a operação pode ser executada
+     */
+    public boolean isAdmitida() {
+        return this == ADMITIDA;
+    }
+}
@@ -0,0 +1,25 @@
+package service;
+
+import java.time.LocalDate;
+
+/**
+ * Tarefa em lote que capitaliza diariamente os juros do cheque especial das contas correntes.
+ * Os juros são lançados até a data de referência do lote, e não até a data em que o lote roda,
+ * de modo que uma retomada ou um processamento atrasado capitaliza o dia certo. A capitalização
+ * é idempotente para a mesma data (ver Juros.capitalizarJuros).
+ */
+public class TarefaJurosChequeEspecial implements TarefaLote {
+
+    @Override
+    public String getNome() {
+        return "juros-cheque-especial";
+    }
+
+    @Override
+    public boolean processar(Conta conta, LocalDate dataReferencia) {
+        if (!(conta instanceof ContaCorrente)) {
+            return false;
+        }
+        return ((ContaCorrente) conta).capitalizarJuros(dataReferencia) > 0;
+    }
+}
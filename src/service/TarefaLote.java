@@ -0,0 +1,42 @@
+package service;
+
+import java.time.LocalDate;
+
+/**
+ * Interface que define uma tarefa executada pelo processamento em lote (ProcessadorLote)
+ * sobre todas as contas do banco.
+ *
+ * Métodos:
+ * - getNome(): String - Nome da tarefa, usado para identificar seus checkpoints
+ * - deveExecutar(LocalDate dataReferencia): boolean - Indica se a tarefa roda na data
+ * - processar(Conta conta, LocalDate dataReferencia): boolean - Processa uma conta
+ *
+ * Requisitos para implementações:
+ * - processar deve ser idempotente para a mesma data de referência: após uma falha, o bloco
+ *   interrompido é processado novamente e algumas de suas contas já terão sido tratadas
+ * - processar é chamado com o monitor da conta adquirido e não deve exibir mensagens por conta
+ */
+public interface TarefaLote {
+    /**
+     * Retorna o nome da tarefa (único entre as tarefas agendadas)
+     * @return Nome da tarefa
+     */
+    String getNome();
+
+    /**
+     * Indica se a tarefa deve ser executada na data de referência
+     * @param dataReferencia Data do processamento
+     * @return true se a tarefa roda nesta data (padrão: todos os dias)
+     */
+    default boolean deveExecutar(LocalDate dataReferencia) {
+        return true;
+    }
+
+    /**
+     * Processa uma conta
+     * @param conta Conta a ser processada
+     * @param dataReferencia Data do processamento
+     * @return true se a conta foi alterada
+     */
+    boolean processar(Conta conta, LocalDate dataReferencia);
+}
@@ -0,0 +1,29 @@
+package service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * Tarefa em lote que aplica o rendimento mensal das contas poupança.
+ * Executa no primeiro dia de cada mês e credita o rendimento uma única vez por mês em cada conta.
+ */
+public class TarefaRendimentoPoupanca implements TarefaLote {
+
+    @Override
+    public String getNome() {
+        return "rendimento-poupanca";
+    }
+
+    @Override
+    public boolean deveExecutar(LocalDate dataReferencia) {
+        return dataReferencia.getDayOfMonth() == 1;
+    }
+
+    @Override
+    public boolean processar(Conta conta, LocalDate dataReferencia) {
+        if (!(conta instanceof ContaPoupanca)) {
+            return false;
+        }
+        return ((ContaPoupanca) conta).aplicarRendimentoDoMes(YearMonth.from(dataReferencia));
+    }
+}
@@ -0,0 +1,21 @@
+package service;
+
+/**
+ * Tipos de evento publicados no feed de alterações de saldo (PublicadorEventos)
+ *
+ * Valores:
+ * - DEPOSITO: Depósito efetuado (valor depositado)
+ * - SAQUE: Saque ou pagamento efetuado (valor sacado)
+ * - ENTRADA_CHEQUE_ESPECIAL: Conta passou a usar o cheque especial (valor utilizado no saque)
+ * - QUITACAO_JUROS: Juros do cheque especial quitados por um depósito (valor quitado)
+ * - CAPITALIZACAO_JUROS: Juros do cheque especial lançados como dívida pelo lote noturno (valor lançado)
+ * - RENDIMENTO: Rendimento creditado na poupança (valor do rendimento)
+ */
+public enum TipoEventoSaldo {
+    DEPOSITO,
+    SAQUE,
+    ENTRADA_CHEQUE_ESPECIAL,
+    QUITACAO_JUROS,
+    CAPITALIZACAO_JUROS,
+    RENDIMENTO
+}